@@ -0,0 +1,37 @@
+package slimefinder.benchmark;
+
+import slimefinder.io.properties.ImageProperties;
+import slimefinder.io.properties.MaskProperties;
+
+import static slimefinder.io.properties.ImageProperties.*;
+import static slimefinder.io.properties.MaskProperties.*;
+
+/**
+ * Properties shared by the benchmarks.
+ */
+public final class Settings {
+
+    private Settings() {
+    }
+
+    public static MaskProperties maskProperties(long seed, int yOffset) {
+        MaskProperties pMask = new MaskProperties();
+        pMask.setProperty(SEED, seed);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(OFFSET, yOffset);
+        pMask.setProperty(WEIGHT, 0);
+        return pMask;
+    }
+
+    public static ImageProperties imageProperties() {
+        ImageProperties pImage = new ImageProperties();
+        pImage.setProperty(BLOCK_WIDTH, 1);
+        pImage.setProperty(GRID_WIDTH, 1);
+        pImage.setProperty(DRAW_SLIME_CHUNKS, true);
+        pImage.setProperty(DRAW_BLOCK_MASK, true);
+        pImage.setProperty(DRAW_CHUNK_MASK, true);
+        pImage.setProperty(DRAW_CENTER, true);
+        return pImage;
+    }
+}
@@ -0,0 +1,40 @@
+package slimefinder.core;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SlimefinderBenchmark {
+
+    private static final int POINTS = 1024;
+
+    @Param({"0", "-4172144997902289642", "1234567890"})
+    public long seed;
+
+    private int[] xs, zs;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        Random r = new Random(0);
+        xs = new int[POINTS];
+        zs = new int[POINTS];
+        for (int j = 0; j < POINTS; j++) {
+            xs[j] = r.nextInt(2000000) - 1000000;
+            zs[j] = r.nextInt(2000000) - 1000000;
+        }
+    }
+
+    @Benchmark
+    public boolean isSlimeChunk() {
+        i = (i + 1) & (POINTS - 1);
+        return Slimefinder.isSlimeChunk(seed, xs[i], zs[i]);
+    }
+}
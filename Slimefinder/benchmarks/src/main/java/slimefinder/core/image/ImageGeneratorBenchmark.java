@@ -0,0 +1,38 @@
+package slimefinder.core.image;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import slimefinder.benchmark.Settings;
+import slimefinder.core.mask.Mask;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ImageGeneratorBenchmark {
+
+    @Param({"0", "-4172144997902289642"})
+    public long seed;
+
+    @Param({"0", "-16", "-24"})
+    public int yOffset;
+
+    private ImageGenerator generator;
+    private Mask mask;
+
+    @Setup
+    public void setUp() {
+        generator = new ImageGenerator(Settings.imageProperties());
+        mask = new Mask(Settings.maskProperties(seed, yOffset), 0, 0, 7, 7);
+    }
+
+    @Benchmark
+    public BufferedImage draw() {
+        return generator.draw(mask);
+    }
+}
@@ -0,0 +1,86 @@
+package slimefinder.core.mask;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import slimefinder.benchmark.Settings;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.util.Direction;
+
+/**
+ * The benchmarks are in the same package as the masks to reach updateSize and updateWeights.
+ * The weights are shared through KernelCache, so updateWeights measures a cache hit and
+ * computeWeights the cost of a cache miss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MaskBenchmark {
+
+    @Param({"0", "-4172144997902289642"})
+    public long seed;
+
+    @Param({"0", "-16", "-24"})
+    public int yOffset;
+
+    @Param({"Mask", "CeilMask", "FloorMask"})
+    public String type;
+
+    private AbstractMask mask;
+
+    @Setup
+    public void setUp() {
+        MaskProperties pMask = Settings.maskProperties(seed, yOffset);
+        switch (type) {
+            case "Mask":
+                mask = new Mask(pMask, 0, 0, 7, 7);
+                break;
+            case "CeilMask":
+                mask = new CeilMask(pMask, 0, 0);
+                break;
+            case "FloorMask":
+                mask = new FloorMask(pMask, 0, 0);
+                break;
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+
+    @Benchmark
+    public int moveByChunk() {
+        mask.moveByChunk(Direction.EAST);
+        return mask.blockSize;
+    }
+
+    @Benchmark
+    public int updateSize() {
+        mask.updateSize();
+        return mask.blockSize;
+    }
+
+    /**
+     * updateSize when only the chunk size and the bounds of the block size are needed
+     */
+    @Benchmark
+    public int updateSizeLazily() {
+        mask.setLazyBlockSize(true);
+        mask.updateSize();
+        mask.setLazyBlockSize(false);
+        return mask.chunkSize + mask.maxBlockSize();
+    }
+
+    @Benchmark
+    public int updateWeights() {
+        mask.updateWeights();
+        return mask.blockSurfaceArea;
+    }
+
+    @Benchmark
+    public int[][] computeWeights() {
+        return mask.computeWeights();
+    }
+}
@@ -0,0 +1,64 @@
+package slimefinder.core.search;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NonMaximumSuppressionBenchmark {
+
+    private static final int WIDTH = 64;
+
+    @Param({"1", "8"})
+    public int radius;
+
+    /**
+     * Matches at every within-chunk position of a WIDTH x WIDTH area listed row by row like in a
+     * fine search
+     */
+    private MaskData[] matches;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        matches = new MaskData[WIDTH * WIDTH * 256];
+        int n = 0;
+        for (int z = 0; z < WIDTH; z++) {
+            for (int x = 0; x < WIDTH; x++) {
+                for (int i = 0; i < 256; i++) {
+                    MaskData m = new MaskData();
+                    m.chunk = new Point(x, z);
+                    m.in = new Point(i & 15, i >> 4);
+                    m.blockSize = random.nextInt(1000);
+                    matches[n++] = m;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows are searched from north to south, row z being searched at progress z + 1.
+     */
+    @Benchmark
+    public void suppressRows(Blackhole blackhole) throws Exception {
+        NonMaximumSuppression suppression = new NonMaximumSuppression(radius, 1, 0, (x, z, d) -> (long) z + d + 1);
+        int n = 0;
+        for (int z = 0; z < WIDTH; z++) {
+            for (int i = 0; i < WIDTH * 256; i++) {
+                suppression.offer(matches[n++]);
+            }
+            suppression.advance(z + 1, blackhole::consume);
+        }
+        suppression.flush(blackhole::consume);
+    }
+}
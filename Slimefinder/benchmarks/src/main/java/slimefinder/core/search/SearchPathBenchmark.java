@@ -0,0 +1,34 @@
+package slimefinder.core.search;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import slimefinder.util.Point;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SearchPathBenchmark {
+
+    private static final int WIDTH = 1000;
+
+    private SearchPath path;
+
+    @Setup
+    public void setUp() {
+        path = new SearchPath(new Point(0, 0), 0, WIDTH);
+    }
+
+    /**
+     * Restarts the path when it ends, which happens once every million steps.
+     */
+    @Benchmark
+    public Point step() {
+        if (!path.step()) setUp();
+        return path.getPoint();
+    }
+}
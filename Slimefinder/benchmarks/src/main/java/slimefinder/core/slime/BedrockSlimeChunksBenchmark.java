@@ -0,0 +1,42 @@
+package slimefinder.core.slime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BedrockSlimeChunksBenchmark {
+
+    private static final int ROW_LENGTH = 1024;
+
+    private final SlimeChunkSource bedrock = new BedrockSlimeChunks();
+    private final SlimeChunkSource java = new OracleSlimeChunks(-4172144997902289642L);
+    private final long[] words = new long[ROW_LENGTH / 64];
+    private int chunkZ;
+
+    @Benchmark
+    public long[] bedrockRow() {
+        bedrock.row(-ROW_LENGTH / 2, chunkZ++, ROW_LENGTH, words, 0);
+        return words;
+    }
+
+    @Benchmark
+    public long[] bedrockChunks() {
+        int z = chunkZ++;
+        for (int i = 0; i < ROW_LENGTH; i++) {
+            if (bedrock.isSlimeChunk(i - ROW_LENGTH / 2, z)) words[i >>> 6] |= 1L << i;
+        }
+        return words;
+    }
+
+    @Benchmark
+    public long[] javaRow() {
+        java.row(-ROW_LENGTH / 2, chunkZ++, ROW_LENGTH, words, 0);
+        return words;
+    }
+}
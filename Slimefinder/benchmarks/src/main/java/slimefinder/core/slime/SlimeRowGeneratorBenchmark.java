@@ -0,0 +1,46 @@
+package slimefinder.core.slime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SlimeRowGeneratorBenchmark {
+
+    private static final int ROW_LENGTH = 1024;
+
+    @Param({"0", "-4172144997902289642"})
+    public long seed;
+
+    private final long[] words = new long[ROW_LENGTH / 64];
+    private int chunkZ;
+
+    @Benchmark
+    public long[] generate() {
+        SlimeRowGenerator.generate(seed, -ROW_LENGTH / 2, chunkZ++, ROW_LENGTH, words, 0);
+        return words;
+    }
+
+    /**
+     * Same as generate with the Vector API enabled on Java 17 and later
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public long[] generateVector() {
+        return generate();
+    }
+
+    @Benchmark
+    public long[] oracle() {
+        int z = chunkZ++;
+        for (int i = 0; i < ROW_LENGTH; i++) {
+            if (SlimeChunkOracle.isSlimeChunk(seed, i - ROW_LENGTH / 2, z)) words[i >>> 6] |= 1L << i;
+        }
+        return words;
+    }
+}
@@ -0,0 +1,72 @@
+package slimefinder.core.slime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SlimeTileCacheBenchmark {
+
+    /**
+     * Side length in chunks of the area the lookups are made in
+     */
+    private static final int AREA = 512;
+
+    private static final long SEED = -4172144997902289642L;
+
+    private SlimeTileCache cache;
+    private OracleSlimeChunks oracle;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        oracle = new OracleSlimeChunks(SEED);
+        cache = new SlimeTileCache(oracle, 64 << 20);
+        for (int z = 0; z < AREA; z++) {
+            cache.row(-AREA / 2, z - AREA / 2, AREA, new long[AREA / 64], 0);
+        }
+    }
+
+    private int nextX() {
+        next = next * 1103515245 + 12345;
+        return (next >>> 8) % AREA - AREA / 2;
+    }
+
+    @Benchmark
+    public boolean chunkCached() {
+        return cache.isSlimeChunk(nextX(), nextX());
+    }
+
+    @Benchmark
+    public boolean chunkComputed() {
+        return oracle.isSlimeChunk(nextX(), nextX());
+    }
+
+    /**
+     * The chunks entering the neighborhood of a mask moved east
+     */
+    @Benchmark
+    public int columnCached() {
+        return cache.column(nextX(), nextX(), 17);
+    }
+
+    @Benchmark
+    public int columnComputed() {
+        return oracle.column(nextX(), nextX(), 17);
+    }
+
+    @Benchmark
+    public int rowCached() {
+        return cache.row(nextX(), nextX(), 17);
+    }
+
+    @Benchmark
+    public int rowComputed() {
+        return oracle.row(nextX(), nextX(), 17);
+    }
+}
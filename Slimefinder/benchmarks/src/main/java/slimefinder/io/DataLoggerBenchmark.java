@@ -0,0 +1,70 @@
+package slimefinder.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import slimefinder.benchmark.Settings;
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+/**
+ * Measures writing a match with each of the loggers. The loggers write on a temporary file which
+ * is deleted after each trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DataLoggerBenchmark {
+
+    @Param({"DataLogger", "AsyncDataLogger", "BinaryDataLogger"})
+    public String type;
+
+    private IDataLogger logger;
+    private File file;
+    private MaskData match;
+
+    @Setup
+    public void setUp() throws IOException {
+        CLI cli = new CLI();
+        switch (type) {
+            case "DataLogger":
+                logger = new DataLogger(cli);
+                break;
+            case "AsyncDataLogger":
+                logger = new AsyncDataLogger(cli);
+                break;
+            case "BinaryDataLogger":
+                logger = new BinaryDataLogger(cli, Settings.maskProperties(0, 0));
+                break;
+            default:
+                throw new IllegalArgumentException(type);
+        }
+        file = File.createTempFile("slimefinder", ".results");
+        logger.start(file.getPath(), false);
+        match = new MaskData();
+        match.chunk = new Point(-1234, 5678);
+        match.in = new Point(7, 7);
+        match.blockSize = 4005;
+        match.blockSurfaceArea = 49640;
+        match.chunkSize = 18;
+        match.chunkSurfaceArea = 222;
+    }
+
+    @TearDown
+    public void tearDown() {
+        logger.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        match.chunk.x++;
+        logger.write(match);
+    }
+}
@@ -1,15 +1,14 @@
 package slimefinder.core;
 
-import slimefinder.core.mask.AbstractMask;
 import slimefinder.core.mask.MaskData;
 import slimefinder.util.Point;
 
 public abstract class ExtremumData extends MaskData {
 
-    public ExtremumData(AbstractMask m) {
+    public ExtremumData(MaskData m) {
         chunk = new Point(0,0);
         collectData(m);
     }
 
-    public abstract boolean needsUpdate(AbstractMask mask);
+    public abstract boolean needsUpdate(MaskData mask);
 }
\ No newline at end of file
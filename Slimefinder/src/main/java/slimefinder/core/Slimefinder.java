@@ -1,31 +1,40 @@
 package slimefinder.core;
 
 import java.io.IOException;
-import java.util.Random;
 import java.util.Scanner;
 
 import slimefinder.core.image.ImageTask;
+import slimefinder.core.search.MultiMaskSearchTask;
 import slimefinder.core.search.SearchTask;
+import slimefinder.core.search.SeedSearchTask;
+import slimefinder.core.slime.SlimeChunkOracle;
+import slimefinder.core.slime.SlimeSources;
+import slimefinder.io.AsyncDataLogger;
+import slimefinder.io.BinaryDataLogger;
 import slimefinder.io.CLI;
 import slimefinder.io.DataLogger;
+import slimefinder.io.IDataLogger;
+import slimefinder.io.ResultsConverter;
 import slimefinder.io.properties.MaskProperties;
 import slimefinder.io.properties.ImageProperties;
 import slimefinder.io.properties.SearchProperties;
+import slimefinder.io.properties.SeedProperties;
 import slimefinder.io.properties.PropertyLoader;
 
 import static slimefinder.util.FormatHelper.LN;
 
 public class Slimefinder {
 
-    private static final Random r = new Random();
-
     private CLI cli;
 
     private MaskProperties pMask;
     private SearchProperties pSearch;
     private ImageProperties pImage;
+    private SeedProperties pSeeds;
+
+    boolean search, images, seeds, convert, help;
 
-    boolean search, images, help;
+    private String convertInput, convertOutput;
 
     public static void main(String[] args) {
         Slimefinder slimefinder = new Slimefinder();
@@ -38,25 +47,40 @@ public class Slimefinder {
         pMask = new MaskProperties();
         pSearch = new SearchProperties();
         pImage = new ImageProperties();
+        pSeeds = new SeedProperties();
     }
 
     public void parseArguments(String[] args) {
-        for (String arg : args) {
-            switch (arg) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
                 case "-i":
                     images = true;
                     break;
                 case "-s":
                     search = true;
                     break;
+                case "-w":
+                    seeds = true;
+                    break;
+                case "-c":
+                    if (i + 2 >= args.length) {
+                        cli.warning("'-c' requires an input and an output file");
+                        cli.flush();
+                        help = true;
+                        break;
+                    }
+                    convert = true;
+                    convertInput = args[++i];
+                    convertOutput = args[++i];
+                    break;
                 default:
-                    cli.warning("Invalid argument '" + arg + "'");
+                    cli.warning("Invalid argument '" + args[i] + "'");
                     cli.flush();
                     help = true;
                     break;
             }
         }
-        if (!search && !images) help = true;
+        if (!search && !images && !seeds && !convert) help = true;
     }
 
     public void execute() {
@@ -70,20 +94,42 @@ public class Slimefinder {
             boolean loadingFailed = loader.createProperties(pMask);
             if (search) loadingFailed = loader.createProperties(pSearch) || loadingFailed;
             if (images) loadingFailed = loader.createProperties(pImage) || loadingFailed;
+            if (seeds) loadingFailed = loader.createProperties(pSeeds) || loadingFailed;
             if (loadingFailed) return;
             cli.flush();
 
-            if (search)
-                runTask(new SearchTask(pSearch, pMask, new DataLogger(cli)));
+            if (convert)
+                convert();
+            if (search && MultiMaskSearchTask.hasVariants(pSearch))
+                runTask(new MultiMaskSearchTask(pSearch, pMask, this::createLogger, cli));
+            else if (search)
+                runTask(new SearchTask(pSearch, pMask, createLogger(pMask), cli));
             if (images)
                 runTask(new ImageTask(pImage, pMask, cli));
+            if (seeds)
+                runTask(new SeedSearchTask(pSeeds, pMask, cli));
         } catch (IOException ex) {
         } finally {
+            SlimeSources.closeAll(cli);
             cli.info(LN);
             cli.flush();
         }
     }
 
+    private void convert() throws IOException {
+        long converted = ResultsConverter.convert(convertInput, convertOutput, pMask, cli);
+        cli.info("Converted " + converted + " matches from '" + convertInput + "' to '" + convertOutput + "'" + LN);
+        cli.flush();
+    }
+
+    private IDataLogger createLogger(MaskProperties pMask) {
+        if ("binary".equals(pSearch.getString(SearchProperties.OUTPUT_FORMAT)))
+            return new BinaryDataLogger(cli, pMask);
+        if (pSearch.getBoolean(SearchProperties.ASYNC_OUTPUT))
+            return new AsyncDataLogger(cli);
+        return new DataLogger(cli);
+    }
+
     private void runTask(TrackableTask task) {
         cli.printStartInfo(task);
         Thread taskThread = new Thread(task);
@@ -115,16 +161,15 @@ public class Slimefinder {
     }
 
     /**
-     * This method is copied directly from the source code of Minecraft.
-     * It determines which chunks are slime chunks.
+     * Determines which chunks are slime chunks using the same algorithm as Minecraft.
      *
      * @param seed
      * @param chunkX - chunk x coordinate
      * @param chunkZ - chunk z coordinate
      * @return true if (chunkX, chunkZ) is a slime chunk, false otherwise
+     * @see SlimeChunkOracle#isSlimeChunk(long, int, int)
      */
     public static boolean isSlimeChunk(long seed, int chunkX, int chunkZ) {
-        r.setSeed(seed + (long) (chunkX * chunkX * 4987142) + (long) (chunkX * 5947611) + (long) (chunkZ * chunkZ) * 4392871L + (long) (chunkZ * 389711) ^ 987234911L);
-        return r.nextInt(10) == 0;
+        return SlimeChunkOracle.isSlimeChunk(seed, chunkX, chunkZ);
     }
 }
@@ -9,7 +9,7 @@ public abstract class TrackableTask implements Runnable {
     protected Instant startTime;
     protected Duration duration;
     protected boolean isFinished;
-    protected boolean isInterrupted;
+    protected volatile boolean isInterrupted;
 
     public void setStartTime() {
         startTime = Instant.now();
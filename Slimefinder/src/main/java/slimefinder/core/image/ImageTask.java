@@ -2,7 +2,6 @@ package slimefinder.core.image;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.util.Scanner;
@@ -10,7 +9,11 @@ import javax.imageio.ImageIO;
 
 import slimefinder.core.mask.AbstractMask;
 import slimefinder.core.mask.Mask;
+import slimefinder.core.mask.MaskData;
 import slimefinder.core.TrackableTask;
+import slimefinder.core.slime.SlimeSources;
+import slimefinder.io.BinaryResults;
+import slimefinder.io.BinaryResultsReader;
 import slimefinder.io.CLI;
 import slimefinder.io.DataLogger;
 import slimefinder.io.properties.MaskProperties;
@@ -22,8 +25,13 @@ import static slimefinder.io.properties.ImageProperties.*;
 
 public class ImageTask extends TrackableTask {
 
-    private final MaskProperties pSlime;
+    private MaskProperties pSlime;
     private Scanner scanner;
+
+    /**
+     * Reader of the input file if it is in the binary format, otherwise null
+     */
+    private BinaryResultsReader reader;
     private long bytesRead;
     private long imagesGenerated;
     private CLI cli;
@@ -41,7 +49,7 @@ public class ImageTask extends TrackableTask {
         ImageProperties pImage,
         MaskProperties pSlime,
         CLI cli
-    ) throws FileNotFoundException {
+    ) throws IOException {
         filename = pImage.getProperty(INPUT_FILE);
         outDir = pImage.getString(OUTPUT_DIR);
         this.cli = cli;
@@ -49,11 +57,31 @@ public class ImageTask extends TrackableTask {
         input = new File(filename);
         generator = new ImageGenerator(pImage);
         try {
-            scanner = new Scanner(new File(filename));
+            if (BinaryResults.isBinary(input)) {
+                openBinary();
+            } else {
+                scanner = new Scanner(new File(filename));
+            }
         } catch (IOException e) {
             cli.error("Could not open file: '" + filename + "'");
             throw e;
         }
+        SlimeSources.open(pSlime, cli);
+    }
+
+    /**
+     * Binary input files record the mask properties and the slime chunk algorithm of the search,
+     * which are used instead of mask.properties if the two differ.
+     */
+    private void openBinary() throws IOException {
+        reader = new BinaryResultsReader(input);
+        if (!BinaryResults.sameMask(reader.getMaskProperties(), pSlime)) {
+            cli.warning("The mask properties of '" + filename + "' differ from mask.properties, using those of the file");
+            MaskProperties pFile = reader.getMaskProperties();
+            pFile.setProperty(MaskProperties.ATLAS, pSlime.getString(MaskProperties.ATLAS));
+            pFile.setProperty(MaskProperties.CACHE, pSlime.getInt(MaskProperties.CACHE));
+            pSlime = pFile;
+        }
     }
 
     /**
@@ -64,21 +92,44 @@ public class ImageTask extends TrackableTask {
         setStartTime();
         try {
             AbstractMask mask = new Mask(pSlime, 0, 0, 0, 0);
-            while (scanner.hasNextLine()) {
+            MaskData data = new MaskData();
+            while (true) {
                 if (isInterrupted) throw new InterruptedException();
-                Position pBlock = readLine(scanner.nextLine());
-                if (pBlock == null) continue;
+                Position pBlock;
+                if (reader != null) {
+                    if (!reader.next(data)) break;
+                    pBlock = readRecord(data);
+                } else {
+                    if (!scanner.hasNextLine()) break;
+                    pBlock = readLine(scanner.nextLine());
+                    if (pBlock == null) continue;
+                }
                 mask.moveTo(pBlock);
                 saveImage(generator.draw(mask), getFilename(mask));
             }
             isFinished = true;
         } catch (IOException | InterruptedException e) {
         } finally {
-            scanner.close();
+            close();
             stop();
         }
     }
 
+    private void close() {
+        if (scanner != null) scanner.close();
+        try {
+            if (reader != null) reader.close();
+        } catch (IOException e) {
+        }
+    }
+
+    private Position readRecord(MaskData data) {
+        ++linesParsed;
+        bytesRead = reader.bytesRead();
+        if (data.in == null) return new Position(data.chunk.x, data.chunk.z, 0, 0);
+        return new Position(data.chunk.x, data.chunk.z, data.in.x, data.in.z);
+    }
+
     private Position readLine(String line) {
         ++linesParsed;
         bytesRead += line.getBytes().length;
@@ -1,14 +1,12 @@
 package slimefinder.core.mask;
 
-import slimefinder.core.Slimefinder;
+import slimefinder.core.slime.SlimeChunkSource;
+import slimefinder.core.slime.SlimeSources;
 import slimefinder.io.properties.MaskProperties;
 import slimefinder.util.Direction;
 import slimefinder.util.Point;
 import slimefinder.util.Position;
 
-import java.util.Collection;
-import java.util.HashSet;
-
 import static slimefinder.io.properties.MaskProperties.*;
 import static slimefinder.io.properties.MaskProperties.DESPAWN;
 
@@ -26,23 +24,31 @@ public abstract class AbstractMask extends MaskData {
     protected int rExclusion, rDespawn;
 
     /**
-     * Each chunk in the neighborhood of the mask is given a weight that
-     * represents the number of blocks in the chunk that are inside the mask.
-     * A weight 256 means that the entire chunk is inside the mask and 0
-     * that the entire chunk is outside.
+     * The chunk weights of the mask and their bitboard representation.
+     * See {@link MaskKernel}.
+     */
+    protected MaskKernel kernel;
+
+    /**
+     * The slime chunks in the neighborhood of this mask
      */
-    protected int[][] chunkWeights;
+    protected SlimeNeighborhood slimeChunks;
 
     /**
-     * The collection of slime chunks in the neighborhood of this mask. Each slime chunk is listed by its
-     * absolute chunk coordinates.
+     * The slime chunks of the world, see {@link SlimeSources}
      */
-    protected Collection<Point> slimeChunks;
+    protected SlimeChunkSource source;
 
     protected long worldSeed;
     protected int chunkWeight;
     protected boolean exclusionSphere, despawnSphere;
 
+    /**
+     * True if the block size is only computed when requested with {@link #updateBlockSize()},
+     * and whether it has been computed at the current position
+     */
+    private boolean lazyBlockSize, blockSizeKnown;
+
     protected AbstractMask(MaskProperties pMask) {
         worldSeed = pMask.getLong(SEED);
         chunkWeight = pMask.getInt(WEIGHT);
@@ -50,8 +56,8 @@ public abstract class AbstractMask extends MaskData {
         despawnSphere = pMask.getBoolean(DESPAWN);
         int yOffset = pMask.getInt(OFFSET);
 
-        slimeChunks = new HashSet<>(128, 0.57F);
-        chunkWeights = new int[2 * R_CHUNK + 1][2 * R_CHUNK + 1];
+        source = SlimeSources.get(pMask);
+        slimeChunks = new SlimeNeighborhood(source);
         rExclusion = 24 * 24 - Math.min(yOffset * yOffset, 24 * 24);
         rDespawn = 128 * 128 - yOffset * yOffset;
         chunk = new Point(0, 0);
@@ -66,25 +72,13 @@ public abstract class AbstractMask extends MaskData {
 
     public AbstractMask(MaskProperties pMask, Position pos) {
         this(pMask);
+        updateWeights();
         moveToChunk(pos.chunk.x, pos.chunk.z);
     }
 
     public void moveToChunk(int chunkX, int chunkZ) {
-        Direction dir = getAdjacent(chunkX, chunkZ);
-        if (dir == null) {
-            chunk.setPoint(chunkX, chunkZ);
-            updateSize();
-        } else {
-            moveByChunk(dir);
-        }
-    }
-
-    private Direction getAdjacent(int chunkX, int chunkZ) {
-        if (chunk.x - chunkX == -1 && chunk.z - chunkZ == 0) return Direction.EAST;
-        if (chunk.x - chunkX == 1 && chunk.z - chunkZ == 0) return Direction.WEST;
-        if (chunk.x - chunkX == 0 && chunk.z - chunkZ == -1) return Direction.SOUTH;
-        if (chunk.x - chunkX == 0 && chunk.z - chunkZ == 1) return Direction.NORTH;
-        return null;
+        chunk.setPoint(chunkX, chunkZ);
+        updateSize();
     }
 
     public void moveTo(Position to) {
@@ -98,40 +92,28 @@ public abstract class AbstractMask extends MaskData {
      * @param d - direction of movement
      */
     public void moveByChunk(Direction d) {
-        int i, chunkX, chunkZ;
-        for (i = -R_CHUNK; i <= R_CHUNK; i++) {
-            chunkX = (i * d.z) - d.x * R_CHUNK;
-            chunkZ = (i * d.x) - d.z * R_CHUNK;
-            if (isSlimeChunk(chunkX, chunkZ))
-                slimeChunks.remove(new Point(chunkX + chunk.x, chunkZ + chunk.z));
-        }
         chunk.moveBy(1, d);
-
-        for (i = -R_CHUNK; i <= R_CHUNK; i++) {
-            chunkX = (i * d.z) + d.x * R_CHUNK;
-            chunkZ = (i * d.x) + d.z * R_CHUNK;
-            if (isSlimeChunk(chunkX, chunkZ))
-                slimeChunks.add(new Point(chunkX + chunk.x, chunkZ + chunk.z));
-        }
-
-        blockSize = 0;
-        chunkSize = 0;
-        for (Point point : slimeChunks) {
-            blockSize += chunkWeights[point.x - chunk.x + R_CHUNK][point.z - chunk.z + R_CHUNK];
-            if (isChunkInside(point.x- chunk.x, point.z - chunk.z))
-                ++chunkSize;
-        }
+        updateSize();
     }
 
     /**
-     * Calculates the weight array that determines the weights for each chunk.
-     * Calculates the surface area of this mask. This has to be called
-     * whenever the position within the chunk (in) changes.
+     * Sets the weight array that determines the weights for each chunk and
+     * the surface area of this mask. This has to be called whenever the
+     * position within the chunk (in) changes. The weights are shared by all
+     * masks through {@link KernelCache}.
      */
     protected void updateWeights() {
+        setKernel(KernelCache.get(this));
+    }
+
+    /**
+     * Calculates the weight array of this mask at its current position within the chunk.
+     *
+     * @return chunk weights indexed by [chunkX + R_CHUNK][chunkZ + R_CHUNK]
+     */
+    int[][] computeWeights() {
         int inX, inZ, chunkX, chunkZ, weight;
-        blockSurfaceArea = 0;
-        chunkSurfaceArea = 0;
+        int[][] chunkWeights = new int[2 * R_CHUNK + 1][2 * R_CHUNK + 1];
         for (chunkX = -R_CHUNK; chunkX <= R_CHUNK; chunkX++) {
             for (chunkZ = -R_CHUNK; chunkZ <= R_CHUNK; chunkZ++) {
                 weight = 0;
@@ -142,31 +124,75 @@ public abstract class AbstractMask extends MaskData {
                     }
                 }
                 chunkWeights[chunkX + R_CHUNK][chunkZ + R_CHUNK] = weight;
-                blockSurfaceArea += weight;
-                if (isChunkInside(chunkX, chunkZ))
-                    ++chunkSurfaceArea;
             }
         }
+        return chunkWeights;
+    }
+
+    /**
+     * @return the chunk weights of this mask at its current position within the chunk
+     */
+    public MaskKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * Replaces the chunk weights of this mask and updates the surface area.
+     * Does not update the block and chunk sizes.
+     */
+    protected void setKernel(MaskKernel kernel) {
+        this.kernel = kernel;
+        blockSurfaceArea = kernel.blockSurfaceArea;
+        chunkSurfaceArea = kernel.chunkSurfaceArea;
     }
 
     /**
      * Calculates the number of slime chunks in blocks and in chunks under the mask.
+     * The slime chunks of the neighborhood are only recomputed if the mask has
+     * moved to another chunk, and only partially if it moved to an adjacent chunk.
      */
     protected void updateSize() {
-        int chunkX, chunkZ;
-        blockSize = 0;
-        chunkSize = 0;
-        slimeChunks.clear();
-        for (chunkX = -R_CHUNK; chunkX <= R_CHUNK; chunkX++) {
-            for (chunkZ = -R_CHUNK; chunkZ <= R_CHUNK; chunkZ++) {
-                if (isSlimeChunk(chunkX, chunkZ)) {
-                    slimeChunks.add(new Point(chunkX + chunk.x, chunkZ + chunk.z));
-                    blockSize += chunkWeights[chunkX + R_CHUNK][chunkZ + R_CHUNK];
-                    if (isChunkInside(chunkX, chunkZ))
-                        ++chunkSize;
-                }
-            }
+        Direction d = slimeChunks.getAdjacent(chunk.x, chunk.z);
+        if (d != null) {
+            slimeChunks.moveBy(d);
+        } else if (!slimeChunks.isAt(chunk.x, chunk.z)) {
+            slimeChunks.fill(chunk.x, chunk.z);
         }
+        chunkSize = kernel.chunkSize(slimeChunks);
+        blockSizeKnown = !lazyBlockSize;
+        if (blockSizeKnown) blockSize = kernel.blockSize(slimeChunks);
+    }
+
+    /**
+     * Makes the mask compute only the chunk size when it is moved, so that the more expensive block
+     * size is computed only at the positions where it is needed with {@link #updateBlockSize()}.
+     * Until then blockSize holds the block size of an earlier position.
+     */
+    public void setLazyBlockSize(boolean lazy) {
+        lazyBlockSize = lazy;
+    }
+
+    /**
+     * Computes the block size at the current position if it has not been computed yet.
+     */
+    public void updateBlockSize() {
+        if (blockSizeKnown) return;
+        blockSize = kernel.blockSize(slimeChunks);
+        blockSizeKnown = true;
+    }
+
+    /**
+     * @return a lower bound of the block size at the current position, the block size if it is known
+     */
+    public int minBlockSize() {
+        return blockSizeKnown ? blockSize : kernel.minBlockSize(chunkSize);
+    }
+
+    /**
+     * @return an upper bound of the block size at the current position, the block size if it is known
+     */
+    public int maxBlockSize() {
+        return blockSizeKnown ? blockSize : kernel.maxBlockSize(slimeChunks, chunkSize);
     }
 
     /**
@@ -181,7 +207,7 @@ public abstract class AbstractMask extends MaskData {
      * @return true if the chunk is considered to be inside the mask
      */
     public boolean isChunkInside(int chunkX, int chunkZ) {
-        return chunkWeights[chunkX + R_CHUNK][chunkZ + R_CHUNK] > chunkWeight;
+        return kernel.isChunkInside(chunkX, chunkZ);
     }
 
     /**
@@ -205,6 +231,8 @@ public abstract class AbstractMask extends MaskData {
      * @return true if (chunkX, chunkZ) with respect to the mask is a slime chunk, false otherwise
      */
     public boolean isSlimeChunk(int chunkX, int chunkZ) {
-        return Slimefinder.isSlimeChunk(worldSeed, chunk.x + chunkX, chunk.z + chunkZ);
+        if (slimeChunks.isAt(chunk.x, chunk.z) && Math.abs(chunkX) <= R_CHUNK && Math.abs(chunkZ) <= R_CHUNK)
+            return slimeChunks.isSlimeChunk(chunkX, chunkZ);
+        return source.isSlimeChunk(chunk.x + chunkX, chunk.z + chunkZ);
     }
 }
@@ -0,0 +1,137 @@
+package slimefinder.core.mask;
+
+import java.util.Arrays;
+
+import slimefinder.core.slime.SlimeBitmap;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+import static slimefinder.core.mask.SlimeNeighborhood.WIDTH;
+
+/**
+ * Computes the chunk sizes of a mask kernel at every position of a rectangle
+ * using prefix sums of the slime chunk rows. The chunks inside the chunk mask
+ * form at most a few contiguous runs on every row of the kernel, so the chunk
+ * size of a position is a sum of differences of prefix sums instead of a
+ * check for every chunk of the neighborhood. Only the prefix sums of the
+ * WIDTH rows around the current row of positions are kept.
+ *
+ * If the despawn and exclusion spheres are disabled every chunk is entirely
+ * inside the mask. The chunk size is then the number of slime chunks in the
+ * neighborhood, which is computed from running column sums, and the block
+ * size is 256 times the chunk size.
+ */
+public final class ChunkSizeEngine {
+
+    /**
+     * The first and last relative chunk x-coordinates of the runs of each row
+     */
+    private final int[][] runStarts, runEnds;
+
+    private final boolean full;
+
+    public ChunkSizeEngine(MaskKernel kernel) {
+        runStarts = new int[WIDTH][];
+        runEnds = new int[WIDTH][];
+        boolean allBlocks = true;
+        for (int z = -R_CHUNK; z <= R_CHUNK; z++) {
+            int[] starts = new int[WIDTH], ends = new int[WIDTH];
+            int runs = 0;
+            for (int x = -R_CHUNK; x <= R_CHUNK; x++) {
+                if (kernel.getWeight(x, z) != 256) allBlocks = false;
+                if (!kernel.isChunkInside(x, z)) continue;
+                if (runs > 0 && ends[runs - 1] == x - 1) {
+                    ends[runs - 1] = x;
+                } else {
+                    starts[runs] = x;
+                    ends[runs++] = x;
+                }
+            }
+            runStarts[z + R_CHUNK] = Arrays.copyOf(starts, runs);
+            runEnds[z + R_CHUNK] = Arrays.copyOf(ends, runs);
+        }
+        full = allBlocks;
+    }
+
+    /**
+     * @return true if every block of the neighborhood is inside the mask, in which case
+     * the block size is 256 times the chunk size
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @param slimeChunks - slime chunks that cover the neighborhoods of all of the positions
+     * @param minX - chunk x coordinate of the first position
+     * @param minZ - chunk z coordinate of the first position
+     * @param width
+     * @param height
+     * @return the chunk size at chunk (minX + i, minZ + j) at index j * width + i
+     */
+    public int[] chunkSizes(SlimeBitmap slimeChunks, int minX, int minZ, int width, int height) {
+        return full ?
+            boxSums(slimeChunks, minX, minZ, width, height) :
+            runSums(slimeChunks, minX, minZ, width, height);
+    }
+
+    private int[] runSums(SlimeBitmap slimeChunks, int minX, int minZ, int width, int height) {
+        int[] sizes = new int[width * height];
+        // prefix[z][i] is the number of slime chunks on row z from minX - R_CHUNK to minX - R_CHUNK + i - 1
+        int[][] prefix = new int[WIDTH][width + 2 * R_CHUNK + 1];
+        for (int z = minZ - R_CHUNK; z < minZ + R_CHUNK; z++) {
+            prefixSums(slimeChunks, minX - R_CHUNK, z, prefix[Math.floorMod(z, WIDTH)]);
+        }
+        for (int j = 0; j < height; j++) {
+            int z = minZ + j;
+            prefixSums(slimeChunks, minX - R_CHUNK, z + R_CHUNK, prefix[Math.floorMod(z + R_CHUNK, WIDTH)]);
+            int base = j * width;
+            for (int dz = -R_CHUNK; dz <= R_CHUNK; dz++) {
+                int[] row = prefix[Math.floorMod(z + dz, WIDTH)];
+                int[] starts = runStarts[dz + R_CHUNK], ends = runEnds[dz + R_CHUNK];
+                for (int r = 0; r < starts.length; r++) {
+                    int start = starts[r] + R_CHUNK, end = ends[r] + R_CHUNK + 1;
+                    for (int i = 0; i < width; i++) {
+                        sizes[base + i] += row[i + end] - row[i + start];
+                    }
+                }
+            }
+        }
+        return sizes;
+    }
+
+    private int[] boxSums(SlimeBitmap slimeChunks, int minX, int minZ, int width, int height) {
+        int[] sizes = new int[width * height];
+        int columns = width + 2 * R_CHUNK;
+        // the number of slime chunks in each column of the WIDTH rows around the current row
+        int[] columnSums = new int[columns];
+        int[] prefix = new int[columns + 1];
+        for (int z = minZ - R_CHUNK; z < minZ + R_CHUNK; z++) {
+            addRow(slimeChunks, minX - R_CHUNK, z, columnSums, 1);
+        }
+        for (int j = 0; j < height; j++) {
+            int z = minZ + j;
+            addRow(slimeChunks, minX - R_CHUNK, z + R_CHUNK, columnSums, 1);
+            for (int i = 0; i < columns; i++) {
+                prefix[i + 1] = prefix[i] + columnSums[i];
+            }
+            int base = j * width;
+            for (int i = 0; i < width; i++) {
+                sizes[base + i] = prefix[i + WIDTH] - prefix[i];
+            }
+            addRow(slimeChunks, minX - R_CHUNK, z - R_CHUNK, columnSums, -1);
+        }
+        return sizes;
+    }
+
+    private static void prefixSums(SlimeBitmap slimeChunks, int minX, int z, int[] prefix) {
+        for (int i = 1; i < prefix.length; i++) {
+            prefix[i] = prefix[i - 1] + (slimeChunks.isSlimeChunk(minX + i - 1, z) ? 1 : 0);
+        }
+    }
+
+    private static void addRow(SlimeBitmap slimeChunks, int minX, int z, int[] columnSums, int sign) {
+        for (int i = 0; i < columnSums.length; i++) {
+            if (slimeChunks.isSlimeChunk(minX + i, z)) columnSums[i] += sign;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package slimefinder.core.mask;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static slimefinder.core.mask.SlimeNeighborhood.WIDTH;
+
+/**
+ * Process-wide cache of mask kernels shared by all masks and threads.
+ *
+ * The chunk weights of a mask only depend on the type of the mask, its
+ * within-chunk position and the despawn and exclusion spheres. The weights
+ * of a mask with a within-chunk position are symmetric under reflecting the
+ * position about the center of the chunk and under swapping its x and z
+ * coordinates, so the weights are only computed for the 36 positions
+ * 0 <= in.x <= in.z <= 7. The weights of the other positions are obtained
+ * by reflecting and transposing these tables. Masks without a within-chunk
+ * position have a single table.
+ */
+final class KernelCache {
+
+    /**
+     * Weight tables indexed by [chunkX + R_CHUNK][chunkZ + R_CHUNK] of the canonical within-chunk
+     * positions. The keys do not include the chunk weight.
+     */
+    private static final ConcurrentMap<Key, int[][]> tables = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Key, MaskKernel> kernels = new ConcurrentHashMap<>();
+
+    private KernelCache() {
+    }
+
+    /**
+     * @return the kernel of the given mask at its current within-chunk position
+     */
+    static MaskKernel get(AbstractMask m) {
+        if (m.in == null) return get(m, -1, -1, false, false, false);
+        int inX = m.in.x, inZ = m.in.z;
+        if (inX < 0 || inX > 15 || inZ < 0 || inZ > 15) return new MaskKernel(m.computeWeights(), m.chunkWeight);
+        boolean flipX = inX > 7, flipZ = inZ > 7;
+        if (flipX) inX = 15 - inX;
+        if (flipZ) inZ = 15 - inZ;
+        boolean transpose = inX > inZ;
+        return get(m, Math.min(inX, inZ), Math.max(inX, inZ), flipX, flipZ, transpose);
+    }
+
+    /**
+     * @param inX, inZ - the canonical within-chunk position, -1 for masks without one
+     * @param flipX, flipZ, transpose - the symmetry that takes the canonical position to that of the mask
+     */
+    private static MaskKernel get(AbstractMask m, int inX, int inZ, boolean flipX, boolean flipZ, boolean transpose) {
+        int actualX = transpose ? inZ : inX, actualZ = transpose ? inX : inZ;
+        if (flipX) actualX = 15 - actualX;
+        if (flipZ) actualZ = 15 - actualZ;
+        Key key = new Key(m, actualX, actualZ, m.chunkWeight);
+        MaskKernel kernel = kernels.get(key);
+        if (kernel != null) return kernel;
+
+        Key tableKey = new Key(m, inX, inZ, -1);
+        int[][] table = tables.get(tableKey);
+        if (table == null) {
+            table = transform(m.computeWeights(), flipX, flipZ, transpose, true);
+            int[][] previous = tables.putIfAbsent(tableKey, table);
+            if (previous != null) table = previous;
+        }
+        kernel = new MaskKernel(transform(table, flipX, flipZ, transpose, false), m.chunkWeight);
+        MaskKernel previous = kernels.putIfAbsent(key, kernel);
+        return previous != null ? previous : kernel;
+    }
+
+    /**
+     * Converts the weights of a canonical position to those of a position that is obtained by
+     * transposing and then reflecting the canonical position, or the other way around if inverse
+     * is true.
+     */
+    private static int[][] transform(int[][] weights, boolean flipX, boolean flipZ, boolean transpose, boolean inverse) {
+        int[][] result = new int[WIDTH][WIDTH];
+        for (int i = 0; i < WIDTH; i++) {
+            for (int j = 0; j < WIDTH; j++) {
+                int fi = flipX ? WIDTH - 1 - i : i;
+                int fj = flipZ ? WIDTH - 1 - j : j;
+                if (inverse) {
+                    result[transpose ? fj : fi][transpose ? fi : fj] = weights[i][j];
+                } else {
+                    result[i][j] = transpose ? weights[fj][fi] : weights[fi][fj];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of weight tables computed so far
+     */
+    static int tableCount() {
+        return tables.size();
+    }
+
+    static void clear() {
+        tables.clear();
+        kernels.clear();
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final int inX, inZ, rDespawn, rExclusion, chunkWeight;
+        private final boolean despawnSphere, exclusionSphere;
+
+        Key(AbstractMask m, int inX, int inZ, int chunkWeight) {
+            type = m.getClass();
+            this.inX = inX;
+            this.inZ = inZ;
+            rDespawn = m.rDespawn;
+            rExclusion = m.rExclusion;
+            despawnSphere = m.despawnSphere;
+            exclusionSphere = m.exclusionSphere;
+            this.chunkWeight = chunkWeight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return type == key.type && inX == key.inX && inZ == key.inZ &&
+                rDespawn == key.rDespawn && rExclusion == key.rExclusion &&
+                despawnSphere == key.despawnSphere && exclusionSphere == key.exclusionSphere &&
+                chunkWeight == key.chunkWeight;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, inX, inZ, rDespawn, rExclusion, despawnSphere, exclusionSphere, chunkWeight);
+        }
+    }
+}
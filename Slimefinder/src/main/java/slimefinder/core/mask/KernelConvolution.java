@@ -0,0 +1,112 @@
+package slimefinder.core.mask;
+
+import slimefinder.core.slime.SlimeBitmap;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+import static slimefinder.core.mask.SlimeNeighborhood.WIDTH;
+
+/**
+ * Computes the block and chunk sizes of a mask kernel at every position of
+ * a rectangle at once. The block size is the convolution of the slime
+ * chunks with the chunk weights and the chunk size that of the slime chunks
+ * with the chunk mask. As only about a tenth of the chunks are slime chunks
+ * the convolution is done by adding the flipped kernel to the result once
+ * for each slime chunk.
+ *
+ * Both sizes are summed in a single int: the block size is at most
+ * 289 * 256 which fits in the upper bits and the chunk size at most 289
+ * which fits in the lowest CHUNK_BITS bits.
+ */
+public final class KernelConvolution {
+
+    public static final int CHUNK_BITS = 9;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    private KernelConvolution() {
+    }
+
+    /**
+     * @param kernel
+     * @param slimeChunks - slime chunks that cover the neighborhoods of all of the positions
+     * @param minX - chunk x coordinate of the first position
+     * @param minZ - chunk z coordinate of the first position
+     * @param width
+     * @param height
+     * @return the packed sizes of the kernel at chunk (minX + i, minZ + j) at index j * width + i
+     */
+    public static int[] convolve(MaskKernel kernel, SlimeBitmap slimeChunks, int minX, int minZ, int width, int height) {
+        return convolve(new MaskKernel[] {kernel}, slimeChunks, minX, minZ, width, height)[0];
+    }
+
+    /**
+     * Convolves several kernels with the same slime chunks, which are scanned only once and added
+     * to the sizes of every kernel in turn.
+     *
+     * @return the packed sizes of kernels[k] at chunk (minX + i, minZ + j) at index j * width + i of
+     * the k:th array
+     */
+    public static int[][] convolve(MaskKernel[] kernels, SlimeBitmap slimeChunks, int minX, int minZ, int width, int height) {
+        int[][][] flipped = new int[kernels.length][][];
+        int[][] sizes = new int[kernels.length][];
+        for (int k = 0; k < kernels.length; k++) {
+            flipped[k] = flip(kernels[k]);
+            sizes[k] = new int[width * height];
+        }
+        // The kernel copy of a slime chunk starts R_CHUNK positions before the slime chunk
+        int offsetX = slimeChunks.minX - minX - R_CHUNK;
+        int offsetZ = slimeChunks.minZ - minZ - R_CHUNK;
+        for (int z = 0; z < slimeChunks.height; z++) {
+            int top = z + offsetZ;
+            if (top <= -WIDTH || top >= height) continue;
+            for (int w = 0; w < slimeChunks.wordsPerRow(); w++) {
+                long word = slimeChunks.word(z, w);
+                while (word != 0) {
+                    int left = 64 * w + Long.numberOfTrailingZeros(word) + offsetX;
+                    word &= word - 1;
+                    if (left <= -WIDTH || left >= width) continue;
+                    for (int k = 0; k < kernels.length; k++) {
+                        add(flipped[k], sizes[k], width, height, left, top);
+                    }
+                }
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * @return the packed weights of the kernel flipped in both directions
+     */
+    private static int[][] flip(MaskKernel kernel) {
+        int[][] flipped = new int[WIDTH][WIDTH];
+        for (int j = 0; j < WIDTH; j++) {
+            for (int i = 0; i < WIDTH; i++) {
+                int x = R_CHUNK - i, z = R_CHUNK - j;
+                flipped[j][i] = kernel.getWeight(x, z) << CHUNK_BITS | (kernel.isChunkInside(x, z) ? 1 : 0);
+            }
+        }
+        return flipped;
+    }
+
+    /**
+     * Adds the flipped kernel to the sizes with its first element at (left, top).
+     */
+    private static void add(int[][] flipped, int[] sizes, int width, int height, int left, int top) {
+        int i0 = Math.max(0, -left), i1 = Math.min(WIDTH, width - left);
+        int j0 = Math.max(0, -top), j1 = Math.min(WIDTH, height - top);
+        for (int j = j0; j < j1; j++) {
+            int[] row = flipped[j];
+            int base = (top + j) * width + left;
+            for (int i = i0; i < i1; i++) {
+                sizes[base + i] += row[i];
+            }
+        }
+    }
+
+    public static int blockSize(int sizes) {
+        return sizes >>> CHUNK_BITS;
+    }
+
+    public static int chunkSize(int sizes) {
+        return sizes & CHUNK_MASK;
+    }
+}
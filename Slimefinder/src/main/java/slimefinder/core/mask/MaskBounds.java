@@ -0,0 +1,51 @@
+package slimefinder.core.mask;
+
+import slimefinder.io.properties.MaskProperties;
+
+/**
+ * Bounds of the block and chunk sizes of a Mask over all 256 positions
+ * within a chunk. A CeilMask contains every block that is inside the mask
+ * at some position within the chunk and a FloorMask only the blocks that
+ * are inside the mask at every position, so their sizes bound those of the
+ * masks at the individual positions from above and from below.
+ */
+public class MaskBounds {
+
+    private final MaskKernel ceil, floor;
+
+    public int minBlockSize, maxBlockSize, minChunkSize, maxChunkSize;
+
+    public MaskBounds(MaskProperties pMask) {
+        ceil = new CeilMask(pMask, 0, 0).kernel;
+        floor = new FloorMask(pMask, 0, 0).kernel;
+    }
+
+    /**
+     * Calculates the bounds for the chunk of the given mask from the slime chunks around it.
+     * The mask must have been moved to the chunk so that its slime chunks are up to date.
+     */
+    public void update(AbstractMask m) {
+        maxBlockSize = ceil.blockSize(m.slimeChunks);
+        maxChunkSize = ceil.chunkSize(m.slimeChunks);
+        minBlockSize = floor.blockSize(m.slimeChunks);
+        minChunkSize = floor.chunkSize(m.slimeChunks);
+    }
+
+    /**
+     * Sets the bounds from the sizes of the ceiling and floor kernels packed by KernelConvolution.
+     */
+    public void update(int ceilSizes, int floorSizes) {
+        maxBlockSize = KernelConvolution.blockSize(ceilSizes);
+        maxChunkSize = KernelConvolution.chunkSize(ceilSizes);
+        minBlockSize = KernelConvolution.blockSize(floorSizes);
+        minChunkSize = KernelConvolution.chunkSize(floorSizes);
+    }
+
+    public MaskKernel getCeilKernel() {
+        return ceil;
+    }
+
+    public MaskKernel getFloorKernel() {
+        return floor;
+    }
+}
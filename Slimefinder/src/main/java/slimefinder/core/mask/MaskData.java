@@ -25,7 +25,7 @@ public class MaskData {
 
     }
 
-    public void collectData(AbstractMask m) {
+    public void collectData(MaskData m) {
         chunk.setPoint(m.chunk);
         if (m.in != null) {
             if (in != null) {
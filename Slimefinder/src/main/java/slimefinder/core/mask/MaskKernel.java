@@ -0,0 +1,190 @@
+package slimefinder.core.mask;
+
+import slimefinder.core.slime.SlimeBitmap;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+import static slimefinder.core.mask.SlimeNeighborhood.WIDTH;
+
+/**
+ * The chunk weights of a mask together with bitboard representations of
+ * them. The chunks inside the chunk mask are stored as one bit row per
+ * z-coordinate and the weights are split into bit-planes, so that the block
+ * and chunk sizes of a mask can be computed from a SlimeNeighborhood with
+ * popcounts only.
+ */
+public class MaskKernel {
+
+    /**
+     * Weights are in the range [0, 256] which requires 9 bits
+     */
+    private static final int PLANES = 9;
+
+    /**
+     * Each chunk in the neighborhood of the mask is given a weight that
+     * represents the number of blocks in the chunk that are inside the mask.
+     * A weight 256 means that the entire chunk is inside the mask and 0
+     * that the entire chunk is outside.
+     */
+    private final int[][] weights;
+
+    /**
+     * Total surface area under the mask in blocks and chunks
+     */
+    public final int blockSurfaceArea, chunkSurfaceArea;
+
+    /**
+     * Chunks inside the chunk mask as bit rows
+     */
+    private final int[] inside;
+
+    /**
+     * Non-empty bit-planes of the weights. Bit (chunkX + R_CHUNK) of
+     * planes[p][chunkZ + R_CHUNK] is bit planeShifts[p] of the weight of
+     * (chunkX, chunkZ).
+     */
+    private final int[][] planes;
+    private final int[] planeShifts;
+
+    /**
+     * Chunks outside the chunk mask that have blocks inside the mask as bit rows
+     */
+    private final int[] partial;
+
+    /**
+     * The smallest and largest weights of the chunks inside the chunk mask and the largest
+     * weight of the chunks outside it, which bound the block size given the chunk size
+     */
+    private final int minInsideWeight, maxInsideWeight, maxOutsideWeight;
+
+    /**
+     * @param weights - chunk weights indexed by [chunkX + R_CHUNK][chunkZ + R_CHUNK]
+     * @param chunkWeight - the number of blocks a chunk needs to have inside the mask to be
+     * considered inside the chunk mask
+     */
+    public MaskKernel(int[][] weights, int chunkWeight) {
+        this.weights = new int[WIDTH][];
+        inside = new int[WIDTH];
+        partial = new int[WIDTH];
+        int[][] allPlanes = new int[PLANES][WIDTH];
+        int blockArea = 0, chunkArea = 0;
+        int minInside = 256, maxInside = 0, maxOutside = 0;
+        for (int x = 0; x < WIDTH; x++) {
+            this.weights[x] = weights[x].clone();
+            for (int z = 0; z < WIDTH; z++) {
+                int weight = weights[x][z];
+                blockArea += weight;
+                if (weight > chunkWeight) {
+                    inside[z] |= 1 << x;
+                    ++chunkArea;
+                    minInside = Math.min(minInside, weight);
+                    maxInside = Math.max(maxInside, weight);
+                } else if (weight > 0) {
+                    partial[z] |= 1 << x;
+                    maxOutside = Math.max(maxOutside, weight);
+                }
+                for (int p = 0; p < PLANES; p++) {
+                    if ((weight >>> p & 1) != 0) allPlanes[p][z] |= 1 << x;
+                }
+            }
+        }
+        blockSurfaceArea = blockArea;
+        chunkSurfaceArea = chunkArea;
+        minInsideWeight = chunkArea > 0 ? minInside : 0;
+        maxInsideWeight = maxInside;
+        maxOutsideWeight = maxOutside;
+
+        int count = 0;
+        for (int[] plane : allPlanes) if (!isEmpty(plane)) ++count;
+        planes = new int[count][];
+        planeShifts = new int[count];
+        for (int p = 0, i = 0; p < PLANES; p++) {
+            if (isEmpty(allPlanes[p])) continue;
+            planes[i] = allPlanes[p];
+            planeShifts[i++] = p;
+        }
+    }
+
+    private static boolean isEmpty(int[] plane) {
+        for (int row : plane) if (row != 0) return false;
+        return true;
+    }
+
+    /**
+     * @return the number of blocks inside the mask in the chunk at (chunkX, chunkZ) relative to the center
+     */
+    public int getWeight(int chunkX, int chunkZ) {
+        return weights[chunkX + R_CHUNK][chunkZ + R_CHUNK];
+    }
+
+    /**
+     * @return true if the chunk at (chunkX, chunkZ) relative to the center is inside the chunk mask
+     */
+    public boolean isChunkInside(int chunkX, int chunkZ) {
+        return (inside[chunkZ + R_CHUNK] >>> (chunkX + R_CHUNK) & 1) != 0;
+    }
+
+    /**
+     * @return the number of slime chunks of the neighborhood inside the chunk mask
+     */
+    public int chunkSize(SlimeNeighborhood neighborhood) {
+        int size = 0;
+        for (int z = 0; z < WIDTH; z++) {
+            size += Integer.bitCount(neighborhood.getRow(z - R_CHUNK) & inside[z]);
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of blocks of the slime chunks of the neighborhood inside the block mask
+     */
+    public int blockSize(SlimeNeighborhood neighborhood) {
+        int size = 0;
+        for (int z = 0; z < WIDTH; z++) {
+            int row = neighborhood.getRow(z - R_CHUNK);
+            if (row == 0) continue;
+            for (int p = 0; p < planes.length; p++) {
+                size += Integer.bitCount(row & planes[p][z]) << planeShifts[p];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return a lower bound of the block size of a neighborhood with the given chunk size
+     */
+    public int minBlockSize(int chunkSize) {
+        return chunkSize * minInsideWeight;
+    }
+
+    /**
+     * @return an upper bound of the block size of the neighborhood given its chunk size. Only the
+     * slime chunks outside the chunk mask are counted, and only if they can have blocks inside the mask.
+     */
+    public int maxBlockSize(SlimeNeighborhood neighborhood, int chunkSize) {
+        int size = chunkSize * maxInsideWeight;
+        if (maxOutsideWeight == 0) return size;
+        int outside = 0;
+        for (int z = 0; z < WIDTH; z++) {
+            outside += Integer.bitCount(neighborhood.getRow(z - R_CHUNK) & partial[z]);
+        }
+        return size + outside * maxOutsideWeight;
+    }
+
+    /**
+     * @param slimeChunks - slime chunks that cover the neighborhood of the position
+     * @param chunkX - absolute chunk x coordinate of the center
+     * @param chunkZ - absolute chunk z coordinate of the center
+     * @return the number of blocks of the slime chunks inside the block mask centered at the given chunk
+     */
+    public int blockSize(SlimeBitmap slimeChunks, int chunkX, int chunkZ) {
+        int size = 0;
+        for (int z = 0; z < WIDTH; z++) {
+            int row = slimeChunks.bits(chunkX - R_CHUNK, chunkZ - R_CHUNK + z, WIDTH);
+            if (row == 0) continue;
+            for (int p = 0; p < planes.length; p++) {
+                size += Integer.bitCount(row & planes[p][z]) << planeShifts[p];
+            }
+        }
+        return size;
+    }
+}
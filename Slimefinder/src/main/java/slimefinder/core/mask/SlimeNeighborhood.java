@@ -0,0 +1,156 @@
+package slimefinder.core.mask;
+
+import slimefinder.core.slime.OracleSlimeChunks;
+import slimefinder.core.slime.SlimeChunkSource;
+import slimefinder.util.Direction;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+
+/**
+ * The slime chunks in the (2 * R_CHUNK + 1) x (2 * R_CHUNK + 1) chunk
+ * neighborhood of a mask stored as a ring of bit rows. Each row holds the
+ * chunks with the same z-coordinate so that bit (chunkX + R_CHUNK) is set
+ * if the chunk at relative position (chunkX, chunkZ) is a slime chunk.
+ * Moving the neighborhood by one chunk only computes the chunks entering
+ * it and never allocates.
+ */
+public class SlimeNeighborhood {
+
+    /**
+     * Side length of the neighborhood in chunks
+     */
+    public static final int WIDTH = 2 * R_CHUNK + 1;
+
+    /**
+     * The bits of a row that belong to the neighborhood
+     */
+    public static final int ROW_MASK = (1 << WIDTH) - 1;
+
+    private final SlimeChunkSource source;
+
+    private final int[] rows;
+
+    /**
+     * Index of the row at relative z-coordinate -R_CHUNK
+     */
+    private int head;
+
+    /**
+     * Absolute chunk coordinates of the center of the neighborhood
+     */
+    private int centerX, centerZ;
+
+    private boolean filled;
+
+    public SlimeNeighborhood(long worldSeed) {
+        this(new OracleSlimeChunks(worldSeed));
+    }
+
+    public SlimeNeighborhood(SlimeChunkSource source) {
+        this.source = source;
+        rows = new int[WIDTH];
+    }
+
+    /**
+     * Computes every row of the neighborhood centered at the given chunk.
+     */
+    public void fill(int chunkX, int chunkZ) {
+        centerX = chunkX;
+        centerZ = chunkZ;
+        head = 0;
+        for (int i = 0; i < WIDTH; i++) {
+            rows[i] = computeRow(chunkZ - R_CHUNK + i);
+        }
+        filled = true;
+    }
+
+    /**
+     * Moves the neighborhood by 1 chunk in the given direction computing
+     * only the row or column entering the neighborhood.
+     *
+     * @param d - direction of movement
+     */
+    public void moveBy(Direction d) {
+        int i, column;
+        switch (d) {
+            case EAST:
+                ++centerX;
+                column = source.column(centerX + R_CHUNK, centerZ - R_CHUNK, WIDTH);
+                for (i = 0; i < WIDTH; i++) {
+                    int index = ringIndex(i);
+                    rows[index] = rows[index] >>> 1 | (column >>> i & 1) << (WIDTH - 1);
+                }
+                break;
+            case WEST:
+                --centerX;
+                column = source.column(centerX - R_CHUNK, centerZ - R_CHUNK, WIDTH);
+                for (i = 0; i < WIDTH; i++) {
+                    int index = ringIndex(i);
+                    rows[index] = (rows[index] << 1) & ROW_MASK | column >>> i & 1;
+                }
+                break;
+            case SOUTH:
+                ++centerZ;
+                rows[head] = computeRow(centerZ + R_CHUNK);
+                head = ringIndex(1);
+                break;
+            case NORTH:
+                --centerZ;
+                head = ringIndex(WIDTH - 1);
+                rows[head] = computeRow(centerZ - R_CHUNK);
+                break;
+        }
+    }
+
+    /**
+     * @return the direction in which the neighborhood has to be moved by 1 chunk to be centered at
+     * (chunkX, chunkZ) or null if the neighborhood is not filled or not adjacent to the given chunk.
+     */
+    public Direction getAdjacent(int chunkX, int chunkZ) {
+        if (!filled) return null;
+        int dx = chunkX - centerX;
+        int dz = chunkZ - centerZ;
+        if (dx == 1 && dz == 0) return Direction.EAST;
+        if (dx == -1 && dz == 0) return Direction.WEST;
+        if (dx == 0 && dz == 1) return Direction.SOUTH;
+        if (dx == 0 && dz == -1) return Direction.NORTH;
+        return null;
+    }
+
+    /**
+     * @return true if the neighborhood has been filled and is centered at (chunkX, chunkZ)
+     */
+    public boolean isAt(int chunkX, int chunkZ) {
+        return filled && centerX == chunkX && centerZ == chunkZ;
+    }
+
+    /**
+     * @param chunkZ - z-coordinate relative to the center, in the range [-R_CHUNK, R_CHUNK]
+     * @return the slime chunk bits of the row
+     */
+    public int getRow(int chunkZ) {
+        return rows[ringIndex(chunkZ + R_CHUNK)];
+    }
+
+    /**
+     * @param chunkX - x-coordinate relative to the center, in the range [-R_CHUNK, R_CHUNK]
+     * @param chunkZ - z-coordinate relative to the center, in the range [-R_CHUNK, R_CHUNK]
+     * @return true if the chunk is a slime chunk
+     */
+    public boolean isSlimeChunk(int chunkX, int chunkZ) {
+        return (getRow(chunkZ) >>> (chunkX + R_CHUNK) & 1) != 0;
+    }
+
+    private int ringIndex(int i) {
+        int index = head + i;
+        return index >= WIDTH ? index - WIDTH : index;
+    }
+
+    /**
+     * @param chunkZ - absolute z-coordinate of the row
+     * @return the slime chunk bits of the row at chunkZ spanning the width of the neighborhood
+     */
+    private int computeRow(int chunkZ) {
+        return source.row(centerX - R_CHUNK, chunkZ, WIDTH);
+    }
+}
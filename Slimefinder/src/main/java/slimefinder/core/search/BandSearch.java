@@ -0,0 +1,52 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+
+import slimefinder.core.slime.SlimeBitmap;
+import slimefinder.core.slime.SlimeSources;
+import slimefinder.util.Point;
+
+/**
+ * Searches the area row by row from north to south. Each row is searched
+ * like a tile of height 1 and the slime chunks of the WIDTH rows around it
+ * are kept in a bitmap that is scrolled by one row after each row, so every
+ * slime chunk is computed only once and the memory used does not depend on
+ * the height of the area. The matches of a row are recorded whenever
+ * maxBufferedMatches of them have been found, so neither does it depend on
+ * the number of matches of a row.
+ */
+class BandSearch extends TileSearch {
+
+    BandSearch(SearchTask task) {
+        super(task);
+    }
+
+    @Override
+    public void search(long position) throws IOException, InterruptedException {
+        SearchPath path = task.path;
+        if (path.getPathLength() <= 0) return;
+        initKernels();
+        Point min = path.getMinCorner(), max = path.getMaxCorner();
+        int z = (int) (min.z + position);
+        SlimeBitmap slimeChunks = SlimeDensity.area(SlimeSources.get(task.pMask), new Tile(min.x, z, max.x, z));
+        for (; z <= max.z; z++) {
+            TileResult result = searchTile(new Tile(min.x, z, max.x, z), slimeChunks, true);
+            task.collect(result, z - min.z + 1, z - min.z + 1);
+            if (z < max.z) slimeChunks.scroll();
+        }
+    }
+
+    /**
+     * The progress of a band search is the number of rows searched.
+     */
+    @Override
+    public NonMaximumSuppression.Frontier frontier() {
+        Point min = task.path.getMinCorner(), max = task.path.getMaxCorner();
+        return (x, z, d) -> Math.min((long) z + d, max.z) - min.z + 1;
+    }
+
+    @Override
+    public String describe() {
+        return "Searching row by row" + (task.regionPruning ? ", skipping regions with too few slime chunks" : "");
+    }
+}
@@ -0,0 +1,210 @@
+package slimefinder.core.search;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+import static slimefinder.util.FormatHelper.COORD_SEP;
+
+/**
+ * The state of an unfinished search stored on disk so that the search can be
+ * continued later. A checkpoint is written to a temporary file which then
+ * replaces the previous checkpoint, so a crash while saving never leaves a
+ * partially written checkpoint behind.
+ */
+public class Checkpoint {
+
+    private static final String POSITION = "position";
+    private static final String CHECKED = "checked";
+    private static final String MATCHES = "matches";
+    private static final String OUTPUT_LENGTH = "output-length";
+    private static final String MAX_BLOCK = "max-block";
+    private static final String MIN_BLOCK = "min-block";
+    private static final String MAX_CHUNK = "max-chunk";
+    private static final String MIN_CHUNK = "min-chunk";
+    private static final String PARAMETER_PREFIX = "parameter.";
+    private static final String TOP_PREFIX = "top.";
+    private static final String DECIDED_PREFIX = "decided.";
+    private static final String HELD_PREFIX = "held.";
+    private static final String UNORDERED_PREFIX = "unordered.";
+
+    /**
+     * The number of chunks of the search path, tiles or rows that had been completely
+     * searched when the checkpoint was made
+     */
+    public long position;
+
+    /**
+     * Number of positions checked and matches found before the checkpoint
+     */
+    public long checked, matches;
+
+    /**
+     * Length of the results file in bytes when the checkpoint was made
+     */
+    public long outputLength;
+
+    public Extrema extrema;
+
+    /**
+     * The best positions found before the checkpoint in a top-K search
+     */
+    public final List<MaskData> top;
+
+    /**
+     * The matches of a search with non-maximum suppression that had been decided but were still
+     * needed for deciding others, and the matches that were held back, when the checkpoint was made
+     */
+    public final List<MaskData> decided, held;
+
+    /**
+     * The matches of a tiled search that were held back until the chunks before them on the
+     * search path had been searched when the checkpoint was made
+     */
+    public final List<MaskData> unordered;
+
+    /**
+     * The properties that determine which positions the search checks and how. A search can only
+     * be resumed with the same parameters.
+     */
+    public final Map<String, String> parameters;
+
+    public Checkpoint() {
+        parameters = new LinkedHashMap<>();
+        extrema = new Extrema();
+        top = new ArrayList<>();
+        decided = new ArrayList<>();
+        held = new ArrayList<>();
+        unordered = new ArrayList<>();
+    }
+
+    /**
+     * @return the name of the first parameter whose value differs from the given parameters or null
+     * if all parameters are equal
+     */
+    public String findMismatch(Map<String, String> current) {
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            if (!entry.getValue().equals(parameters.get(entry.getKey()))) return entry.getKey();
+        }
+        return null;
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file and then moves it over the given file.
+     */
+    public void save(File file) throws IOException {
+        Properties p = new Properties();
+        p.setProperty(POSITION, Long.toString(position));
+        p.setProperty(CHECKED, Long.toString(checked));
+        p.setProperty(MATCHES, Long.toString(matches));
+        p.setProperty(OUTPUT_LENGTH, Long.toString(outputLength));
+        if (extrema.getMaxBlock() != null) {
+            p.setProperty(MAX_BLOCK, format(extrema.getMaxBlock()));
+            p.setProperty(MIN_BLOCK, format(extrema.getMinBlock()));
+        }
+        if (extrema.getMaxChunk() != null) {
+            p.setProperty(MAX_CHUNK, format(extrema.getMaxChunk()));
+            p.setProperty(MIN_CHUNK, format(extrema.getMinChunk()));
+        }
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            p.setProperty(PARAMETER_PREFIX + entry.getKey(), entry.getValue());
+        }
+        putList(p, TOP_PREFIX, top);
+        putList(p, DECIDED_PREFIX, decided);
+        putList(p, HELD_PREFIX, held);
+        putList(p, UNORDERED_PREFIX, unordered);
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            p.store(out, "Slimefinder search checkpoint");
+            out.getFD().sync();
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return the checkpoint read from the given file
+     * @throws IOException if the file could not be read or is not a valid checkpoint
+     */
+    public static Checkpoint load(File file) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            p.load(in);
+        }
+        Checkpoint checkpoint = new Checkpoint();
+        try {
+            checkpoint.position = Long.parseLong(p.getProperty(POSITION));
+            checkpoint.checked = Long.parseLong(p.getProperty(CHECKED));
+            checkpoint.matches = Long.parseLong(p.getProperty(MATCHES));
+            checkpoint.outputLength = Long.parseLong(p.getProperty(OUTPUT_LENGTH));
+            boolean block = p.getProperty(MAX_BLOCK) != null, chunk = p.getProperty(MAX_CHUNK) != null;
+            checkpoint.extrema = new Extrema(
+                block ? parse(p.getProperty(MAX_BLOCK)) : null,
+                block ? parse(p.getProperty(MIN_BLOCK)) : null,
+                chunk ? parse(p.getProperty(MAX_CHUNK)) : null,
+                chunk ? parse(p.getProperty(MIN_CHUNK)) : null
+            );
+            getList(p, TOP_PREFIX, checkpoint.top);
+            getList(p, DECIDED_PREFIX, checkpoint.decided);
+            getList(p, HELD_PREFIX, checkpoint.held);
+            getList(p, UNORDERED_PREFIX, checkpoint.unordered);
+        } catch (NumberFormatException | NullPointerException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid checkpoint file '" + file + "'", e);
+        }
+        for (String key : p.stringPropertyNames()) {
+            if (key.startsWith(PARAMETER_PREFIX))
+                checkpoint.parameters.put(key.substring(PARAMETER_PREFIX.length()), p.getProperty(key));
+        }
+        return checkpoint;
+    }
+
+    private static void putList(Properties p, String prefix, List<MaskData> list) {
+        for (int i = 0; i < list.size(); i++) {
+            p.setProperty(prefix + i, format(list.get(i)));
+        }
+    }
+
+    private static void getList(Properties p, String prefix, List<MaskData> list) {
+        for (int i = 0; p.getProperty(prefix + i) != null; i++) {
+            list.add(parse(p.getProperty(prefix + i)));
+        }
+    }
+
+    /**
+     * chunkX,chunkZ,inX,inZ,blockSize,chunkSize,blockSurfaceArea,chunkSurfaceArea
+     */
+    private static String format(MaskData m) {
+        return
+            m.chunk.x + COORD_SEP + m.chunk.z + COORD_SEP + m.in.x + COORD_SEP + m.in.z + COORD_SEP +
+            m.blockSize + COORD_SEP + m.chunkSize + COORD_SEP + m.blockSurfaceArea + COORD_SEP + m.chunkSurfaceArea;
+    }
+
+    private static MaskData parse(String str) {
+        String[] fields = str.split(COORD_SEP);
+        MaskData m = new MaskData();
+        m.chunk = new Point(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+        m.in = new Point(Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+        m.blockSize = Integer.parseInt(fields[4]);
+        m.chunkSize = Integer.parseInt(fields[5]);
+        m.blockSurfaceArea = Integer.parseInt(fields[6]);
+        m.chunkSurfaceArea = Integer.parseInt(fields[7]);
+        return m;
+    }
+}
@@ -0,0 +1,137 @@
+package slimefinder.core.search;
+
+import slimefinder.core.ExtremumData;
+import slimefinder.core.mask.MaskData;
+
+/**
+ * The positions with the smallest and largest block and chunk sizes among
+ * the positions recorded so far. When several positions share an extreme
+ * value the one recorded first is kept. Positions may be recorded with
+ * their chunk size only, so there may be chunk size extrema without block
+ * size extrema.
+ */
+public class Extrema {
+
+    private ExtremumData maxBlock, minBlock, maxChunk, minChunk;
+
+    public Extrema() {
+    }
+
+    /**
+     * Creates extrema that have already been found, for example when resuming a search.
+     */
+    public Extrema(MaskData maxBlock, MaskData minBlock, MaskData maxChunk, MaskData minChunk) {
+        if (maxBlock != null) {
+            this.maxBlock = maxBlock(maxBlock);
+            this.minBlock = minBlock(minBlock);
+        }
+        if (maxChunk != null) {
+            this.maxChunk = maxChunk(maxChunk);
+            this.minChunk = minChunk(minChunk);
+        }
+    }
+
+    /**
+     * @return true if no position has been recorded with its block size
+     */
+    public boolean isEmpty() {
+        return maxBlock == null;
+    }
+
+    /**
+     * Records the given position.
+     */
+    public void update(MaskData m) {
+        if (maxBlock == null) {
+            maxBlock = maxBlock(m);
+            minBlock = minBlock(m);
+        } else {
+            if (maxBlock.needsUpdate(m)) maxBlock.collectData(m);
+            if (minBlock.needsUpdate(m)) minBlock.collectData(m);
+        }
+        updateChunkSize(m);
+    }
+
+    /**
+     * Records the chunk size of the given position whose block size either is known not to
+     * replace the block size extrema or has not been computed.
+     */
+    public void updateChunkSize(MaskData m) {
+        if (maxChunk == null) {
+            maxChunk = maxChunk(m);
+            minChunk = minChunk(m);
+            return;
+        }
+        if (maxChunk.needsUpdate(m)) maxChunk.collectData(m);
+        if (minChunk.needsUpdate(m)) minChunk.collectData(m);
+    }
+
+    /**
+     * Records the extrema of positions that come after the positions recorded in this object.
+     * The result is the same as if the positions had been recorded in this object one by one.
+     */
+    public void merge(Extrema other) {
+        if (other.maxBlock != null) {
+            if (maxBlock == null) {
+                maxBlock = maxBlock(other.maxBlock);
+                minBlock = minBlock(other.minBlock);
+            } else {
+                if (maxBlock.needsUpdate(other.maxBlock)) maxBlock.collectData(other.maxBlock);
+                if (minBlock.needsUpdate(other.minBlock)) minBlock.collectData(other.minBlock);
+            }
+        }
+        if (other.maxChunk != null) {
+            if (maxChunk == null) {
+                maxChunk = maxChunk(other.maxChunk);
+                minChunk = minChunk(other.minChunk);
+            } else {
+                if (maxChunk.needsUpdate(other.maxChunk)) maxChunk.collectData(other.maxChunk);
+                if (minChunk.needsUpdate(other.minChunk)) minChunk.collectData(other.minChunk);
+            }
+        }
+    }
+
+    private static ExtremumData maxBlock(MaskData m) {
+        return new ExtremumData(m) {
+            @Override
+            public boolean needsUpdate(MaskData mask) { return this.blockSize < mask.blockSize; }
+        };
+    }
+
+    private static ExtremumData minBlock(MaskData m) {
+        return new ExtremumData(m) {
+            @Override
+            public boolean needsUpdate(MaskData mask) { return this.blockSize > mask.blockSize; }
+        };
+    }
+
+    private static ExtremumData maxChunk(MaskData m) {
+        return new ExtremumData(m) {
+            @Override
+            public boolean needsUpdate(MaskData mask) { return this.chunkSize < mask.chunkSize; }
+        };
+    }
+
+    private static ExtremumData minChunk(MaskData m) {
+        return new ExtremumData(m) {
+            @Override
+            public boolean needsUpdate(MaskData mask) { return this.chunkSize > mask.chunkSize; }
+        };
+    }
+
+    public ExtremumData getMaxBlock() {
+        return maxBlock;
+    }
+
+    public ExtremumData getMinBlock() {
+        return minBlock;
+    }
+
+    public ExtremumData getMaxChunk() {
+        return maxChunk;
+    }
+
+    public ExtremumData getMinChunk() {
+        return minChunk;
+    }
+}
@@ -0,0 +1,149 @@
+package slimefinder.core.search;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import slimefinder.core.mask.CeilMask;
+import slimefinder.core.mask.FloorMask;
+import slimefinder.core.mask.Mask;
+import slimefinder.core.mask.MaskKernel;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.util.Position;
+
+import static slimefinder.io.properties.MaskProperties.*;
+
+/**
+ * A mask configuration of a multi-mask search: the mask properties with some
+ * of the properties of the shape of the mask replaced, and the type of the
+ * mask. A list of configurations is written as
+ *
+ *     y-offset=-16,chunk-weight=64;mask-type=ceil
+ *
+ * with the configurations separated by semicolons and the replaced
+ * properties of a configuration by commas. The properties that can be
+ * replaced are y-offset, chunk-weight, despawn-sphere, exclusion-sphere and
+ * mask-type, which is one of mask, ceil and floor.
+ */
+public class MaskVariant {
+
+    public static final String TYPE = "mask-type";
+
+    public enum Type {
+        MASK, CEIL, FLOOR;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * The configuration as written in the list with the whitespace removed, used to tell the
+     * results of the configurations apart
+     */
+    public final String tag;
+
+    public final MaskProperties pMask;
+    public final Type type;
+
+    private MaskVariant(String tag, MaskProperties pMask, Type type) {
+        this.tag = tag;
+        this.pMask = pMask;
+        this.type = type;
+    }
+
+    /**
+     * @param variants - the list of configurations, empty configurations are ignored
+     * @param base - the mask properties that are not replaced
+     * @return the configurations of the list in order
+     * @throws IllegalArgumentException if a configuration is not valid or is listed twice
+     */
+    public static List<MaskVariant> parse(String variants, MaskProperties base) {
+        List<MaskVariant> list = new ArrayList<>();
+        Set<String> tags = new HashSet<>();
+        if (variants == null) return list;
+        for (String variant : variants.split(";")) {
+            String tag = variant.replaceAll("\\s", "");
+            if (tag.isEmpty()) continue;
+            if (!tags.add(tag)) throw new IllegalArgumentException("Mask variant '" + tag + "' is listed twice");
+            MaskProperties pMask = new MaskProperties(base);
+            Type type = Type.MASK;
+            for (String property : tag.split(",")) {
+                int separator = property.indexOf('=');
+                if (separator < 0) throw new IllegalArgumentException("Expected 'key=value' in mask variant '" + tag + "'");
+                String key = property.substring(0, separator), value = property.substring(separator + 1);
+                switch (key) {
+                    case OFFSET:
+                    case WEIGHT:
+                        pMask.setProperty(key, parseInt(value, key));
+                        break;
+                    case DESPAWN:
+                    case EXCLUSION:
+                        pMask.setProperty(key, parseBoolean(value, key));
+                        break;
+                    case TYPE:
+                        type = parseType(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("'" + key + "' can not be changed in a mask variant");
+                }
+            }
+            list.add(new MaskVariant(tag, pMask, type));
+        }
+        return list;
+    }
+
+    private static int parseInt(String value, String key) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + value + "' is not a valid value for '" + key + "'");
+        }
+    }
+
+    private static boolean parseBoolean(String value, String key) {
+        if (value.equals("true") || value.equals("false")) return Boolean.parseBoolean(value);
+        throw new IllegalArgumentException("'" + value + "' is not a valid value for '" + key + "'");
+    }
+
+    private static Type parseType(String value) {
+        for (Type type : Type.values()) {
+            if (type.toString().equals(value)) return type;
+        }
+        throw new IllegalArgumentException("'" + value + "' is not a valid value for '" + TYPE + "'");
+    }
+
+    /**
+     * @return the chunk weights of the mask of this configuration centered at the given position.
+     * Ceiling and floor masks do not depend on the within-chunk position.
+     */
+    public MaskKernel kernel(Position center) {
+        switch (type) {
+            case CEIL:
+                return new CeilMask(pMask, center).getKernel();
+            case FLOOR:
+                return new FloorMask(pMask, center).getKernel();
+            default:
+                return new Mask(pMask, center).getKernel();
+        }
+    }
+
+    /**
+     * @return the results file of this configuration, the tag inserted before the extension of the
+     * results file of the search
+     */
+    public String file(String resultsFile) {
+        String name = new File(resultsFile).getName();
+        int extension = name.lastIndexOf('.');
+        int split = extension > 0 ? resultsFile.length() - name.length() + extension : resultsFile.length();
+        return resultsFile.substring(0, split) + "." + tag + resultsFile.substring(split);
+    }
+
+    @Override
+    public String toString() {
+        return tag;
+    }
+}
@@ -0,0 +1,284 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import slimefinder.core.ExtremumData;
+import slimefinder.core.TrackableTask;
+import slimefinder.core.mask.KernelConvolution;
+import slimefinder.core.mask.MaskData;
+import slimefinder.core.mask.MaskKernel;
+import slimefinder.core.slime.SlimeBitmap;
+import slimefinder.core.slime.SlimeSources;
+import slimefinder.io.CLI;
+import slimefinder.io.IDataLogger;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.io.properties.SearchProperties;
+import slimefinder.util.Point;
+import slimefinder.util.Position;
+
+import static slimefinder.io.properties.SearchProperties.*;
+import static slimefinder.util.FormatHelper.*;
+
+/**
+ * Searches the area of a search for several mask configurations at once,
+ * see {@link MaskVariant}. The matches of each configuration are written to
+ * a results file of their own whose name is tagged with the configuration.
+ *
+ * The area is searched row by row from north to south like a band search.
+ * The slime chunks around the row are kept in a single bitmap and scanned
+ * once per row, and the kernels of all of the configurations are added for
+ * each slime chunk found, so the slime chunks are computed only once no
+ * matter how many configurations are searched. Only the within-chunk
+ * position of the center is checked.
+ */
+public class MultiMaskSearchTask extends TrackableTask {
+
+    private final MaskProperties pMask;
+    private final SearchPath path;
+
+    private final List<MaskVariant> variants;
+    /**
+     * The loggers of the configurations that have been started
+     */
+    private final List<IDataLogger> loggers = new ArrayList<>();
+    private final MaskKernel[] kernels;
+    private final Extrema[] extrema;
+    private final long[] matches;
+
+    private final String resultsFile;
+    private final int minBlockSize, maxBlockSize, minChunkSize, maxChunkSize;
+    private final Position centerPos;
+
+    /**
+     * Number of positions checked for every configuration so far
+     */
+    private long checked;
+
+    /**
+     * @param loggers - creates the logger of a configuration from its mask properties
+     */
+    public MultiMaskSearchTask(
+        SearchProperties pSearch,
+        MaskProperties pMask,
+        Function<MaskProperties, IDataLogger> loggers,
+        CLI cli
+    ) throws IOException {
+        resultsFile = pSearch.getString(RESULTS);
+        minBlockSize = pSearch.getInt(MIN_BLOCK_SZ);
+        maxBlockSize = pSearch.getInt(MAX_BLOCK_SZ);
+        minChunkSize = pSearch.getInt(MIN_CHUNK_SZ);
+        maxChunkSize = pSearch.getInt(MAX_CHUNK_SZ);
+        centerPos = pSearch.getPosition(CENTER_POS);
+        path = new SearchPath(centerPos.chunk, pSearch.getInt(MIN_WIDTH), pSearch.getInt(MAX_WIDTH));
+        this.pMask = pMask;
+        SlimeSources.open(pMask, cli);
+
+        try {
+            variants = MaskVariant.parse(pSearch.getString(MASK_VARIANTS), pMask);
+        } catch (IllegalArgumentException e) {
+            cli.error(e.getMessage());
+            throw new IOException(e.getMessage());
+        }
+        kernels = new MaskKernel[variants.size()];
+        extrema = new Extrema[variants.size()];
+        matches = new long[variants.size()];
+        boolean append = pSearch.getBoolean(APPEND);
+        for (int i = 0; i < variants.size(); i++) {
+            MaskVariant variant = variants.get(i);
+            kernels[i] = variant.kernel(centerPos);
+            extrema[i] = new Extrema();
+            IDataLogger logger = loggers.apply(variant.pMask);
+            try {
+                logger.start(variant.file(resultsFile), append);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+            this.loggers.add(logger);
+        }
+    }
+
+    /**
+     * @return true if the search properties list mask configurations to search
+     */
+    public static boolean hasVariants(SearchProperties pSearch) {
+        String variants = pSearch.getString(MASK_VARIANTS);
+        return variants != null && !variants.trim().isEmpty();
+    }
+
+    @Override
+    public void run() {
+        setStartTime();
+        try {
+            search();
+            isFinished = true;
+        } catch (InterruptedException | IOException e) {
+        } finally {
+            close();
+            stop();
+        }
+    }
+
+    private void close() {
+        for (IDataLogger logger : loggers) {
+            logger.close();
+        }
+    }
+
+    /**
+     * Searches the rows of the area scrolling the slime chunks by one row after each row.
+     */
+    private void search() throws IOException, InterruptedException {
+        if (path.getPathLength() <= 0 || variants.isEmpty()) return;
+        Point min = path.getMinCorner(), max = path.getMaxCorner();
+        int width = max.x - min.x + 1;
+        SlimeBitmap slimeChunks = SlimeDensity.area(SlimeSources.get(pMask), new Tile(min.x, min.z, max.x, min.z));
+        MaskData data = new MaskData();
+        data.chunk = new Point(0, 0);
+        boolean[] contained = new boolean[width];
+        for (int z = min.z; z <= max.z; z++) {
+            int rowChecked = 0;
+            for (int i = 0; i < width; i++) {
+                contained[i] = path.contains(min.x + i, z);
+                if (contained[i]) ++rowChecked;
+            }
+            int[][] sizes = KernelConvolution.convolve(kernels, slimeChunks, min.x, z, width, 1);
+            for (int k = 0; k < kernels.length; k++) {
+                data.in = variants.get(k).type == MaskVariant.Type.MASK ? centerPos.in : null;
+                data.blockSurfaceArea = kernels[k].blockSurfaceArea;
+                data.chunkSurfaceArea = kernels[k].chunkSurfaceArea;
+                Extrema rowExtrema = new Extrema();
+                long rowMatches = 0;
+                for (int i = 0; i < width; i++) {
+                    if (!contained[i]) continue;
+                    data.chunk.setPoint(min.x + i, z);
+                    data.blockSize = KernelConvolution.blockSize(sizes[k][i]);
+                    data.chunkSize = KernelConvolution.chunkSize(sizes[k][i]);
+                    rowExtrema.update(data);
+                    if (matchesSearchCriteria(data.chunkSize, data.blockSize)) {
+                        loggers.get(k).write(data);
+                        ++rowMatches;
+                    }
+                }
+                synchronized (this) {
+                    extrema[k].merge(rowExtrema);
+                    matches[k] += rowMatches;
+                }
+            }
+            synchronized (this) {
+                checked += rowChecked;
+            }
+            if (isInterrupted) throw new InterruptedException();
+            if (z < max.z) slimeChunks.scroll();
+        }
+    }
+
+    /**
+     * @return true if either the block or the chunk size is within the range of the search criteria
+     */
+    private boolean matchesSearchCriteria(int chunkSize, int blockSize) {
+        return
+            chunkSize >= minChunkSize && chunkSize <= maxChunkSize ||
+            blockSize >= minBlockSize && blockSize <= maxBlockSize;
+    }
+
+    /**
+     * @return the mask configurations searched in order
+     */
+    public List<MaskVariant> getVariants() {
+        return variants;
+    }
+
+    /**
+     * @return the extrema of the given configuration so far
+     */
+    public synchronized Extrema getExtrema(int variant) {
+        return extrema[variant];
+    }
+
+    /**
+     * @return number of positions checked for every configuration so far
+     */
+    public synchronized long positionsChecked() {
+        return checked;
+    }
+
+    /**
+     * @return total number of positions checked for every configuration once the search is complete
+     */
+    public long positionsTotal() {
+        return path.getPathLength();
+    }
+
+    /**
+     * @return total number of matches of all configurations so far
+     */
+    public synchronized long matches() {
+        long sum = 0;
+        for (long m : matches) sum += m;
+        return sum;
+    }
+
+    /**
+     * Searching mask positions with criteria: 0 <= blockSize <= -1 or 35 <= chunkSize <= 289
+     * Searching 2 mask variants row by row:
+     *   'y-offset=-16' saving results to file: 'results.y-offset=-16.csv'
+     *   'mask-type=ceil' saving results to file: 'results.mask-type=ceil.csv'
+     */
+    @Override
+    public String startInfo() {
+        StringBuilder info = new StringBuilder(
+            "Searching mask positions with criteria: " +
+            minBlockSize + " <= blockSize <= " + maxBlockSize + " or " +
+            minChunkSize + " <= chunkSize <= " + maxChunkSize + LN +
+            "Searching " + variants.size() + " mask variants row by row:"
+        );
+        for (MaskVariant variant : variants) {
+            info.append(LN).append("  '").append(variant).append("' saving results to file: '")
+                .append(variant.file(resultsFile)).append("'");
+        }
+        return info.toString();
+    }
+
+    /**
+     * [  82.1% ]  2 matches, 54777 of 256000000 positions checked, 00:00:09 elapsed, 43:12:55 remaining
+     */
+    @Override
+    public synchronized String progressInfo() {
+        long checked = positionsChecked();
+        long total = positionsTotal();
+        long time = getDuration();
+        float progress = total > 0 ? (float) checked / total : 1;
+        float rate = (float) checked / time;
+        return
+            "[ " + String.format("%1$5.1f", progress * 100) + "% ]  " +
+            matches() + " matches, " +
+            checked + " of " + total + " positions checked, " +
+            timeFormat(time) + " elapsed, " +
+            timeFormat((long) ((total - checked) / rate)) + " remaining";
+    }
+
+    /**
+     * 459441 nanoseconds per position
+     * 'y-offset=-16': 12 matches
+     *   largest block size: 132/79000 at 252:12,-1599:3
+     *   largest chunk size: 132/79000 at 252:12,-1599:3
+     */
+    @Override
+    public synchronized String endInfo() {
+        if (checked <= 0) return "";
+        StringBuilder info = new StringBuilder(getDuration() / checked + " nanoseconds per position");
+        for (int k = 0; k < variants.size(); k++) {
+            ExtremumData maxBlock = extrema[k].getMaxBlock(), maxChunk = extrema[k].getMaxChunk();
+            info.append(LN).append("'").append(variants.get(k)).append("': ").append(matches[k]).append(" matches").append(LN)
+                .append("  largest block size: ").append(maxBlock.blockSize).append("/").append(maxBlock.blockSurfaceArea)
+                .append(" at ").append(chunkPosFormat(maxBlock.chunk, maxBlock.in)).append(LN)
+                .append("  largest chunk size: ").append(maxChunk.chunkSize).append("/").append(maxChunk.chunkSurfaceArea)
+                .append(" at ").append(chunkPosFormat(maxChunk.chunk, maxChunk.in));
+        }
+        return info.toString();
+    }
+}
@@ -0,0 +1,232 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import slimefinder.core.mask.MaskData;
+
+/**
+ * Passes on only the matches that are local maxima: a match is dropped if
+ * another match within radius chunks of it has a higher score, or the same
+ * score and a smaller position in the order of z, x, in-z and in-x. The
+ * score is blockWeight * blockSize + chunkWeight * chunkSize.
+ *
+ * A match is held back until every chunk within radius chunks of it has
+ * been searched, which the frontier tells in terms of the progress of the
+ * search, and is then passed on or dropped. Matches are kept in a grid of
+ * cells of radius chunks until every match that may be compared with them
+ * has been decided, so only a window of the search path around the current
+ * position is held in memory.
+ *
+ * Only the best match of each chunk is held: the other matches of a chunk
+ * are within distance 0 of it, so they are dropped anyway and drop no match
+ * that it does not drop itself. Deciding a match then compares it with at
+ * most one match per chunk within radius chunks of it, no matter how many
+ * within-chunk positions of each chunk match.
+ */
+public class NonMaximumSuppression {
+
+    /**
+     * Tells how far a search has to progress for an area to be searched.
+     */
+    public interface Frontier {
+
+        /**
+         * @return the progress of the search after which every chunk within the given distance of
+         * the given chunk has been searched
+         */
+        long after(int chunkX, int chunkZ, int distance);
+    }
+
+    /**
+     * Receives the matches that are local maxima.
+     */
+    public interface Sink {
+        void accept(MaskData m) throws IOException;
+    }
+
+    private static final class Entry {
+        MaskData data;
+        long score;
+        final long release, expire, order;
+        boolean released;
+
+        Entry(MaskData data, long score, long release, long expire, long order) {
+            this.data = data;
+            this.score = score;
+            this.release = release;
+            this.expire = expire;
+            this.order = order;
+        }
+    }
+
+    private static final Comparator<MaskData> POSITION_ORDER = Comparator
+        .comparingInt((MaskData m) -> m.chunk.z)
+        .thenComparingInt(m -> m.chunk.x)
+        .thenComparingInt(m -> m.in == null ? 0 : m.in.z)
+        .thenComparingInt(m -> m.in == null ? 0 : m.in.x);
+
+    private final int radius, cellWidth, blockWeight, chunkWeight;
+    private final Frontier frontier;
+
+    private final Map<Long, Entry> chunks = new HashMap<>();
+    private final Map<Long, Set<Entry>> cells = new HashMap<>();
+    private final PriorityQueue<Entry> pending = new PriorityQueue<>(
+        Comparator.comparingLong((Entry e) -> e.release).thenComparingLong(e -> e.order));
+    private final PriorityQueue<Entry> expiring = new PriorityQueue<>(Comparator.comparingLong(e -> e.expire));
+    private long order;
+
+    /**
+     * @param radius - distance in chunks within which only the best match is passed on
+     */
+    public NonMaximumSuppression(int radius, int blockWeight, int chunkWeight, Frontier frontier) {
+        this.radius = Math.max(0, radius);
+        this.cellWidth = Math.max(1, radius);
+        this.blockWeight = blockWeight;
+        this.chunkWeight = chunkWeight;
+        this.frontier = frontier;
+    }
+
+    /**
+     * Holds back a copy of the given match until its neighborhood has been searched, unless a
+     * better match of the same chunk is already held.
+     */
+    public void offer(MaskData m) {
+        add(m, false, true);
+    }
+
+    /**
+     * @param copy - whether the given match is copied before it is held
+     */
+    private void add(MaskData m, boolean released, boolean copy) {
+        long key = key(m.chunk.x, m.chunk.z);
+        long score = (long) blockWeight * m.blockSize + (long) chunkWeight * m.chunkSize;
+        Entry e = chunks.get(key);
+        if (e != null) {
+            if (!e.released && beats(score, m, e.score, e.data)) {
+                e.data = copy ? new MaskData(m) : m;
+                e.score = score;
+            }
+            return;
+        }
+        e = new Entry(
+            copy ? new MaskData(m) : m,
+            score,
+            frontier.after(m.chunk.x, m.chunk.z, radius),
+            frontier.after(m.chunk.x, m.chunk.z, 2 * radius),
+            order++
+        );
+        e.released = released;
+        chunks.put(key, e);
+        cells.computeIfAbsent(cell(m.chunk.x, m.chunk.z), k -> new HashSet<>()).add(e);
+        if (!released) pending.add(e);
+        expiring.add(e);
+    }
+
+    /**
+     * Decides the matches whose neighborhoods have been searched at the given progress and forgets
+     * the matches that are no longer needed for deciding the others.
+     */
+    public void advance(long progress, Sink sink) throws IOException {
+        while (!pending.isEmpty() && pending.peek().release <= progress) {
+            release(pending.poll(), sink);
+        }
+        while (!expiring.isEmpty() && expiring.peek().expire <= progress) {
+            Entry e = expiring.poll();
+            chunks.remove(key(e.data.chunk.x, e.data.chunk.z));
+            long cell = cell(e.data.chunk.x, e.data.chunk.z);
+            Set<Entry> entries = cells.get(cell);
+            entries.remove(e);
+            if (entries.isEmpty()) cells.remove(cell);
+        }
+    }
+
+    /**
+     * Decides every match held back, for example when the search is finished.
+     */
+    public void flush(Sink sink) throws IOException {
+        while (!pending.isEmpty()) {
+            release(pending.poll(), sink);
+        }
+    }
+
+    private void release(Entry e, Sink sink) throws IOException {
+        e.released = true;
+        if (isLocalMaximum(e)) sink.accept(e.data);
+    }
+
+    private boolean isLocalMaximum(Entry e) {
+        int x = e.data.chunk.x, z = e.data.chunk.z;
+        int cellX = Math.floorDiv(x, cellWidth), cellZ = Math.floorDiv(z, cellWidth);
+        for (int i = cellX - 1; i <= cellX + 1; i++) {
+            for (int j = cellZ - 1; j <= cellZ + 1; j++) {
+                Set<Entry> entries = cells.get(key(i, j));
+                if (entries == null) continue;
+                for (Entry n : entries) {
+                    if (n == e || Math.abs(n.data.chunk.x - x) > radius || Math.abs(n.data.chunk.z - z) > radius) continue;
+                    if (beats(n.score, n.data, e.score, e.data)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if a match with the first score and data is better than one with the second
+     */
+    private static boolean beats(long score, MaskData m, long otherScore, MaskData other) {
+        return score > otherScore || score == otherScore && POSITION_ORDER.compare(m, other) < 0;
+    }
+
+    private long cell(int chunkX, int chunkZ) {
+        return key(Math.floorDiv(chunkX, cellWidth), Math.floorDiv(chunkZ, cellWidth));
+    }
+
+    private static long key(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return the matches that have been decided but may still be compared with the matches held back
+     */
+    public List<MaskData> getReleased() {
+        List<MaskData> released = new ArrayList<>();
+        for (Entry e : expiring) {
+            if (e.released) released.add(e.data);
+        }
+        return released;
+    }
+
+    /**
+     * @return the matches held back in the order they will be decided
+     */
+    public List<MaskData> getPending() {
+        List<Entry> entries = new ArrayList<>(pending);
+        entries.sort(pending.comparator());
+        List<MaskData> list = new ArrayList<>(entries.size());
+        for (Entry e : entries) list.add(e.data);
+        return list;
+    }
+
+    /**
+     * Restores the state saved with {@link #getReleased()} and {@link #getPending()}.
+     */
+    public void restore(List<MaskData> released, List<MaskData> pending) {
+        for (MaskData m : released) add(m, true, false);
+        for (MaskData m : pending) add(m, false, false);
+    }
+
+    /**
+     * @return the number of matches held in memory
+     */
+    public int size() {
+        return expiring.size();
+    }
+}
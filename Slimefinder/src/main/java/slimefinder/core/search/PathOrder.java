@@ -0,0 +1,169 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import slimefinder.core.mask.MaskData;
+
+/**
+ * Puts the matches of a search that does not visit the chunks in the order
+ * of the search path back into that order, so that its output is the same
+ * as that of a search that walks the path. A match is held back until every
+ * chunk before it on the path has been searched. The matches of a tile are
+ * held in its packed result and its chunks are sorted by their indices on
+ * the path once, so releasing the matches merges the sorted tiles.
+ */
+class PathOrder {
+
+    /**
+     * The matches of a tile. The matches of a chunk are consecutive in the result and ordered by
+     * in-x and then in-z like in a fine search of the path.
+     */
+    private static final class Run {
+        final TileResult result;
+
+        /**
+         * The index on the path of each chunk with matches, sorted, and the first and the end of
+         * the matches of the chunk in the result
+         */
+        final long[] indices;
+        final int[] bounds;
+
+        /**
+         * The chunk whose matches are released next
+         */
+        int next;
+
+        Run(TileResult result, long[] indices, int[] bounds) {
+            this.result = result;
+            this.indices = indices;
+            this.bounds = bounds;
+        }
+
+        long index() {
+            return indices[next];
+        }
+    }
+
+    private final SearchPath path;
+    private final PriorityQueue<Run> held = new PriorityQueue<>(Comparator.comparingLong(Run::index));
+    private final MaskData match = new MaskData();
+
+    PathOrder(SearchPath path) {
+        this.path = path;
+    }
+
+    /**
+     * Holds back the matches of the given result of a tile until the chunks before them on the path
+     * have been searched. The result must not be changed afterwards.
+     */
+    void add(TileResult result) {
+        add(result, false);
+    }
+
+    /**
+     * @param sorted - true if the chunks of the result are already in the order of the path
+     */
+    private void add(TileResult result, boolean sorted) {
+        int size = result.size();
+        if (size == 0) return;
+        int chunks = 0;
+        int[] firsts = new int[size + 1];
+        long[] indices = new long[size];
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            result.get(i, match);
+            long index = path.indexOf(match.chunk);
+            if (i == 0 || index != indices[chunks - 1]) {
+                firsts[chunks] = i;
+                indices[chunks++] = index;
+                min = Math.min(min, index);
+            }
+        }
+        firsts[chunks] = size;
+        int[] bounds = new int[2 * chunks];
+        if (sorted) {
+            for (int c = 0; c < chunks; c++) {
+                bounds[2 * c] = firsts[c];
+                bounds[2 * c + 1] = firsts[c + 1];
+            }
+        } else {
+            // The indices of the chunks of a tile lie within a few rings of the path, so the offset
+            // of each index from the smallest one leaves room for the number of the chunk
+            int shift = 32 - Integer.numberOfLeadingZeros(chunks);
+            long[] keys = new long[chunks];
+            for (int c = 0; c < chunks; c++) keys[c] = indices[c] - min << shift | c;
+            Arrays.sort(keys);
+            for (int i = 0; i < chunks; i++) {
+                int c = (int) (keys[i] & (1 << shift) - 1);
+                bounds[2 * i] = firsts[c];
+                bounds[2 * i + 1] = firsts[c + 1];
+                keys[i] = indices[c];
+            }
+            indices = keys;
+        }
+        held.add(new Run(result, Arrays.copyOf(indices, chunks), bounds));
+    }
+
+    /**
+     * Passes on the matches of the chunks before the given index on the path in the order of the path.
+     */
+    void release(long index, NonMaximumSuppression.Sink sink) throws IOException {
+        while (!held.isEmpty() && held.peek().index() < index) {
+            Run run = held.poll();
+            long limit = held.isEmpty() ? index : Math.min(index, held.peek().index());
+            do {
+                for (int i = run.bounds[2 * run.next], end = run.bounds[2 * run.next + 1]; i < end; i++) {
+                    run.result.get(i, match);
+                    sink.accept(match);
+                }
+                ++run.next;
+            } while (run.next < run.indices.length && run.index() < limit);
+            if (run.next < run.indices.length) held.add(run);
+        }
+    }
+
+    /**
+     * Passes on every match held back in the order of the path.
+     */
+    void flush(NonMaximumSuppression.Sink sink) throws IOException {
+        release(Long.MAX_VALUE, sink);
+    }
+
+    /**
+     * @return copies of the matches held back in the order of the path
+     */
+    List<MaskData> getHeld() {
+        List<Run> runs = new ArrayList<>(held);
+        List<long[]> chunks = new ArrayList<>();
+        for (int r = 0; r < runs.size(); r++) {
+            Run run = runs.get(r);
+            for (int i = run.next; i < run.indices.length; i++) chunks.add(new long[] {run.indices[i], r, i});
+        }
+        chunks.sort(Comparator.comparingLong(c -> c[0]));
+        List<MaskData> list = new ArrayList<>();
+        for (long[] c : chunks) {
+            Run run = runs.get((int) c[1]);
+            int i = (int) c[2];
+            for (int j = run.bounds[2 * i]; j < run.bounds[2 * i + 1]; j++) {
+                MaskData m = new MaskData();
+                run.result.get(j, m);
+                list.add(m);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Holds back the matches saved with {@link #getHeld()}.
+     */
+    void restore(List<MaskData> matches) {
+        TileResult result = new TileResult();
+        for (MaskData m : matches) result.addChecked(m, true);
+        add(result, true);
+    }
+}
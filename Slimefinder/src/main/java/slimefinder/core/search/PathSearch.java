@@ -0,0 +1,74 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+
+import slimefinder.core.mask.Mask;
+import slimefinder.core.mask.MaskBounds;
+import slimefinder.util.Point;
+
+/**
+ * Walks the search path once on a single thread. In a fine search all 256
+ * positions within each chunk are checked before moving on, so the slime
+ * chunks around the chunk are computed only once and scored against the
+ * precomputed weights of every within-chunk position. Chunks whose bounds
+ * show that none of their positions can match or change the extrema are
+ * skipped.
+ */
+class PathSearch implements SearchDriver {
+
+    private final SearchTask task;
+    private final SearchPath path;
+    private Mask m;
+    private MaskBounds bounds;
+
+    PathSearch(SearchTask task) {
+        this.task = task;
+        this.path = task.path;
+    }
+
+    @Override
+    public void search(long position) throws IOException, InterruptedException {
+        path.seek(position);
+        while (path.step()) {
+            Point chunk = path.getPoint();
+            long checked = 0;
+            if (task.fineSearch) {
+                m = task.moveMask(m, chunk.x, chunk.z, 0, 0);
+                if (bounds == null) bounds = new MaskBounds(task.pMask);
+                bounds.update(m);
+                if (task.canSkip(bounds, task.extrema, task.topThreshold)) {
+                    checked = 256;
+                } else {
+                    for (int inX = 0; inX < 16; inX++) {
+                        for (int inZ = 0; inZ < 16; inZ++) {
+                            check(chunk.x, chunk.z, inX, inZ);
+                            ++checked;
+                        }
+                    }
+                }
+            } else {
+                check(chunk.x, chunk.z, task.centerPos.in.x, task.centerPos.in.z);
+                checked = 1;
+            }
+            task.advance(path.getProgress(), path.getProgress(), checked);
+        }
+    }
+
+    /**
+     * Moves the mask to the given position and records it if it matches the search criteria.
+     */
+    private void check(int chunkX, int chunkZ, int inX, int inZ) throws IOException {
+        m = task.moveMask(m, chunkX, chunkZ, inX, inZ);
+        if (task.score(m, task.extrema, task.topThreshold)) task.record(m);
+    }
+
+    @Override
+    public NonMaximumSuppression.Frontier frontier() {
+        return path::progressAfter;
+    }
+
+    @Override
+    public String describe() {
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+
+/**
+ * The order in which a {@link SearchTask} visits the chunks of its search
+ * area. A driver checks the positions, passes the matches to the task and
+ * tells the task how far the search has progressed.
+ */
+interface SearchDriver {
+
+    /**
+     * Searches the area from the given position on.
+     *
+     * @param position - the number of chunks of the path, tiles or rows that have already been
+     * searched, see {@link SearchTask#advance}
+     */
+    void search(long position) throws IOException, InterruptedException;
+
+    /**
+     * @return the progress of the search, as passed to {@link SearchTask#advance}, after which the
+     * chunks around a chunk have been searched
+     */
+    NonMaximumSuppression.Frontier frontier();
+
+    /**
+     * @return the line describing the order of the search in the start info or null if the search
+     * walks the path
+     */
+    String describe();
+}
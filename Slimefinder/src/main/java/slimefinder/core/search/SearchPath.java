@@ -142,6 +142,164 @@ public class SearchPath {
         return progress;
     }
 
+    /**
+     * Moves the path so that the next step moves the point to the position with the given index.
+     * After seeking getProgress returns the given index.
+     *
+     * @param index - index of the next position in the range [0, getPathLength()]. Seeking to
+     * getPathLength() makes the next step exit the search area.
+     */
+    public void seek(long index) {
+        long length = getPathLength();
+        if (index < 0 || index > length) throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        if (length == 0) {
+            init();
+            return;
+        }
+        boolean end = index == length;
+        if (end) --index;
+
+        long n = index + (long) minWidth * minWidth;
+        long w = sqrt(n);
+        long r = n - w * w;
+        boolean even = w % 2 == 0;
+        if (r < w) {
+            dir = even ? Direction.NORTH : Direction.SOUTH;
+            edge = (int) w;
+            turns = 1;
+            steps = (int) r;
+        } else {
+            dir = even ? Direction.EAST : Direction.WEST;
+            edge = (int) w + 1;
+            turns = 0;
+            steps = (int) (r - w);
+        }
+        point.setPoint(pointAt(index));
+        inProgress = end;
+        progress = end ? length : index;
+    }
+
+    /**
+     * @param index - index of a position in the range [0, getPathLength())
+     * @return the position with the given index on the path
+     */
+    public Point pointAt(long index) {
+        if (index < 0 || index >= getPathLength())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + getPathLength());
+        long n = index + (long) minWidth * minWidth;
+        long w = sqrt(n);
+        long r = n - w * w;
+        long x, z;
+        if (w % 2 == 0) {
+            // Going north along x = -w/2 and then east along z = -w/2
+            long h = w / 2;
+            if (r <= w) {
+                x = -h;
+                z = h - r;
+            } else {
+                x = -h + r - w;
+                z = -h;
+            }
+        } else {
+            // Going south along x = (w+1)/2 and then west along z = (w+1)/2
+            long h = (w + 1) / 2;
+            if (r <= w) {
+                x = h;
+                z = r - h + 1;
+            } else {
+                x = h - r + w;
+                z = h;
+            }
+        }
+        return new Point((int) (center.x + x), (int) (center.z + z));
+    }
+
+    /**
+     * @param p - a point in the search area
+     * @return the index of the given point on the path or -1 if the point is not on the path
+     */
+    public long indexOf(Point p) {
+        if (!contains(p.x, p.z)) return -1;
+        long x = (long) p.x - center.x;
+        long z = (long) p.z - center.z;
+        // The point is on the edge of the square of width w + 1 that the spiral fills after the square of width w
+        long w = Math.max(squareWidth(x), squareWidth(z)) - 1;
+        long r;
+        if (w % 2 == 0) {
+            long h = w / 2;
+            r = x == -h ? h - z : w + x + h;
+        } else {
+            long h = (w + 1) / 2;
+            r = x == h ? z + h - 1 : w + h - x;
+        }
+        return w * w + r - (long) minWidth * minWidth;
+    }
+
+    /**
+     * @return the number of steps after which every point of the path within the given distance of
+     * the given point has been visited
+     */
+    public long progressAfter(int x, int z, int distance) {
+        long dx = (long) x - center.x;
+        long dz = (long) z - center.z;
+        long w = Math.max(
+            Math.max(squareWidth(dx - distance), squareWidth(dx + distance)),
+            Math.max(squareWidth(dz - distance), squareWidth(dz + distance))
+        );
+        w = Math.min(w, maxWidth);
+        return Math.max(0, w * w - (long) minWidth * minWidth);
+    }
+
+    /**
+     * @return the width of the smallest square filled by the spiral that contains the given relative coordinate
+     */
+    private static long squareWidth(long coordinate) {
+        return coordinate > 0 ? 2 * coordinate : 1 - 2 * coordinate;
+    }
+
+    /**
+     * @return the largest integer whose square is at most n
+     */
+    private static long sqrt(long n) {
+        long root = (long) Math.sqrt((double) n);
+        while (root * root > n) --root;
+        while ((root + 1) * (root + 1) <= n) ++root;
+        return root;
+    }
+
+    /**
+     * @return the corner of the search area with the smallest coordinates
+     */
+    public Point getMinCorner() {
+        return new Point(center.x - (maxWidth - 1) / 2, center.z - (maxWidth - 1) / 2);
+    }
+
+    /**
+     * @return the corner of the search area with the largest coordinates
+     */
+    public Point getMaxCorner() {
+        return new Point(center.x + maxWidth / 2, center.z + maxWidth / 2);
+    }
+
+    /**
+     * @return true if the path visits the given point, false otherwise
+     */
+    public boolean contains(int x, int z) {
+        return isInSquare(x, z, maxWidth) && !isInSquare(x, z, minWidth);
+    }
+
+    /**
+     * @return true if the point is in the square of the given width that the spiral fills first
+     */
+    private boolean isInSquare(int x, int z, int width) {
+        if (width <= 0) return false;
+        int min = -(width - 1) / 2;
+        int max = width / 2;
+        long dx = (long) x - center.x;
+        long dz = (long) z - center.z;
+        return dx >= min && dx <= max && dz >= min && dz <= max;
+    }
+
     /**
      * @return total number of distinct positions on the path
      */
@@ -1,39 +1,124 @@
 package slimefinder.core.search;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import slimefinder.core.ExtremumData;
 import slimefinder.core.mask.Mask;
-import slimefinder.core.mask.AbstractMask;
+import slimefinder.core.mask.MaskBounds;
+import slimefinder.core.mask.MaskData;
+import slimefinder.core.slime.SlimeAlgorithm;
+import slimefinder.core.slime.SlimeAtlas;
+import slimefinder.core.slime.SlimeSources;
+import slimefinder.core.slime.SlimeTileCache;
 import slimefinder.core.TrackableTask;
+import slimefinder.io.CLI;
 import slimefinder.io.properties.MaskProperties;
 import slimefinder.io.properties.SearchProperties;
 import slimefinder.io.IDataLogger;
 import slimefinder.util.Position;
 
+import static slimefinder.io.properties.MaskProperties.*;
 import static slimefinder.io.properties.SearchProperties.*;
 import static slimefinder.util.FormatHelper.*;
 
+/**
+ * Searches the mask positions of a search area for the ones that match the
+ * search criteria. The order in which the area is searched is given by a
+ * {@link SearchDriver}, and the matches found pass through the optional
+ * path order, non-maximum suppression and top-K stages before they are
+ * logged.
+ */
 public class SearchTask extends TrackableTask {
 
-    private ExtremumData maxBlock, minBlock, maxChunk, minChunk;
-    private final MaskProperties pMask;
+    /**
+     * Width of the tiles in chunks when searching with multiple threads
+     */
+    public static final int TILE_WIDTH = 64;
+
+    /**
+     * Number of matches of the tiles searched ahead, or of a row, after which the matches are
+     * recorded before searching further
+     */
+    public static final int MAX_BUFFERED_MATCHES = 1 << 20;
+
+    final Extrema extrema;
+    final MaskProperties pMask;
     public final SearchProperties pSearch;
-    private final SearchPath path;
+    final SearchPath path;
     private final IDataLogger logger;
     private long matches;
-    private Mask m;
-    private int progress;
 
-    private final boolean fineSearch;
+    private final CLI cli;
+
+    /**
+     * Number of mask positions checked so far and the number that had been
+     * checked before a resumed search was started
+     */
+    private long checked, checkedBefore;
+
+    /**
+     * Number of chunks of the path, tiles or rows completely searched. The search
+     * starts from startPosition which is non-zero when resuming a search.
+     */
+    private long position, startPosition;
+
+    private final File checkpointFile;
+
+    /**
+     * Time between checkpoints in nanoseconds, 0 if checkpoints are disabled
+     */
+    private final long checkpointInterval;
+    private long lastCheckpoint;
+
+    final boolean fineSearch, regionPruning;
+    private final boolean bandSearch;
+    private final int threads;
     private final String resultsFile;
     private final int minBlockSize, maxBlockSize, minChunkSize, maxChunkSize;
-    private final Position centerPos;
+    final Position centerPos;
+    int maxBufferedMatches = MAX_BUFFERED_MATCHES;
+
+    /**
+     * Visits the positions of the search area
+     */
+    private final SearchDriver driver;
+
+    /**
+     * Puts the matches of a tiled search into the order of the search path, null in other searches
+     */
+    private final PathOrder order;
+
+    /**
+     * The best matches in a top-K search, null if every match is logged as it is found
+     */
+    private final TopK topK;
+
+    /**
+     * The smallest score with which a match can enter topK, read by the threads searching tiles
+     */
+    volatile long topThreshold = Long.MIN_VALUE;
+
+    /**
+     * Drops the matches that are not local maxima, null if every match is kept
+     */
+    private final NonMaximumSuppression suppression;
 
     public SearchTask(
         SearchProperties pSearch,
         MaskProperties pMask,
         IDataLogger logger
+    ) throws IOException {
+        this(pSearch, pMask, logger, new CLI());
+    }
+
+    public SearchTask(
+        SearchProperties pSearch,
+        MaskProperties pMask,
+        IDataLogger logger,
+        CLI cli
     ) throws IOException {
         fineSearch = pSearch.getBoolean(FINE_SEARCH);
         resultsFile = pSearch.getString(RESULTS);
@@ -45,13 +130,141 @@ public class SearchTask extends TrackableTask {
         int minWidth = pSearch.getInt(MIN_WIDTH);
         int maxWidth = pSearch.getInt(MAX_WIDTH);
         boolean append = pSearch.getBoolean(APPEND);
+        threads = pSearch.getInt(THREADS);
+        regionPruning = pSearch.getBoolean(REGION_PRUNING);
+        bandSearch = threads <= 0 && pSearch.getBoolean(BAND_SEARCH);
+        boolean resume = pSearch.getBoolean(RESUME);
+        checkpointFile = new File(pSearch.getString(CHECKPOINT_FILE));
+        checkpointInterval = Math.max(0, pSearch.getInt(CHECKPOINT_INTERVAL)) * 1000000000L;
+        int blockWeight = weight(pSearch.getInt(SCORE_BLOCK_WEIGHT), 1);
+        int chunkWeight = weight(pSearch.getInt(SCORE_CHUNK_WEIGHT), 0);
+        Integer k = pSearch.getInt(TOP_K);
+        topK = k == null || k <= 0 ? null : new TopK(Math.min(k, TopK.MAX_CAPACITY), blockWeight, chunkWeight);
 
         this.pSearch = pSearch;
         this.pMask = pMask;
         this.logger = logger;
         this.path = new SearchPath(centerPos.chunk, minWidth, maxWidth);
+        if (threads > 0) {
+            driver = new TiledSearch(this, threads);
+            order = new PathOrder(path);
+        } else {
+            driver = bandSearch ? new BandSearch(this) : new PathSearch(this);
+            order = null;
+        }
+        Integer radius = pSearch.getInt(SUPPRESSION_RADIUS);
+        suppression = radius == null || radius <= 0 ? null :
+            new NonMaximumSuppression(radius, blockWeight, chunkWeight, driver.frontier());
+        this.extrema = new Extrema();
+        this.cli = cli;
+        SlimeSources.open(pMask, cli);
+
+        if (resume) {
+            resume();
+        } else {
+            logger.start(resultsFile, append);
+        }
+    }
+
+    /**
+     * Restores the state of the search from the checkpoint file and continues writing the results
+     * file from where it was when the checkpoint was made.
+     */
+    private void resume() throws IOException {
+        Checkpoint checkpoint;
+        try {
+            checkpoint = Checkpoint.load(checkpointFile);
+        } catch (IOException e) {
+            cli.error("Could not read checkpoint file '" + checkpointFile + "'");
+            throw e;
+        }
+        String mismatch = checkpoint.findMismatch(parameters());
+        if (mismatch != null) {
+            cli.error("The checkpoint in '" + checkpointFile + "' was made with a different '" + mismatch + "'");
+            throw new IOException("Checkpoint parameter mismatch: " + mismatch);
+        }
+        startPosition = position = checkpoint.position;
+        checkedBefore = checked = checkpoint.checked;
+        matches = checkpoint.matches;
+        extrema.merge(checkpoint.extrema);
+        if (topK != null) {
+            for (MaskData m : checkpoint.top) topK.offer(m);
+            topThreshold = topK.threshold();
+        }
+        if (suppression != null) suppression.restore(checkpoint.decided, checkpoint.held);
+        if (order != null) order.restore(checkpoint.unordered);
+        logger.resume(resultsFile, checkpoint.outputLength);
+    }
+
+    /**
+     * @return the properties that determine the positions checked by the search and their order
+     */
+    private Map<String, String> parameters() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(SEED, String.valueOf(pMask.getLong(SEED)));
+        parameters.put(ALGORITHM, String.valueOf(SlimeAlgorithm.get(pMask)));
+        parameters.put(DESPAWN, String.valueOf(pMask.getBoolean(DESPAWN)));
+        parameters.put(EXCLUSION, String.valueOf(pMask.getBoolean(EXCLUSION)));
+        parameters.put(OFFSET, String.valueOf(pMask.getInt(OFFSET)));
+        parameters.put(WEIGHT, String.valueOf(pMask.getInt(WEIGHT)));
+        parameters.put(CENTER_POS, String.valueOf(centerPos));
+        parameters.put(MIN_WIDTH, String.valueOf(pSearch.getInt(MIN_WIDTH)));
+        parameters.put(MAX_WIDTH, String.valueOf(pSearch.getInt(MAX_WIDTH)));
+        parameters.put(FINE_SEARCH, String.valueOf(fineSearch));
+        parameters.put(MIN_BLOCK_SZ, String.valueOf(minBlockSize));
+        parameters.put(MAX_BLOCK_SZ, String.valueOf(maxBlockSize));
+        parameters.put(MIN_CHUNK_SZ, String.valueOf(minChunkSize));
+        parameters.put(MAX_CHUNK_SZ, String.valueOf(maxChunkSize));
+        parameters.put("tiled", String.valueOf(threads > 0));
+        if (threads > 0) parameters.put("tile-order", "path");
+        parameters.put(BAND_SEARCH, String.valueOf(bandSearch));
+        parameters.put(TOP_K, String.valueOf(topK == null ? 0 : topK.capacity()));
+        parameters.put(SUPPRESSION_RADIUS, String.valueOf(suppression == null ? 0 : pSearch.getInt(SUPPRESSION_RADIUS)));
+        if (topK != null || suppression != null) {
+            parameters.put(SCORE_BLOCK_WEIGHT, String.valueOf(weight(pSearch.getInt(SCORE_BLOCK_WEIGHT), 1)));
+            parameters.put(SCORE_CHUNK_WEIGHT, String.valueOf(weight(pSearch.getInt(SCORE_CHUNK_WEIGHT), 0)));
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the given weight limited to the range accepted by {@link TopK} or the default if not set
+     */
+    private static int weight(Integer weight, int defaultWeight) {
+        return weight == null ? defaultWeight : Math.max(0, Math.min(TopK.MAX_WEIGHT, weight));
+    }
+
+    /**
+     * Saves a checkpoint if checkpoints are enabled and enough time has passed since the previous one.
+     */
+    private void checkpointIfDue() throws IOException {
+        if (checkpointInterval <= 0) return;
+        long now = System.nanoTime();
+        if (now - lastCheckpoint < checkpointInterval) return;
+        saveCheckpoint();
+        lastCheckpoint = now;
+    }
 
-        logger.start(resultsFile, append);
+    private synchronized void saveCheckpoint() throws IOException {
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.position = position;
+        checkpoint.checked = checked;
+        checkpoint.matches = matches;
+        checkpoint.extrema = extrema;
+        if (topK != null) checkpoint.top.addAll(topK.toList());
+        if (suppression != null) {
+            checkpoint.decided.addAll(suppression.getReleased());
+            checkpoint.held.addAll(suppression.getPending());
+        }
+        if (order != null) checkpoint.unordered.addAll(order.getHeld());
+        checkpoint.parameters.putAll(parameters());
+        checkpoint.outputLength = logger.checkpoint();
+        try {
+            checkpoint.save(checkpointFile);
+        } catch (IOException e) {
+            cli.error("Could not save checkpoint file '" + checkpointFile + "'");
+            throw e;
+        }
     }
 
     /**
@@ -61,50 +274,200 @@ public class SearchTask extends TrackableTask {
     @Override
     public void run() {
         setStartTime();
-        matches = 0;
+        lastCheckpoint = System.nanoTime();
         try {
-            search();
+            driver.search(startPosition);
+            if (order != null) order.flush(this::record);
+            if (suppression != null) suppression.flush(this::emit);
             isFinished = true;
-        } catch (IOException | InterruptedException e) {
+            writeTop();
+            if (checkpointInterval > 0) checkpointFile.delete();
+        } catch (InterruptedException e) {
+            try {
+                if (checkpointInterval > 0) saveCheckpoint();
+                if (order != null) order.flush(this::record);
+                if (suppression != null) suppression.flush(this::emit);
+                writeTop();
+            } catch (IOException ex) {
+            }
+        } catch (IOException e) {
         } finally {
             logger.close();
             stop();
         }
     }
 
-    private void search() throws IOException, InterruptedException {
-        if (fineSearch) {
-            for (int inX = 0; inX < 16; inX++) {
-                for (int inZ = 0; inZ < 16; inZ++) {
-                    chunkSearch(inX, inZ);
-                }
-            }
+    /**
+     * Records the mask in the given extrema. The block size of the mask is computed only if the
+     * bounds that its chunk size gives for the block size leave open whether the mask is a candidate
+     * or replaces a block size extremum, so in a search by chunk size it is computed only for a few
+     * positions.
+     *
+     * @return true if the mask is a candidate with the given threshold
+     */
+    boolean score(Mask mask, Extrema e, long threshold) {
+        int chunkSize = mask.chunkSize;
+        int minBlock = mask.minBlockSize(), maxBlock = mask.maxBlockSize();
+        boolean candidate =
+            (chunkSize >= minChunkSize && chunkSize <= maxChunkSize || maxBlock >= minBlockSize && minBlock <= maxBlockSize) &&
+            (topK == null || topK.score(maxBlock, chunkSize) >= threshold);
+        if (!candidate && !e.isEmpty() && maxBlock <= e.getMaxBlock().blockSize && minBlock >= e.getMinBlock().blockSize) {
+            e.updateChunkSize(mask);
+            return false;
+        }
+        mask.updateBlockSize();
+        e.update(mask);
+        return isCandidate(chunkSize, mask.blockSize, threshold);
+    }
+
+    /**
+     * Passes a match found by the driver to the non-maximum suppression or, if it is disabled, to
+     * {@link #emit}.
+     */
+    void record(MaskData m) throws IOException {
+        if (suppression != null) {
+            suppression.offer(m);
         } else {
-            chunkSearch(centerPos.in.x, centerPos.in.z);
+            emit(m);
         }
     }
 
     /**
-     * Searches only one block position in each chunk. Never moves the mask
-     * within the chunk.
+     * Logs a match, or adds it to the best matches in a top-K search.
      */
-    private void chunkSearch(int inX, int inZ) throws IOException, InterruptedException {
-        while (path.step()) {
-            if (m == null) {
-                m = new Mask(pMask, path.getPoint().x, path.getPoint().z, inX, inZ);
-                initializeMasks(inX, inZ);
-            } else {
-                m.moveToChunk(path.getPoint().x, path.getPoint().z);
-                ExtremumData[] extrema = {maxBlock, maxChunk, minBlock, minChunk};
-                for (ExtremumData extremum : extrema) if (extremum.needsUpdate(m)) extremum.collectData(m);
-            }
-            if (matchesSearchCriteria(m.chunkSize, m.blockSize)) {
+    private void emit(MaskData m) throws IOException {
+        if (topK == null) {
+            logger.write(m);
+            synchronized (this) {
                 ++matches;
-                logger.write(m);
             }
-            if (isInterrupted) throw new InterruptedException();
+        } else if (topK.offer(m)) {
+            topThreshold = topK.threshold();
+            synchronized (this) {
+                matches = topK.size();
+            }
+        }
+    }
+
+    /**
+     * Logs the best matches of a top-K search from the best to the worst.
+     */
+    private void writeTop() throws IOException {
+        if (topK == null) return;
+        for (MaskData match : topK.toList()) {
+            logger.write(match);
+        }
+    }
+
+    /**
+     * Records the matches of a searched tile or row and its extrema and advances the search past it.
+     */
+    void collect(TileResult result, long position, long progress) throws IOException, InterruptedException {
+        if (order != null) {
+            order.add(result);
+        } else {
+            recordMatches(result);
         }
-        ++progress;
+        synchronized (this) {
+            extrema.merge(result.extrema);
+        }
+        advance(position, progress, result.checked);
+    }
+
+    /**
+     * Advances the search after the driver has searched a part of the area, deciding the matches
+     * held back whose neighborhoods have been searched and saving a checkpoint if one is due.
+     *
+     * @param position - the number of chunks of the path, tiles or rows searched, which a resumed
+     * search starts from
+     * @param progress - the progress of the search in the units of the frontier of the driver
+     * @param checked - the number of positions checked since the previous call
+     * @throws InterruptedException if the task has been interrupted
+     */
+    void advance(long position, long progress, long checked) throws IOException, InterruptedException {
+        synchronized (this) {
+            this.position = position;
+            this.checked += checked;
+        }
+        if (order != null) order.release(progress, this::record);
+        if (suppression != null) suppression.advance(progress, this::emit);
+        if (isInterrupted) throw new InterruptedException();
+        checkpointIfDue();
+    }
+
+    /**
+     * @return true if the task has been interrupted
+     */
+    boolean interrupted() {
+        return isInterrupted;
+    }
+
+    /**
+     * Records the matches of the result and removes them from it.
+     */
+    void recordMatches(TileResult result) throws IOException {
+        MaskData match = new MaskData();
+        for (int i = 0; i < result.size(); i++) {
+            result.get(i, match);
+            record(match);
+        }
+        result.clearMatches();
+    }
+
+    /**
+     * Sets the number of matches that are kept in memory before they are recorded, see
+     * {@link #MAX_BUFFERED_MATCHES}.
+     */
+    void setMaxBufferedMatches(int maxBufferedMatches) {
+        this.maxBufferedMatches = maxBufferedMatches;
+    }
+
+    /**
+     * @return the given mask moved to the given position or a new mask at the position if the given
+     * mask is null. The block sizes of the masks are computed only when needed, see {@link #score}.
+     */
+    Mask moveMask(Mask mask, int chunkX, int chunkZ, int inX, int inZ) {
+        if (mask == null) {
+            mask = new Mask(pMask, chunkX, chunkZ, inX, inZ);
+            mask.setLazyBlockSize(true);
+            return mask;
+        }
+        mask.moveTo(chunkX, chunkZ, inX, inZ);
+        return mask;
+    }
+
+    /**
+     * @return true if none of the positions within a chunk with the given bounds can match the
+     * search criteria, or enter the best matches with the given threshold in a top-K search, or
+     * replace any of the given extrema
+     */
+    boolean canSkip(MaskBounds b, Extrema e, long threshold) {
+        if (e.isEmpty()) return false;
+        boolean chunkSizeCriteria = b.maxChunkSize >= minChunkSize && b.minChunkSize <= maxChunkSize;
+        boolean blockSizeCriteria = b.maxBlockSize >= minBlockSize && b.minBlockSize <= maxBlockSize;
+        boolean topCriteria = topK == null || topK.score(b.maxBlockSize, b.maxChunkSize) >= threshold;
+        if ((chunkSizeCriteria || blockSizeCriteria) && topCriteria) return false;
+        return
+            b.maxBlockSize <= e.getMaxBlock().blockSize && b.minBlockSize >= e.getMinBlock().blockSize &&
+            b.maxChunkSize <= e.getMaxChunk().chunkSize && b.minChunkSize >= e.getMinChunk().chunkSize;
+    }
+
+    /**
+     * @return true if a mask with the given number of slime chunks in its neighborhood may match the
+     * search criteria and, in a top-K search, enter the best matches with the given threshold
+     */
+    boolean canMatchWithSlimeChunks(int slimeChunks, long threshold) {
+        boolean chunkSizeCriteria = minChunkSize <= maxChunkSize && maxChunkSize >= 0 && minChunkSize <= slimeChunks;
+        boolean blockSizeCriteria = minBlockSize <= maxBlockSize && maxBlockSize >= 0 && minBlockSize <= 256 * slimeChunks;
+        boolean topCriteria = topK == null || topK.score(256 * slimeChunks, slimeChunks) >= threshold;
+        return (chunkSizeCriteria || blockSizeCriteria) && topCriteria;
+    }
+
+    /**
+     * @return true if some block size is within the block size range of the search criteria
+     */
+    boolean blockSizeCanMatch() {
+        return minBlockSize <= maxBlockSize && maxBlockSize >= 0;
     }
 
     /**
@@ -115,51 +478,45 @@ public class SearchTask extends TrackableTask {
      * properties.
      */
     private boolean matchesSearchCriteria(int chunkSize, int blockSize) {
-        boolean chunkSizeCriteria = chunkSize >= minChunkSize && chunkSize <= maxChunkSize;
-        boolean blockSizeCriteria = blockSize >= minBlockSize && blockSize <= maxBlockSize;
-        return chunkSizeCriteria || blockSizeCriteria;
-    }
-
-    private void initializeMasks(int inX, int inZ) {
-        maxBlock = new ExtremumData(m) {
-            @Override
-            public boolean needsUpdate(AbstractMask mask) { return this.blockSize < mask.blockSize; }
-        };
-        minBlock = new ExtremumData(m) {
-            @Override
-            public boolean needsUpdate(AbstractMask mask) { return this.blockSize > mask.blockSize; }
-        };
-        maxChunk = new ExtremumData(m) {
-            @Override
-            public boolean needsUpdate(AbstractMask mask) { return this.chunkSize < mask.chunkSize; }
-        };
-        minChunk = new ExtremumData(m) {
-            @Override
-            public boolean needsUpdate(AbstractMask mask) { return this.chunkSize > mask.chunkSize; }
-        };
+        return chunkSizeMatches(chunkSize) || blockSize >= minBlockSize && blockSize <= maxBlockSize;
+    }
+
+    /**
+     * @return true if the given chunk size is within the chunk size range of the search criteria
+     */
+    boolean chunkSizeMatches(int chunkSize) {
+        return chunkSize >= minChunkSize && chunkSize <= maxChunkSize;
+    }
+
+    /**
+     * @return true if a mask with the given chunk and block sizes matches the search criteria and, in a
+     * top-K search, has a score of at least the given threshold
+     */
+    boolean isCandidate(int chunkSize, int blockSize, long threshold) {
+        return matchesSearchCriteria(chunkSize, blockSize) && (topK == null || topK.score(blockSize, chunkSize) >= threshold);
     }
 
     public synchronized ExtremumData getMaxBlock() {
-        return maxBlock;
+        return extrema.getMaxBlock();
     }
 
     public synchronized ExtremumData getMinBlock() {
-        return minBlock;
+        return extrema.getMinBlock();
     }
 
     public synchronized ExtremumData getMaxChunk() {
-        return maxChunk;
+        return extrema.getMaxChunk();
     }
 
     public synchronized ExtremumData getMinChunk() {
-        return minChunk;
+        return extrema.getMinChunk();
     }
 
     /**
      * @return total number of positions searched so far.
      */
     public synchronized long positionsChecked() {
-        return path.getProgress() + this.progress * path.getPathLength();
+        return checked;
     }
 
     /**
@@ -183,11 +540,33 @@ public class SearchTask extends TrackableTask {
      * Saving results in file: 'results.csv'
      */
     public String startInfo() {
-        return
-            "Searching mask positions with criteria: " +
-            minBlockSize + " <= blockSize <= " + maxBlockSize + " or " +
-            minChunkSize + " <= chunkSize <= " + maxChunkSize + LN +
-            "Saving results to file: '" + resultsFile + "'";
+        StringBuilder info = new StringBuilder()
+            .append("Searching mask positions with criteria: ")
+            .append(minBlockSize).append(" <= blockSize <= ").append(maxBlockSize).append(" or ")
+            .append(minChunkSize).append(" <= chunkSize <= ").append(maxChunkSize).append(LN)
+            .append("Saving results to file: '").append(resultsFile).append("'");
+        if (topK != null) {
+            info.append(LN).append("Keeping the ").append(topK.capacity()).append(" best matches by ")
+                .append(topK.getBlockWeight()).append(" * blockSize + ").append(topK.getChunkWeight()).append(" * chunkSize");
+        }
+        if (suppression != null) {
+            info.append(LN).append("Keeping only the best match within ").append(pSearch.getInt(SUPPRESSION_RADIUS)).append(" chunks");
+        }
+        if (driver.describe() != null) {
+            info.append(LN).append(driver.describe());
+        }
+        SlimeAlgorithm algorithm = SlimeAlgorithm.get(pMask);
+        if (algorithm == SlimeAlgorithm.BEDROCK) {
+            info.append(LN).append("Using Bedrock Edition slime chunks");
+        }
+        if (SlimeSources.atlas(pMask) != null) {
+            info.append(LN).append("Reading slime chunks from atlas: '")
+                .append(SlimeAtlas.file(pMask.getString(ATLAS), pMask.getLong(SEED), algorithm)).append("'");
+        }
+        if (SlimeSources.get(pMask) instanceof SlimeTileCache) {
+            info.append(LN).append("Caching slime chunks in ").append(pMask.getInt(CACHE)).append(" MB of memory");
+        }
+        return info.toString();
     }
 
     /**
@@ -198,12 +577,14 @@ public class SearchTask extends TrackableTask {
         long total = positionsTotal();
         long time = getDuration();
         float progress = (float) checked / total;
+        float rate = (float) (checked - checkedBefore) / time;
         return
             "[ " + String.format("%1$5.1f", progress * 100) + "% ]  " +
             matches() + " matches, " +
+            (logger.getQueueDepth() > 0 ? logger.getQueueDepth() + " waiting to be written, " : "") +
             checked + " of " + total + " positions checked, " +
             timeFormat(time) + " elapsed, " +
-            timeFormat((long) (time / progress -  time)) + " remaining";
+            timeFormat((long) ((total - checked) / rate)) + " remaining";
     }
 
     /**
@@ -212,18 +593,26 @@ public class SearchTask extends TrackableTask {
      * largest  block size: 132/79000 at 252:12,-1599:3
      * smallest chunk size: 132/79000 at 252:12,-1599:3
      * largest  chunk size: 132/79000 at 252:12,-1599:3
+     *
+     * The sizes that were not computed for any position, for example because region pruning
+     * skipped every position, are left out.
      */
     public String endInfo() {
         if (positionsChecked() <= 0) return "";
-        return
-            getDuration() / positionsChecked() + " nanoseconds per position" + LN +
+        long checkedNow = positionsChecked() - checkedBefore;
+        ExtremumData minBlock = getMinBlock(), maxBlock = getMaxBlock();
+        ExtremumData minChunk = getMinChunk(), maxChunk = getMaxChunk();
+        String info = (checkedNow > 0 ? getDuration() / checkedNow : 0) + " nanoseconds per position";
+        if (minBlock != null) info += LN +
             "smallest block size: " + minBlock.blockSize + "/" + minBlock.blockSurfaceArea + " at " +
                 chunkPosFormat(minBlock.chunk, minBlock.in) + LN +
             "largest  block size: " + maxBlock.blockSize + "/" + maxBlock.blockSurfaceArea + " at " +
-                chunkPosFormat(maxBlock.chunk, maxBlock.in) + LN +
+                chunkPosFormat(maxBlock.chunk, maxBlock.in);
+        if (minChunk != null) info += LN +
             "smallest chunk size: " + minChunk.chunkSize + "/" + minChunk.chunkSurfaceArea + " at " +
                 chunkPosFormat(minChunk.chunk, minChunk.in) + LN +
             "largest  chunk size: " + maxChunk.chunkSize + "/" + maxChunk.chunkSurfaceArea + " at " +
                 chunkPosFormat(maxChunk.chunk, maxChunk.in);
+        return info;
     }
 }
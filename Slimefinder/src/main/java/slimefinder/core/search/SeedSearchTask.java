@@ -0,0 +1,410 @@
+package slimefinder.core.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import slimefinder.core.TrackableTask;
+import slimefinder.core.mask.ChunkSizeEngine;
+import slimefinder.core.mask.KernelConvolution;
+import slimefinder.core.mask.Mask;
+import slimefinder.core.mask.MaskData;
+import slimefinder.core.mask.MaskKernel;
+import slimefinder.core.slime.SlimeAlgorithm;
+import slimefinder.core.slime.SlimeBitmap;
+import slimefinder.io.CLI;
+import slimefinder.io.SeedLogger;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.io.properties.SeedProperties;
+import slimefinder.util.Point;
+import slimefinder.util.Position;
+
+import static slimefinder.io.properties.MaskProperties.*;
+import static slimefinder.io.properties.SeedProperties.*;
+import static slimefinder.util.FormatHelper.*;
+
+/**
+ * Searches a range of world seeds for the largest slime chunk clusters
+ * within a fixed square region. The masks are centered at every chunk of
+ * the region with the same within-chunk position as the center of the
+ * region, and a seed is written to the results if both the largest block
+ * size and the largest chunk size in the region reach the thresholds.
+ *
+ * The seeds are evaluated in batches of consecutive seeds on several
+ * threads. The sizes of the masks are computed with the same kernel
+ * convolutions as in a tiled search, so the kernels are built only once.
+ */
+public class SeedSearchTask extends TrackableTask {
+
+    /**
+     * Number of consecutive seeds evaluated by a thread at a time
+     */
+    public static final int BATCH_SIZE = 256;
+
+    /**
+     * The largest block and chunk sizes in the region of a world
+     */
+    static class SeedResult {
+
+        final long seed;
+        final MaskData maxBlock, maxChunk;
+
+        SeedResult(long seed, MaskData maxBlock, MaskData maxChunk) {
+            this.seed = seed;
+            this.maxBlock = maxBlock;
+            this.maxChunk = maxChunk;
+        }
+    }
+
+    /**
+     * The matching seeds of a batch and its seeds with the largest block and chunk sizes
+     */
+    private static class Batch {
+
+        final List<SeedResult> matches = new ArrayList<>();
+        SeedResult maxBlock, maxChunk;
+        long count;
+    }
+
+    private final MaskProperties pMask;
+    private final SeedLogger logger;
+    private final CLI cli;
+
+    private final long firstSeed, seedCount;
+    private final Position centerPos;
+    private final int radius, minBlockSize, minChunkSize, threads;
+    private final String resultsFile;
+
+    private final SlimeAlgorithm algorithm;
+    private final File checkpointFile;
+
+    /**
+     * Time between checkpoints in nanoseconds, 0 if checkpoints are disabled
+     */
+    private final long checkpointInterval;
+    private long lastCheckpoint;
+
+    private final MaskKernel kernel;
+    private final ChunkSizeEngine chunkSizeEngine;
+
+    /**
+     * Number of seeds completely evaluated. The search starts from startPosition which is
+     * non-zero when resuming a search.
+     */
+    private long position, startPosition;
+    private long matches;
+
+    /**
+     * The seeds with the largest block and chunk sizes evaluated since the task was started
+     */
+    private SeedResult maxBlock, maxChunk;
+
+    public SeedSearchTask(SeedProperties pSeeds, MaskProperties pMask, CLI cli) throws IOException {
+        this(pSeeds, pMask, new SeedLogger(cli), cli);
+    }
+
+    public SeedSearchTask(SeedProperties pSeeds, MaskProperties pMask, SeedLogger logger, CLI cli) throws IOException {
+        firstSeed = pSeeds.getLong(FIRST_SEED);
+        seedCount = Math.max(0, pSeeds.getLong(SEED_COUNT));
+        centerPos = pSeeds.getPosition(CENTER_POS);
+        radius = Math.max(0, pSeeds.getInt(RADIUS));
+        minBlockSize = pSeeds.getInt(MIN_BLOCK_SZ);
+        minChunkSize = pSeeds.getInt(MIN_CHUNK_SZ);
+        int t = pSeeds.getInt(THREADS);
+        threads = t > 0 ? t : Runtime.getRuntime().availableProcessors();
+        resultsFile = pSeeds.getString(RESULTS);
+        checkpointFile = new File(pSeeds.getString(CHECKPOINT_FILE));
+        checkpointInterval = Math.max(0, pSeeds.getInt(CHECKPOINT_INTERVAL)) * 1000000000L;
+
+        this.pMask = pMask;
+        algorithm = SlimeAlgorithm.get(pMask);
+        this.logger = logger;
+        this.cli = cli;
+        if (algorithm == SlimeAlgorithm.BEDROCK) {
+            cli.error("Bedrock Edition slime chunks are the same for every seed, so seeds cannot be searched with 'slime-algorithm=bedrock'");
+            throw new IOException("Seed search with slime-algorithm=bedrock");
+        }
+        kernel = new Mask(pMask, centerPos).getKernel();
+        chunkSizeEngine = new ChunkSizeEngine(kernel);
+
+        if (pSeeds.getBoolean(RESUME)) {
+            resume();
+        } else {
+            logger.start(resultsFile, pSeeds.getBoolean(APPEND));
+        }
+    }
+
+    /**
+     * Restores the position in the seed range from the checkpoint file and continues writing the
+     * results file from where it was when the checkpoint was made.
+     */
+    private void resume() throws IOException {
+        Checkpoint checkpoint;
+        try {
+            checkpoint = Checkpoint.load(checkpointFile);
+        } catch (IOException e) {
+            cli.error("Could not read checkpoint file '" + checkpointFile + "'");
+            throw e;
+        }
+        String mismatch = checkpoint.findMismatch(parameters());
+        if (mismatch != null) {
+            cli.error("The checkpoint in '" + checkpointFile + "' was made with a different '" + mismatch + "'");
+            throw new IOException("Checkpoint parameter mismatch: " + mismatch);
+        }
+        startPosition = position = checkpoint.position;
+        matches = checkpoint.matches;
+        logger.resume(resultsFile, checkpoint.outputLength);
+    }
+
+    /**
+     * @return the properties that determine the seeds checked and the results
+     */
+    private Map<String, String> parameters() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(ALGORITHM, String.valueOf(algorithm));
+        parameters.put(DESPAWN, String.valueOf(pMask.getBoolean(DESPAWN)));
+        parameters.put(EXCLUSION, String.valueOf(pMask.getBoolean(EXCLUSION)));
+        parameters.put(OFFSET, String.valueOf(pMask.getInt(OFFSET)));
+        parameters.put(WEIGHT, String.valueOf(pMask.getInt(WEIGHT)));
+        parameters.put(FIRST_SEED, String.valueOf(firstSeed));
+        parameters.put(SEED_COUNT, String.valueOf(seedCount));
+        parameters.put(CENTER_POS, String.valueOf(centerPos));
+        parameters.put(RADIUS, String.valueOf(radius));
+        parameters.put(MIN_BLOCK_SZ, String.valueOf(minBlockSize));
+        parameters.put(MIN_CHUNK_SZ, String.valueOf(minChunkSize));
+        return parameters;
+    }
+
+    /**
+     * Saves a checkpoint if checkpoints are enabled and enough time has passed since the previous one.
+     */
+    private void checkpointIfDue() throws IOException {
+        if (checkpointInterval <= 0) return;
+        long now = System.nanoTime();
+        if (now - lastCheckpoint < checkpointInterval) return;
+        saveCheckpoint();
+        lastCheckpoint = now;
+    }
+
+    private synchronized void saveCheckpoint() throws IOException {
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.position = position;
+        checkpoint.checked = position;
+        checkpoint.matches = matches;
+        checkpoint.parameters.putAll(parameters());
+        checkpoint.outputLength = logger.checkpoint();
+        try {
+            checkpoint.save(checkpointFile);
+        } catch (IOException e) {
+            cli.error("Could not save checkpoint file '" + checkpointFile + "'");
+            throw e;
+        }
+    }
+
+    /**
+     * Evaluates the seeds in batches on a pool of threads. The results of the batches are
+     * written in the order of the seeds, so the output does not depend on the number of threads.
+     */
+    @Override
+    public void run() {
+        setStartTime();
+        lastCheckpoint = System.nanoTime();
+        Deque<ForkJoinTask<Batch>> pending = new ArrayDeque<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long next = position;
+            while (true) {
+                while (pending.size() < 4 * threads && next < seedCount) {
+                    long start = next;
+                    int count = (int) Math.min(BATCH_SIZE, seedCount - start);
+                    pending.add(pool.submit(() -> evaluate(firstSeed + start, count)));
+                    next += count;
+                }
+                if (pending.isEmpty()) break;
+                Batch batch = pending.poll().join();
+                if (batch == null) throw new InterruptedException();
+                collect(batch);
+                if (isInterrupted) throw new InterruptedException();
+                checkpointIfDue();
+            }
+            isFinished = true;
+            if (checkpointInterval > 0) checkpointFile.delete();
+        } catch (InterruptedException e) {
+            try {
+                if (checkpointInterval > 0) saveCheckpoint();
+            } catch (IOException ex) {
+                cli.error("The interrupted seed search cannot be resumed as its checkpoint was not saved");
+            }
+        } catch (IOException e) {
+            cli.error("The seed search stopped after " + seedsChecked() + " seeds");
+        } finally {
+            pool.shutdownNow();
+            logger.close();
+            stop();
+        }
+    }
+
+    /**
+     * @return the results of count consecutive seeds starting from the given seed or null if the
+     * search was interrupted
+     */
+    private Batch evaluate(long seed, int count) {
+        Batch batch = new Batch();
+        for (int i = 0; i < count; i++) {
+            if (isInterrupted) return null;
+            SeedResult result = evaluate(seed + i);
+            if (batch.maxBlock == null || result.maxBlock.blockSize > batch.maxBlock.maxBlock.blockSize)
+                batch.maxBlock = result;
+            if (batch.maxChunk == null || result.maxChunk.chunkSize > batch.maxChunk.maxChunk.chunkSize)
+                batch.maxChunk = result;
+            if (result.maxBlock.blockSize >= minBlockSize && result.maxChunk.chunkSize >= minChunkSize)
+                batch.matches.add(result);
+        }
+        batch.count = count;
+        return batch;
+    }
+
+    /**
+     * @return the largest block and chunk sizes in the region of the world with the given seed,
+     * the first position on the rows of the region from north to south being chosen of equal sizes
+     */
+    SeedResult evaluate(long seed) {
+        int width = 2 * radius + 1;
+        int minX = centerPos.chunk.x - radius, minZ = centerPos.chunk.z - radius;
+        SlimeBitmap slimeChunks = SlimeDensity.area(algorithm.source(seed), new Tile(minX, minZ, minX + width - 1, minZ + width - 1));
+        int maxBlockIndex = 0, maxChunkIndex = 0;
+        int maxBlockSize = -1, maxChunkSize = -1, maxBlockChunks = 0, maxChunkBlocks = 0;
+        if (chunkSizeEngine.isFull()) {
+            int[] chunkSizes = chunkSizeEngine.chunkSizes(slimeChunks, minX, minZ, width, width);
+            for (int i = 0; i < chunkSizes.length; i++) {
+                if (chunkSizes[i] > maxChunkSize) {
+                    maxChunkSize = chunkSizes[i];
+                    maxChunkIndex = i;
+                }
+            }
+            maxBlockIndex = maxChunkIndex;
+            maxBlockSize = maxChunkBlocks = 256 * maxChunkSize;
+            maxBlockChunks = maxChunkSize;
+        } else {
+            int[] sizes = KernelConvolution.convolve(kernel, slimeChunks, minX, minZ, width, width);
+            for (int i = 0; i < sizes.length; i++) {
+                int blockSize = KernelConvolution.blockSize(sizes[i]), chunkSize = KernelConvolution.chunkSize(sizes[i]);
+                if (blockSize > maxBlockSize) {
+                    maxBlockSize = blockSize;
+                    maxBlockChunks = chunkSize;
+                    maxBlockIndex = i;
+                }
+                if (chunkSize > maxChunkSize) {
+                    maxChunkSize = chunkSize;
+                    maxChunkBlocks = blockSize;
+                    maxChunkIndex = i;
+                }
+            }
+        }
+        return new SeedResult(
+            seed,
+            maskData(minX + maxBlockIndex % width, minZ + maxBlockIndex / width, maxBlockSize, maxBlockChunks),
+            maskData(minX + maxChunkIndex % width, minZ + maxChunkIndex / width, maxChunkBlocks, maxChunkSize)
+        );
+    }
+
+    private MaskData maskData(int chunkX, int chunkZ, int blockSize, int chunkSize) {
+        MaskData data = new MaskData();
+        data.chunk = new Point(chunkX, chunkZ);
+        data.in = new Point(centerPos.in);
+        data.blockSize = blockSize;
+        data.chunkSize = chunkSize;
+        data.blockSurfaceArea = kernel.blockSurfaceArea;
+        data.chunkSurfaceArea = kernel.chunkSurfaceArea;
+        return data;
+    }
+
+    /**
+     * Writes the matching seeds of an evaluated batch and records its largest sizes.
+     */
+    private void collect(Batch batch) throws IOException {
+        for (SeedResult result : batch.matches) {
+            logger.write(result.seed, result.maxBlock, result.maxChunk);
+        }
+        synchronized (this) {
+            if (maxBlock == null || batch.maxBlock.maxBlock.blockSize > maxBlock.maxBlock.blockSize)
+                maxBlock = batch.maxBlock;
+            if (maxChunk == null || batch.maxChunk.maxChunk.chunkSize > maxChunk.maxChunk.chunkSize)
+                maxChunk = batch.maxChunk;
+            matches += batch.matches.size();
+            position += batch.count;
+        }
+    }
+
+    /**
+     * @return number of seeds evaluated so far
+     */
+    public synchronized long seedsChecked() {
+        return position;
+    }
+
+    /**
+     * @return number of seeds written to the results so far
+     */
+    public synchronized long matches() {
+        return matches;
+    }
+
+    /**
+     * Searching seeds 0 ... 999999 for slime chunk clusters within 8 chunks of 0:0,0:0
+     * Criteria: blockSize >= 0 and chunkSize >= 50
+     * Saving results to file: 'seeds.csv'
+     * Using 8 threads
+     */
+    @Override
+    public String startInfo() {
+        return
+            "Searching seeds " + firstSeed + " ... " + (firstSeed + seedCount - 1) +
+                " for slime chunk clusters within " + radius + " chunks of " + chunkPosFormat(centerPos.chunk, centerPos.in) + LN +
+            "Criteria: blockSize >= " + minBlockSize + " and chunkSize >= " + minChunkSize + LN +
+            "Saving results to file: '" + resultsFile + "'" + LN +
+            "Using " + threads + " threads";
+    }
+
+    /**
+     * [  82.1% ]  2 matches, 820000 of 1000000 seeds checked, 91234 seeds/s, 00:00:09 elapsed, 00:00:02 remaining
+     */
+    @Override
+    public synchronized String progressInfo() {
+        long checked = seedsChecked();
+        long time = getDuration();
+        float progress = seedCount > 0 ? (float) checked / seedCount : 1;
+        float rate = (float) (checked - startPosition) / time;
+        return
+            "[ " + String.format("%1$5.1f", progress * 100) + "% ]  " +
+            matches() + " matches, " +
+            checked + " of " + seedCount + " seeds checked, " +
+            String.format("%.0f", rate * 1e9) + " seeds/s, " +
+            timeFormat(time) + " elapsed, " +
+            timeFormat((long) ((seedCount - checked) / rate)) + " remaining";
+    }
+
+    /**
+     * 10960 nanoseconds per seed
+     * largest block size: 49640/49640 at 252:12,-1599:3 in seed 123
+     * largest chunk size: 222/222 at 252:12,-1599:3 in seed 123
+     */
+    @Override
+    public synchronized String endInfo() {
+        long checkedNow = seedsChecked() - startPosition;
+        if (checkedNow <= 0) return "";
+        return
+            getDuration() / checkedNow + " nanoseconds per seed" + LN +
+            "largest block size: " + maxBlock.maxBlock.blockSize + "/" + maxBlock.maxBlock.blockSurfaceArea + " at " +
+                chunkPosFormat(maxBlock.maxBlock.chunk, maxBlock.maxBlock.in) + " in seed " + maxBlock.seed + LN +
+            "largest chunk size: " + maxChunk.maxChunk.chunkSize + "/" + maxChunk.maxChunk.chunkSurfaceArea + " at " +
+                chunkPosFormat(maxChunk.maxChunk.chunk, maxChunk.maxChunk.in) + " in seed " + maxChunk.seed;
+    }
+}
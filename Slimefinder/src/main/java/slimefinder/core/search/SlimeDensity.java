@@ -0,0 +1,119 @@
+package slimefinder.core.search;
+
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+import slimefinder.core.slime.OracleSlimeChunks;
+import slimefinder.core.slime.SlimeBitmap;
+import slimefinder.core.slime.SlimeChunkSource;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+
+/**
+ * The slime chunks of a tile and of the chunks around it that are within
+ * the neighborhoods of masks centered in the tile. The slime chunks are
+ * stored as a summed-area table, so the number of slime chunks in any
+ * rectangle of the area is found in constant time.
+ *
+ * The table is used to find the positions of the tile whose neighborhoods
+ * may contain enough slime chunks. The tile is divided into squares of
+ * 2^k x 2^k positions which are divided further only if the union of the
+ * neighborhoods of the positions in the square contains enough slime
+ * chunks. The number of slime chunks in the neighborhood of a position is
+ * an upper bound for the chunk size of a mask at the position and 256
+ * times that number is an upper bound for the block size.
+ */
+class SlimeDensity {
+
+    private final Tile tile;
+    private final int minX, minZ, width, height;
+
+    /**
+     * sums[(z - minZ) * (width + 1) + (x - minX)] is the number of slime chunks in the rectangle
+     * of the area with coordinates smaller than x and z
+     */
+    private final int[] sums;
+
+    /**
+     * @param slimeChunks - the slime chunks of the tile and of the R_CHUNK chunks around it, see
+     * {@link #area(SlimeChunkSource, Tile)}
+     */
+    SlimeDensity(SlimeBitmap slimeChunks, Tile tile) {
+        this.tile = tile;
+        minX = slimeChunks.minX;
+        minZ = slimeChunks.minZ;
+        width = slimeChunks.width;
+        height = slimeChunks.height;
+        sums = new int[(width + 1) * (height + 1)];
+        for (int z = 0; z < height; z++) {
+            int row = 0;
+            for (int x = 0; x < width; x++) {
+                if ((slimeChunks.word(z, x >>> 6) >>> x & 1) != 0) ++row;
+                sums[(z + 1) * (width + 1) + x + 1] = sums[z * (width + 1) + x + 1] + row;
+            }
+        }
+    }
+
+    /**
+     * @return the slime chunks within the neighborhoods of the masks centered in the tile
+     */
+    static SlimeBitmap area(long seed, Tile tile) {
+        return area(new OracleSlimeChunks(seed), tile);
+    }
+
+    /**
+     * @return the slime chunks within the neighborhoods of the masks centered in the tile
+     */
+    static SlimeBitmap area(SlimeChunkSource source, Tile tile) {
+        return new SlimeBitmap(
+            source,
+            tile.minX - R_CHUNK,
+            tile.minZ - R_CHUNK,
+            tile.maxX - tile.minX + 1 + 2 * R_CHUNK,
+            tile.maxZ - tile.minZ + 1 + 2 * R_CHUNK
+        );
+    }
+
+    /**
+     * @return the number of slime chunks in the rectangle with the given inclusive bounds clipped to the area
+     */
+    int count(int x0, int z0, int x1, int z1) {
+        x0 = Math.max(x0 - minX, 0);
+        z0 = Math.max(z0 - minZ, 0);
+        x1 = Math.min(x1 - minX + 1, width);
+        z1 = Math.min(z1 - minZ + 1, height);
+        if (x0 >= x1 || z0 >= z1) return 0;
+        return sums[z1 * (width + 1) + x1] - sums[z0 * (width + 1) + x1]
+            - sums[z1 * (width + 1) + x0] + sums[z0 * (width + 1) + x0];
+    }
+
+    /**
+     * Finds the positions of the tile that may match.
+     *
+     * @param enough - tells if a number of slime chunks in a neighborhood is enough for a match
+     * @return the candidate positions as bits (z - tile.minZ) * tileWidth + (x - tile.minX)
+     * where tileWidth = tile.maxX - tile.minX + 1
+     */
+    BitSet candidates(IntPredicate enough) {
+        BitSet candidates = new BitSet();
+        int size = Integer.highestOneBit(Math.max(tile.maxX - tile.minX, tile.maxZ - tile.minZ) * 2 + 1);
+        descend(tile.minX, tile.minZ, size, enough, candidates);
+        return candidates;
+    }
+
+    private void descend(int x0, int z0, int size, IntPredicate enough, BitSet candidates) {
+        if (x0 > tile.maxX || z0 > tile.maxZ) return;
+        int x1 = Math.min(x0 + size - 1, tile.maxX);
+        int z1 = Math.min(z0 + size - 1, tile.maxZ);
+        if (!enough.test(count(x0 - R_CHUNK, z0 - R_CHUNK, x1 + R_CHUNK, z1 + R_CHUNK))) return;
+        if (size == 1) {
+            candidates.set((z0 - tile.minZ) * (tile.maxX - tile.minX + 1) + x0 - tile.minX);
+            return;
+        }
+        int half = size / 2;
+        descend(x0, z0, half, enough, candidates);
+        descend(x0 + half, z0, half, enough, candidates);
+        descend(x0, z0 + half, half, enough, candidates);
+        descend(x0 + half, z0 + half, half, enough, candidates);
+    }
+}
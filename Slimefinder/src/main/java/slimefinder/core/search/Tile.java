@@ -0,0 +1,105 @@
+package slimefinder.core.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import slimefinder.util.Point;
+
+/**
+ * A rectangular part of the search area that can be searched independently
+ * of the rest of the area. The bounds are inclusive chunk coordinates.
+ */
+public class Tile {
+
+    public final int minX, minZ, maxX, maxZ;
+
+    public Tile(int minX, int minZ, int maxX, int maxZ) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Splits the search area of the path into square tiles of the given width. The tiles are listed
+     * row by row starting from the corner with the smallest coordinates. Tiles that contain no
+     * positions of the path are left out.
+     *
+     * @param path
+     * @param width - width of the tiles in chunks
+     * @return list of tiles covering the search area of the path
+     */
+    public static List<Tile> split(SearchPath path, int width) {
+        List<Tile> tiles = new ArrayList<>();
+        if (path.getPathLength() <= 0) return tiles;
+        Point min = path.getMinCorner();
+        Point max = path.getMaxCorner();
+        for (long z = min.z; z <= max.z; z += width) {
+            for (long x = min.x; x <= max.x; x += width) {
+                Tile tile = new Tile(
+                    (int) x,
+                    (int) z,
+                    (int) Math.min(x + width - 1, max.x),
+                    (int) Math.min(z + width - 1, max.z)
+                );
+                if (tile.intersects(path)) tiles.add(tile);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * @return the smallest index on the given path of the chunks of this tile or -1 if none of them
+     * are on the path. Consecutive chunks of the path are neighbors, so only the chunks on the edges
+     * of the tile and the first chunk of the path can be the first chunk of the tile on the path.
+     */
+    public long firstIndex(SearchPath path) {
+        if (path.getPathLength() <= 0) return -1;
+        Point start = path.pointAt(0);
+        if (start.x >= minX && start.x <= maxX && start.z >= minZ && start.z <= maxZ) return 0;
+        long first = -1;
+        for (int x = minX; x <= maxX; x++) {
+            first = first(first, path.indexOf(new Point(x, minZ)));
+            first = first(first, path.indexOf(new Point(x, maxZ)));
+        }
+        for (int z = minZ; z <= maxZ; z++) {
+            first = first(first, path.indexOf(new Point(minX, z)));
+            first = first(first, path.indexOf(new Point(maxX, z)));
+        }
+        return first;
+    }
+
+    /**
+     * @return the smaller of the given indices, ignoring an index of -1
+     */
+    private static long first(long index, long other) {
+        if (index < 0) return other;
+        return other < 0 ? index : Math.min(index, other);
+    }
+
+    /**
+     * @return true if any of the corners or edges of this tile are on the path. As the search area
+     * is a square annulus a tile without such positions is inside the skipped middle square.
+     */
+    private boolean intersects(SearchPath path) {
+        for (int x = minX; x <= maxX; x++) {
+            if (path.contains(x, minZ) || path.contains(x, maxZ)) return true;
+        }
+        for (int z = minZ; z <= maxZ; z++) {
+            if (path.contains(minX, z) || path.contains(maxX, z)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of chunks in this tile
+     */
+    public long size() {
+        return ((long) maxX - minX + 1) * ((long) maxZ - minZ + 1);
+    }
+
+    @Override
+    public String toString() {
+        return minX + "," + minZ + " to " + maxX + "," + maxZ;
+    }
+}
@@ -0,0 +1,90 @@
+package slimefinder.core.search;
+
+import java.util.Arrays;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+/**
+ * The matches and extrema found when searching a single tile. The matches
+ * are packed into an array of ints, which takes a fraction of the memory
+ * of a copy of the mask data of each match.
+ */
+class TileResult {
+
+    /**
+     * chunkX, chunkZ, inX | inZ << 8 or -1 if the match covers the whole chunk, blockSize,
+     * chunkSize, blockSurfaceArea, chunkSurfaceArea
+     */
+    static final int RECORD_SIZE = 7;
+
+    private int[] matches = new int[16 * RECORD_SIZE];
+    private int size;
+
+    final Extrema extrema = new Extrema();
+    long checked;
+
+    /**
+     * Records a searched position.
+     *
+     * @param m - the mask at the position
+     * @param match - true if the position matches the search criteria
+     */
+    void add(MaskData m, boolean match) {
+        extrema.update(m);
+        ++checked;
+        if (match) put(m);
+    }
+
+    /**
+     * Records a searched position that has already been recorded in the extrema.
+     */
+    void addChecked(MaskData m, boolean match) {
+        ++checked;
+        if (match) put(m);
+    }
+
+    private void put(MaskData m) {
+        int i = size * RECORD_SIZE;
+        if (i == matches.length) matches = Arrays.copyOf(matches, 2 * matches.length);
+        matches[i] = m.chunk.x;
+        matches[i + 1] = m.chunk.z;
+        matches[i + 2] = m.in == null ? -1 : m.in.x | m.in.z << 8;
+        matches[i + 3] = m.blockSize;
+        matches[i + 4] = m.chunkSize;
+        matches[i + 5] = m.blockSurfaceArea;
+        matches[i + 6] = m.chunkSurfaceArea;
+        ++size;
+    }
+
+    /**
+     * @return the number of matches in the result
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Reads the match with the given index into the given mask data reusing its points when possible.
+     */
+    void get(int index, MaskData m) {
+        int i = index * RECORD_SIZE;
+        if (m.chunk == null) m.chunk = new Point(matches[i], matches[i + 1]);
+        else m.chunk.setPoint(matches[i], matches[i + 1]);
+        int in = matches[i + 2];
+        if (in < 0) m.in = null;
+        else if (m.in == null) m.in = new Point(in & 0xFF, in >> 8);
+        else m.in.setPoint(in & 0xFF, in >> 8);
+        m.blockSize = matches[i + 3];
+        m.chunkSize = matches[i + 4];
+        m.blockSurfaceArea = matches[i + 5];
+        m.chunkSurfaceArea = matches[i + 6];
+    }
+
+    /**
+     * Removes the matches from the result keeping the extrema and the number of positions checked.
+     */
+    void clearMatches() {
+        size = 0;
+    }
+}
@@ -0,0 +1,139 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+import slimefinder.core.mask.ChunkSizeEngine;
+import slimefinder.core.mask.KernelConvolution;
+import slimefinder.core.mask.Mask;
+import slimefinder.core.mask.MaskBounds;
+import slimefinder.core.mask.MaskData;
+import slimefinder.core.mask.MaskKernel;
+import slimefinder.core.slime.SlimeBitmap;
+import slimefinder.util.Point;
+
+/**
+ * Searches the search area in rectangular tiles whose slime chunks are
+ * computed at once, obtaining the sizes of the masks at every position of a
+ * tile by convolution.
+ */
+abstract class TileSearch implements SearchDriver {
+
+    protected final SearchTask task;
+
+    /**
+     * Chunk weights of the mask at the within-chunk position of the center
+     */
+    private MaskKernel centerKernel;
+    private ChunkSizeEngine chunkSizeEngine;
+
+    /**
+     * The mask and bounds of each thread searching tiles
+     */
+    private final ThreadLocal<Mask> masks = new ThreadLocal<>();
+    private final ThreadLocal<MaskBounds> bounds;
+
+    TileSearch(SearchTask task) {
+        this.task = task;
+        bounds = ThreadLocal.withInitial(() -> new MaskBounds(task.pMask));
+    }
+
+    /**
+     * Computes the kernel of the mask at the within-chunk position of the center.
+     */
+    protected void initKernels() {
+        centerKernel = new Mask(task.pMask, task.centerPos).getKernel();
+        chunkSizeEngine = new ChunkSizeEngine(centerKernel);
+    }
+
+    /**
+     * Searches the positions of the path within the tile. The slime chunks of the tile are given
+     * by the caller and the sizes of the masks at every position of the tile are obtained by a
+     * {@link KernelConvolution}. In a fine search the convolutions give the bounds of each chunk
+     * and the positions within the chunks that are not skipped are checked with a mask. With
+     * region pruning only the positions with enough slime chunks around them are evaluated.
+     * If the mask covers every block of its neighborhood, or if only the chunk size can match
+     * and region pruning is enabled, the chunk sizes are computed by a {@link ChunkSizeEngine}
+     * and the block sizes are derived from them or computed for the matches only.
+     *
+     * @param slimeChunks - the slime chunks of the tile and of the R_CHUNK chunks around it
+     * @param drain - whether the matches are recorded whenever maxBufferedMatches of them have been
+     * found instead of being returned, which the thread that records the matches can do
+     * @return the results of the tile or null if the search was interrupted before the last row of
+     * the tile was searched
+     */
+    protected TileResult searchTile(Tile tile, SlimeBitmap slimeChunks, boolean drain) throws IOException {
+        TileResult result = new TileResult();
+        Mask mask = masks.get();
+        MaskBounds b = bounds.get();
+        SearchPath path = task.path;
+        boolean fineSearch = task.fineSearch;
+        int tileWidth = tile.maxX - tile.minX + 1;
+        int tileHeight = tile.maxZ - tile.minZ + 1;
+        long threshold = task.topThreshold;
+        BitSet candidates = task.regionPruning ?
+            new SlimeDensity(slimeChunks, tile).candidates(n -> task.canMatchWithSlimeChunks(n, threshold)) : null;
+        int[] sizes = null, chunkSizes = null, ceilSizes = null, floorSizes = null;
+        boolean chunkSizeOnly = task.regionPruning && !task.blockSizeCanMatch();
+        if (fineSearch) {
+            ceilSizes = KernelConvolution.convolve(b.getCeilKernel(), slimeChunks, tile.minX, tile.minZ, tileWidth, tileHeight);
+            floorSizes = KernelConvolution.convolve(b.getFloorKernel(), slimeChunks, tile.minX, tile.minZ, tileWidth, tileHeight);
+        } else if (chunkSizeEngine.isFull() || chunkSizeOnly) {
+            chunkSizes = chunkSizeEngine.chunkSizes(slimeChunks, tile.minX, tile.minZ, tileWidth, tileHeight);
+        } else {
+            sizes = KernelConvolution.convolve(centerKernel, slimeChunks, tile.minX, tile.minZ, tileWidth, tileHeight);
+        }
+        MaskData data = new MaskData();
+        data.chunk = new Point(0, 0);
+        data.in = new Point(task.centerPos.in);
+        data.blockSurfaceArea = centerKernel.blockSurfaceArea;
+        data.chunkSurfaceArea = centerKernel.chunkSurfaceArea;
+        for (int z = tile.minZ; z <= tile.maxZ; z++) {
+            boolean east = ((z - tile.minZ) & 1) == 0;
+            for (int i = 0; i < tileWidth; i++) {
+                int x = east ? tile.minX + i : tile.maxX - i;
+                if (!path.contains(x, z)) continue;
+                int index = (z - tile.minZ) * tileWidth + x - tile.minX;
+                if (candidates != null && !candidates.get(index)) {
+                    result.checked += fineSearch ? 256 : 1;
+                    continue;
+                }
+                if (fineSearch) {
+                    b.update(ceilSizes[index], floorSizes[index]);
+                    if (task.canSkip(b, result.extrema, threshold)) {
+                        result.checked += 256;
+                        continue;
+                    }
+                    for (int inX = 0; inX < 16; inX++) {
+                        for (int inZ = 0; inZ < 16; inZ++) {
+                            mask = task.moveMask(mask, x, z, inX, inZ);
+                            result.addChecked(mask, task.score(mask, result.extrema, threshold));
+                        }
+                    }
+                } else {
+                    data.chunk.setPoint(x, z);
+                    if (sizes != null) {
+                        data.blockSize = KernelConvolution.blockSize(sizes[index]);
+                        data.chunkSize = KernelConvolution.chunkSize(sizes[index]);
+                    } else if (chunkSizeEngine.isFull()) {
+                        data.chunkSize = chunkSizes[index];
+                        data.blockSize = 256 * data.chunkSize;
+                    } else {
+                        data.chunkSize = chunkSizes[index];
+                        if (!task.chunkSizeMatches(data.chunkSize)) {
+                            result.extrema.updateChunkSize(data);
+                            ++result.checked;
+                            continue;
+                        }
+                        data.blockSize = centerKernel.blockSize(slimeChunks, x, z);
+                    }
+                    result.add(data, task.isCandidate(data.chunkSize, data.blockSize, threshold));
+                }
+                if (drain && result.size() >= task.maxBufferedMatches) task.recordMatches(result);
+            }
+            if (task.interrupted() && z < tile.maxZ) return null;
+        }
+        masks.set(mask);
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import slimefinder.core.slime.SlimeChunkSource;
+import slimefinder.core.slime.SlimeSources;
+
+import static slimefinder.core.search.SearchTask.TILE_WIDTH;
+
+/**
+ * Splits the search area into tiles that are searched in parallel. The tiles
+ * are searched in the order of their first chunks on the search path and
+ * the task holds back the matches until the chunks before them on the path
+ * have been searched, see {@link PathOrder}, so the output is the same as
+ * that of a search that walks the path and does not depend on the number of
+ * threads. At most 4 * threads tiles are searched ahead, and no more tiles
+ * are started while the tiles searched ahead hold maxBufferedMatches
+ * matches.
+ */
+class TiledSearch extends TileSearch {
+
+    private final int threads;
+    private final List<Tile> tiles;
+
+    /**
+     * The index of the first chunk of each tile on the search path
+     */
+    private final Map<Tile, Long> first = new IdentityHashMap<>();
+
+    TiledSearch(SearchTask task, int threads) {
+        super(task);
+        this.threads = threads;
+        tiles = Tile.split(task.path, TILE_WIDTH);
+        for (Tile tile : tiles) first.put(tile, tile.firstIndex(task.path));
+        tiles.sort(Comparator.comparingLong(first::get));
+    }
+
+    @Override
+    public void search(long position) throws IOException, InterruptedException {
+        initKernels();
+        SlimeChunkSource source = SlimeSources.get(task.pMask);
+        Deque<ForkJoinTask<TileResult>> pending = new ArrayDeque<>();
+        AtomicLong buffered = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int next = (int) Math.min(position, tiles.size());
+        try {
+            while (true) {
+                while (pending.size() < 4 * threads && buffered.get() < task.maxBufferedMatches && next < tiles.size()) {
+                    Tile tile = tiles.get(next++);
+                    pending.add(pool.submit(() -> {
+                        TileResult result = searchTile(tile, SlimeDensity.area(source, tile), false);
+                        if (result != null) buffered.addAndGet(result.size());
+                        return result;
+                    }));
+                }
+                if (pending.isEmpty()) break;
+                TileResult result = pending.poll().join();
+                if (result == null) throw new InterruptedException();
+                buffered.addAndGet(-result.size());
+                ++position;
+                task.collect(result, position, position < tiles.size() ? first.get(tiles.get((int) position)) : task.path.getPathLength());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The progress of a tiled search is the index on the path before which every chunk has been searched.
+     */
+    @Override
+    public NonMaximumSuppression.Frontier frontier() {
+        return task.path::progressAfter;
+    }
+
+    @Override
+    public String describe() {
+        return "Searching in tiles of " + TILE_WIDTH + "x" + TILE_WIDTH + " chunks using " + threads + " threads" +
+            (task.regionPruning ? ", skipping regions with too few slime chunks" : "");
+    }
+}
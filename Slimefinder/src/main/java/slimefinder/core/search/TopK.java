@@ -0,0 +1,174 @@
+package slimefinder.core.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+/**
+ * The K positions with the highest scores among the positions offered so far,
+ * the score of a position being blockWeight * blockSize + chunkWeight * chunkSize.
+ * Which of several positions with the same score are kept depends only on
+ * the order in which the positions are offered.
+ *
+ * The positions are kept in a binary min-heap of longs, each of which packs
+ * the score of a position into its upper bits and the index of the slot that
+ * holds the rest of the position into its lower SLOT_BITS bits. The worst
+ * position is at the root of the heap, so a position that cannot enter is
+ * rejected with one comparison and no allocations are made after creation.
+ */
+public class TopK {
+
+    public static final int SLOT_BITS = 20;
+    public static final int MAX_CAPACITY = 1 << SLOT_BITS;
+    public static final int MAX_WEIGHT = 0xFFFF;
+
+    private static final long SLOT_MASK = MAX_CAPACITY - 1;
+
+    private final int blockWeight, chunkWeight;
+
+    /**
+     * Min-heap of score << SLOT_BITS | slot
+     */
+    private final long[] heap;
+    private int size;
+
+    /**
+     * The positions by slot, the within-chunk position packed as inX << 4 | inZ
+     */
+    private final int[] chunkX, chunkZ, in, blockSize, chunkSize, blockSurfaceArea, chunkSurfaceArea;
+
+    /**
+     * @param capacity - number of positions kept, at most MAX_CAPACITY
+     * @param blockWeight - weight of the block size in the score, at most MAX_WEIGHT
+     * @param chunkWeight - weight of the chunk size in the score, at most MAX_WEIGHT
+     */
+    public TopK(int capacity, int blockWeight, int chunkWeight) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+        if (blockWeight < 0 || blockWeight > MAX_WEIGHT || chunkWeight < 0 || chunkWeight > MAX_WEIGHT)
+            throw new IllegalArgumentException("Weights must be between 0 and " + MAX_WEIGHT);
+        this.blockWeight = blockWeight;
+        this.chunkWeight = chunkWeight;
+        heap = new long[capacity];
+        chunkX = new int[capacity];
+        chunkZ = new int[capacity];
+        in = new int[capacity];
+        blockSize = new int[capacity];
+        chunkSize = new int[capacity];
+        blockSurfaceArea = new int[capacity];
+        chunkSurfaceArea = new int[capacity];
+    }
+
+    /**
+     * @return the score of a position with the given sizes
+     */
+    public long score(int blockSize, int chunkSize) {
+        return (long) blockWeight * blockSize + (long) chunkWeight * chunkSize;
+    }
+
+    /**
+     * @return the smallest score a position needs to enter, Long.MIN_VALUE if there is room for any position
+     */
+    public long threshold() {
+        return size < heap.length ? Long.MIN_VALUE : (heap[0] >> SLOT_BITS) + 1;
+    }
+
+    /**
+     * Adds the position if there is room for it or its score is higher than the lowest score kept,
+     * in which case the position with the lowest score is dropped.
+     *
+     * @return true if the position was added
+     */
+    public boolean offer(MaskData m) {
+        long score = score(m.blockSize, m.chunkSize);
+        int slot;
+        if (size < heap.length) {
+            slot = size;
+            heap[size] = score << SLOT_BITS | slot;
+            siftUp(size++);
+        } else {
+            if (score <= heap[0] >> SLOT_BITS) return false;
+            slot = (int) (heap[0] & SLOT_MASK);
+            heap[0] = score << SLOT_BITS | slot;
+            siftDown(0);
+        }
+        chunkX[slot] = m.chunk.x;
+        chunkZ[slot] = m.chunk.z;
+        in[slot] = m.in == null ? 0 : m.in.x << 4 | m.in.z;
+        blockSize[slot] = m.blockSize;
+        chunkSize[slot] = m.chunkSize;
+        blockSurfaceArea[slot] = m.blockSurfaceArea;
+        chunkSurfaceArea[slot] = m.chunkSurfaceArea;
+        return true;
+    }
+
+    private void siftUp(int i) {
+        long key = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    private void siftDown(int i) {
+        long key = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (key <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
+
+    /**
+     * @return the largest number of positions kept
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    public int getBlockWeight() {
+        return blockWeight;
+    }
+
+    public int getChunkWeight() {
+        return chunkWeight;
+    }
+
+    /**
+     * @return the number of positions kept
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the positions kept from the highest score to the lowest
+     */
+    public List<MaskData> toList() {
+        long[] keys = Arrays.copyOf(heap, size);
+        Arrays.sort(keys);
+        List<MaskData> list = new ArrayList<>(size);
+        for (int i = size - 1; i >= 0; i--) {
+            int slot = (int) (keys[i] & SLOT_MASK);
+            MaskData m = new MaskData();
+            m.chunk = new Point(chunkX[slot], chunkZ[slot]);
+            m.in = new Point(in[slot] >>> 4, in[slot] & 15);
+            m.blockSize = blockSize[slot];
+            m.chunkSize = chunkSize[slot];
+            m.blockSurfaceArea = blockSurfaceArea[slot];
+            m.chunkSurfaceArea = chunkSurfaceArea[slot];
+            list.add(m);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,138 @@
+package slimefinder.core.slime;
+
+/**
+ * The slime chunks of Bedrock Edition, which are the same in every world.
+ * The chunk coordinates give the seed of a 32-bit Mersenne Twister (MT19937)
+ * and a chunk is a slime chunk if the first output of the generator is
+ * divisible by 10.
+ *
+ * Initializing the generator fills a state of 624 words, each computed from
+ * the previous one, and the first output is computed from words 0, 1 and 397
+ * only. Words 398 ... 623 are therefore never computed. The recurrence is
+ * run for BATCH chunks at once over int arrays, which the JIT compiles to
+ * vector instructions.
+ */
+public class BedrockSlimeChunks implements SlimeChunkSource {
+
+    /**
+     * Number of chunks computed together
+     */
+    public static final int BATCH = 64;
+
+    private static final int MULTIPLIER = 1812433253;
+
+    /**
+     * The state word the first twist combines with words 0 and 1
+     */
+    private static final int MIDDLE = 397;
+
+    private static final int MATRIX_A = 0x9908B0DF;
+    private static final int UPPER_MASK = 0x80000000, LOWER_MASK = 0x7FFFFFFF;
+
+    /**
+     * @return the seed of the Mersenne Twister of the chunk
+     */
+    public static int chunkSeed(int chunkX, int chunkZ) {
+        return chunkX * 0x1F1F1F1F ^ chunkZ;
+    }
+
+    /**
+     * @return the first output of a Mersenne Twister seeded with the given seed
+     */
+    public static int firstOutput(int seed) {
+        int word1 = MULTIPLIER * (seed ^ seed >>> 30) + 1;
+        int word = word1;
+        for (int i = 2; i <= MIDDLE; i++) {
+            word = MULTIPLIER * (word ^ word >>> 30) + i;
+        }
+        return output(seed, word1, word);
+    }
+
+    /**
+     * @return the first output computed from the state words 0, 1 and 397
+     */
+    private static int output(int word0, int word1, int word397) {
+        int y = word0 & UPPER_MASK | word1 & LOWER_MASK;
+        y = word397 ^ y >>> 1 ^ ((y & 1) != 0 ? MATRIX_A : 0);
+        y ^= y >>> 11;
+        y ^= y << 7 & 0x9D2C5680;
+        y ^= y << 15 & 0xEFC60000;
+        return y ^ y >>> 18;
+    }
+
+    /**
+     * @return true if the unsigned first output is divisible by 10
+     */
+    private static boolean isSlimeOutput(int output) {
+        return Integer.remainderUnsigned(output, 10) == 0;
+    }
+
+    /**
+     * @return true if (chunkX, chunkZ) is a slime chunk in Bedrock Edition
+     */
+    public static boolean isSlimeChunkStatic(int chunkX, int chunkZ) {
+        return isSlimeOutput(firstOutput(chunkSeed(chunkX, chunkZ)));
+    }
+
+    /**
+     * Replaces the BATCH seeds with the first outputs of Mersenne Twisters seeded with them.
+     */
+    private static void firstOutputs(int[] seeds, int[] words1, int[] words) {
+        for (int j = 0; j < BATCH; j++) {
+            int seed = seeds[j];
+            words1[j] = words[j] = MULTIPLIER * (seed ^ seed >>> 30) + 1;
+        }
+        for (int i = 2; i <= MIDDLE; i++) {
+            for (int j = 0; j < BATCH; j++) {
+                int word = words[j];
+                words[j] = MULTIPLIER * (word ^ word >>> 30) + i;
+            }
+        }
+        for (int j = 0; j < BATCH; j++) {
+            seeds[j] = output(seeds[j], words1[j], words[j]);
+        }
+    }
+
+    /**
+     * @param chunkX - chunk x coordinate of the first chunk
+     * @param chunkZ - chunk z coordinate of the first chunk
+     * @param dx - x step between the chunks
+     * @param dz - z step between the chunks
+     * @param count - number of chunks, at most 64
+     * @return bit i set if chunk (chunkX + i * dx, chunkZ + i * dz) is a slime chunk
+     */
+    private static long line(int chunkX, int chunkZ, int dx, int dz, int count) {
+        int[] seeds = new int[BATCH], words1 = new int[BATCH], words = new int[BATCH];
+        for (int j = 0; j < count; j++) {
+            seeds[j] = chunkSeed(chunkX + j * dx, chunkZ + j * dz);
+        }
+        firstOutputs(seeds, words1, words);
+        long bits = 0;
+        for (int j = 0; j < count; j++) {
+            if (isSlimeOutput(seeds[j])) bits |= 1L << j;
+        }
+        return bits;
+    }
+
+    @Override
+    public boolean isSlimeChunk(int chunkX, int chunkZ) {
+        return isSlimeChunkStatic(chunkX, chunkZ);
+    }
+
+    @Override
+    public void row(int minX, int chunkZ, int count, long[] words, int offset) {
+        for (int start = 0; start < count; start += BATCH) {
+            words[offset + (start >>> 6)] = line(minX + start, chunkZ, 1, 0, Math.min(BATCH, count - start));
+        }
+    }
+
+    @Override
+    public int row(int minX, int chunkZ, int count) {
+        return (int) line(minX, chunkZ, 1, 0, count);
+    }
+
+    @Override
+    public int column(int chunkX, int minZ, int count) {
+        return (int) line(chunkX, minZ, 0, 1, count);
+    }
+}
@@ -0,0 +1,28 @@
+package slimefinder.core.slime;
+
+/**
+ * Computes the slime chunks of a world every time they are asked for.
+ */
+public class OracleSlimeChunks implements SlimeChunkSource {
+
+    private final long worldSeed;
+
+    public OracleSlimeChunks(long worldSeed) {
+        this.worldSeed = worldSeed;
+    }
+
+    @Override
+    public boolean isSlimeChunk(int chunkX, int chunkZ) {
+        return SlimeChunkOracle.isSlimeChunk(worldSeed, chunkX, chunkZ);
+    }
+
+    @Override
+    public void row(int minX, int chunkZ, int count, long[] words, int offset) {
+        SlimeRowGenerator.generate(worldSeed, minX, chunkZ, count, words, offset);
+    }
+
+    @Override
+    public int row(int minX, int chunkZ, int count) {
+        return SlimeRowGenerator.generate(worldSeed, minX, chunkZ, count);
+    }
+}
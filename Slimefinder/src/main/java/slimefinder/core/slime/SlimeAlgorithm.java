@@ -0,0 +1,57 @@
+package slimefinder.core.slime;
+
+import slimefinder.io.properties.MaskProperties;
+
+/**
+ * The algorithms of the editions of the game which decide the slime chunks.
+ */
+public enum SlimeAlgorithm {
+    JAVA("java"),
+    BEDROCK("bedrock");
+
+    private final String name;
+
+    SlimeAlgorithm(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the algorithm given by the mask properties, Java Edition if none is given
+     * @throws IllegalArgumentException if the name of the algorithm is not known
+     */
+    public static SlimeAlgorithm get(MaskProperties pMask) {
+        String name = pMask.getString(MaskProperties.ALGORITHM);
+        return name == null ? JAVA : parse(name);
+    }
+
+    /**
+     * @return the algorithm with the given name ignoring case
+     * @throws IllegalArgumentException if the name is not known
+     */
+    public static SlimeAlgorithm parse(String name) {
+        for (SlimeAlgorithm algorithm : values()) {
+            if (algorithm.name.equalsIgnoreCase(name)) return algorithm;
+        }
+        throw new IllegalArgumentException("'" + name + "' is not a valid value for '" + MaskProperties.ALGORITHM + "'");
+    }
+
+    /**
+     * @return the slime chunks of the world with the given seed
+     */
+    public SlimeChunkSource source(long worldSeed) {
+        return this == BEDROCK ? new BedrockSlimeChunks() : new OracleSlimeChunks(worldSeed);
+    }
+
+    /**
+     * @return the seed of the worlds that have the same slime chunks as the world with the given seed,
+     * 0 in Bedrock Edition where the slime chunks do not depend on the seed
+     */
+    public long worldSeed(long worldSeed) {
+        return this == BEDROCK ? 0 : worldSeed;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
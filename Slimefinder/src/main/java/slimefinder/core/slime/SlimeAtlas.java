@@ -0,0 +1,300 @@
+package slimefinder.core.slime;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * The slime chunks of a world stored on disk with one bit per chunk so that
+ * they are computed only once over any number of runs. The chunks are stored
+ * in tiles of 64x64 chunks which are computed and appended to the file the
+ * first time a chunk of the tile is needed. The file is memory-mapped in
+ * windows of WINDOW_RECORDS tiles as they are read.
+ *
+ * The file starts with a header:
+ *
+ * offset | type   | content
+ * 0      | byte[] | magic "SLIMEATL"
+ * 8      | int    | format version
+ * 12     | int    | tile width in chunks
+ * 16     | long   | world seed
+ * 24     | int    | slime chunk algorithm, 0 for Java Edition and 1 for Bedrock Edition
+ * 28     | int    | CRC32 of bytes 0-27
+ *
+ * which is followed by the tiles:
+ *
+ * offset | type     | content
+ * 0      | int      | tile x coordinate, chunkX >> 6
+ * 4      | int      | tile z coordinate, chunkZ >> 6
+ * 8      | long[64] | row i is bit j of long i set if chunk (64 * x + j, 64 * z + i) is a slime chunk
+ * 520    | int      | CRC32 of bytes 0-519
+ *
+ * All values are little-endian. A file whose header does not match is
+ * replaced with an empty atlas and the tiles from the first tile whose
+ * checksum does not match onwards are discarded.
+ *
+ * Reading a single chunk from the atlas is slower than computing it in Java
+ * Edition, so single Java Edition chunks are computed and only rows are read
+ * from the atlas.
+ *
+ * If a tile cannot be appended, for example because the disk is full, no
+ * more tiles are stored and the chunks of the tiles that are not in the
+ * atlas are computed instead.
+ */
+public class SlimeAtlas extends TiledSlimeChunks implements Closeable {
+
+    public static final byte[] MAGIC = "SLIMEATL".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 8 + 8 * TILE_WIDTH + 4;
+    public static final int WINDOW_RECORDS = 1 << 15;
+
+    private static final long WINDOW_SIZE = (long) WINDOW_RECORDS * RECORD_SIZE;
+
+    private final long worldSeed;
+    private final SlimeAlgorithm algorithm;
+    private final SlimeChunkSource source;
+    private final FileChannel channel;
+
+    /**
+     * File offsets of the tiles by tile coordinates, see {@link #key(int, int)}
+     */
+    private final Map<Long, Long> tiles = new ConcurrentHashMap<>();
+    private final Map<Integer, ByteBuffer> windows = new ConcurrentHashMap<>();
+
+    private long size;
+
+    /**
+     * True if the file did not contain a valid atlas of the world and was replaced
+     */
+    private final boolean replaced;
+
+    /**
+     * Number of tiles discarded because their checksums did not match
+     */
+    private final long discarded;
+
+    /**
+     * The error that stopped the atlas from storing tiles, null if every tile has been stored
+     */
+    private volatile IOException writeFailure;
+
+    /**
+     * Opens the Java Edition atlas in the given file creating the file if it does not exist.
+     */
+    public SlimeAtlas(File file, long worldSeed) throws IOException {
+        this(file, worldSeed, SlimeAlgorithm.JAVA);
+    }
+
+    /**
+     * Opens the atlas in the given file creating the file if it does not exist.
+     */
+    public SlimeAtlas(File file, long worldSeed, SlimeAlgorithm algorithm) throws IOException {
+        this.worldSeed = algorithm.worldSeed(worldSeed);
+        this.algorithm = algorithm;
+        source = algorithm.source(this.worldSeed);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean valid = channel.size() >= HEADER_SIZE && isValidHeader();
+        replaced = !valid && channel.size() > 0;
+        if (!valid) {
+            channel.truncate(0);
+            channel.write(header(), 0);
+        }
+        size = HEADER_SIZE;
+        discarded = valid ? readTiles() : 0;
+    }
+
+    /**
+     * @return the file of the Java Edition atlas of the given world in the given directory
+     */
+    public static File file(String directory, long worldSeed) {
+        return file(directory, worldSeed, SlimeAlgorithm.JAVA);
+    }
+
+    /**
+     * @return the file of the atlas of the given world and algorithm in the given directory
+     */
+    public static File file(String directory, long worldSeed, SlimeAlgorithm algorithm) {
+        String prefix = algorithm == SlimeAlgorithm.JAVA ? "" : algorithm + "-";
+        return new File(directory, prefix + algorithm.worldSeed(worldSeed) + ".atlas");
+    }
+
+    private ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(TILE_WIDTH);
+        header.putLong(worldSeed);
+        header.putInt(algorithm.ordinal());
+        header.putInt(crc(header.array(), 0, HEADER_SIZE - 4));
+        header.flip();
+        return header;
+    }
+
+    private boolean isValidHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        return header.equals(header());
+    }
+
+    /**
+     * Indexes the tiles of the file and truncates it at the first tile with a wrong checksum.
+     *
+     * @return the number of tiles discarded
+     */
+    private long readTiles() throws IOException {
+        long records = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        long valid = 0;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (long offset = HEADER_SIZE; valid < records; valid++, offset += RECORD_SIZE) {
+            record.clear();
+            while (record.hasRemaining() && channel.read(record, offset + record.position()) >= 0);
+            if (record.getInt(RECORD_SIZE - 4) != crc(record.array(), 0, RECORD_SIZE - 4)) break;
+            tiles.put(key(record.getInt(0), record.getInt(4)), offset);
+        }
+        size = HEADER_SIZE + valid * RECORD_SIZE;
+        if (channel.size() > size) channel.truncate(size);
+        return records - valid;
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static long key(int tileX, int tileZ) {
+        return (long) tileX << 32 | (tileZ & 0xFFFFFFFFL);
+    }
+
+    @Override
+    protected long tileRow(int tileX, int chunkZ) {
+        int tileZ = chunkZ >> TILE_BITS;
+        Long offset = tiles.get(key(tileX, tileZ));
+        if (offset == null && writeFailure == null) offset = addTile(tileX, tileZ);
+        if (offset == null) {
+            long[] row = new long[1];
+            source.row(tileX << TILE_BITS, chunkZ, TILE_WIDTH, row, 0);
+            return row[0];
+        }
+        long rowOffset = offset + 8 + 8 * (chunkZ & (TILE_WIDTH - 1));
+        long window = (offset - HEADER_SIZE) / WINDOW_SIZE;
+        return window(window, offset).getLong((int) (rowOffset - HEADER_SIZE - window * WINDOW_SIZE));
+    }
+
+    /**
+     * @return the mapped window with the given index that contains the tile at the given offset
+     */
+    private ByteBuffer window(long index, long offset) {
+        ByteBuffer window = windows.get((int) index);
+        long start = HEADER_SIZE + index * WINDOW_SIZE;
+        if (window == null || window.capacity() < offset + RECORD_SIZE - start) window = map(index);
+        return window;
+    }
+
+    private synchronized ByteBuffer map(long index) {
+        long start = HEADER_SIZE + index * WINDOW_SIZE;
+        try {
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start))
+                .order(ByteOrder.LITTLE_ENDIAN);
+            windows.put((int) index, window);
+            return window;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Computes the tile and appends it to the file unless another thread did it first.
+     *
+     * @return the offset of the tile in the file or null if the tile could not be appended
+     */
+    private Long addTile(int tileX, int tileZ) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(tileX);
+        record.putInt(tileZ);
+        long[] rows = new long[TILE_WIDTH];
+        for (int i = 0; i < TILE_WIDTH; i++) {
+            source.row(tileX << TILE_BITS, (tileZ << TILE_BITS) + i, TILE_WIDTH, rows, i);
+        }
+        for (long row : rows) record.putLong(row);
+        record.putInt(crc(record.array(), 0, RECORD_SIZE - 4));
+        record.flip();
+        synchronized (this) {
+            Long offset = tiles.get(key(tileX, tileZ));
+            if (offset != null || writeFailure != null) return offset;
+            try {
+                while (record.hasRemaining()) channel.write(record, size + record.position());
+            } catch (IOException e) {
+                // a partly written tile fails its checksum and is discarded when the atlas is opened again
+                writeFailure = e;
+                return null;
+            }
+            tiles.put(key(tileX, tileZ), size);
+            size += RECORD_SIZE;
+            return size - RECORD_SIZE;
+        }
+    }
+
+    /**
+     * Single Java Edition chunks are computed as that is faster than reading them from the atlas.
+     */
+    @Override
+    public boolean isSlimeChunk(int chunkX, int chunkZ) {
+        if (algorithm == SlimeAlgorithm.JAVA) return source.isSlimeChunk(chunkX, chunkZ);
+        return (tileRow(chunkX >> TILE_BITS, chunkZ) >>> chunkX & 1) != 0;
+    }
+
+    /**
+     * @return the slime chunk algorithm of the atlas
+     */
+    public SlimeAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the number of tiles in the atlas
+     */
+    public int tileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * @return true if the file did not contain a valid atlas of the world when opened and was replaced
+     */
+    public boolean wasReplaced() {
+        return replaced;
+    }
+
+    /**
+     * @return the number of tiles discarded when opening because their checksums did not match
+     */
+    public long discardedTiles() {
+        return discarded;
+    }
+
+    /**
+     * @return the error that stopped the atlas from storing tiles or null if every tile has been stored
+     */
+    public IOException writeFailure() {
+        return writeFailure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        windows.clear();
+        channel.close();
+    }
+}
@@ -0,0 +1,107 @@
+package slimefinder.core.slime;
+
+/**
+ * The slime chunks of a rectangular area computed at once. Each row of
+ * the area is stored as bits of consecutive longs, bit x of a row being
+ * set if the chunk at x chunks from the start of the row is a slime chunk.
+ *
+ * The area can be scrolled south one row at a time. The rows are kept in a
+ * ring, so scrolling only computes the row entering the area and the memory
+ * used does not depend on how far the area is scrolled.
+ */
+public class SlimeBitmap {
+
+    /**
+     * The smallest chunk x coordinate and the size of the area in chunks
+     */
+    public final int minX, width, height;
+
+    /**
+     * The smallest chunk z coordinate of the area, increased by {@link #scroll()}
+     */
+    public int minZ;
+
+    private final SlimeChunkSource source;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    public SlimeBitmap(long worldSeed, int minX, int minZ, int width, int height) {
+        this(new OracleSlimeChunks(worldSeed), minX, minZ, width, height);
+    }
+
+    public SlimeBitmap(SlimeChunkSource source, int minX, int minZ, int width, int height) {
+        this.source = source;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.width = width;
+        this.height = height;
+        wordsPerRow = (width + 63) >>> 6;
+        words = new long[wordsPerRow * height];
+        for (int z = minZ; z < minZ + height; z++) {
+            computeRow(z);
+        }
+    }
+
+    /**
+     * Moves the area south by one chunk computing only the row entering the area.
+     */
+    public void scroll() {
+        computeRow(minZ + height);
+        ++minZ;
+    }
+
+    /**
+     * Computes the row with the given absolute chunk z coordinate into the place of the row
+     * that is height rows before it.
+     */
+    private void computeRow(int chunkZ) {
+        source.row(minX, chunkZ, width, words, offset(chunkZ));
+    }
+
+    /**
+     * @return the index of the first long of the row with the given absolute chunk z coordinate
+     */
+    private int offset(int chunkZ) {
+        return Math.floorMod(chunkZ, height) * wordsPerRow;
+    }
+
+    /**
+     * @return the number of longs used for each row
+     */
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * @param z - row relative to minZ
+     * @param index - index of the long within the row
+     * @return the bits of the chunks 64 * index ... 64 * index + 63 of the row
+     */
+    public long word(int z, int index) {
+        return words[offset(minZ + z) + index];
+    }
+
+    /**
+     * @param chunkX - absolute chunk x coordinate inside the area
+     * @param chunkZ - absolute chunk z coordinate inside the area
+     * @return true if (chunkX, chunkZ) is a slime chunk
+     */
+    public boolean isSlimeChunk(int chunkX, int chunkZ) {
+        int x = chunkX - minX;
+        return (words[offset(chunkZ) + (x >>> 6)] >>> x & 1) != 0;
+    }
+
+    /**
+     * @param chunkX - absolute chunk x coordinate of the first chunk, inside the area
+     * @param chunkZ - absolute chunk z coordinate of the row, inside the area
+     * @param count - number of chunks, at most 32 and all inside the area
+     * @return the bits of count consecutive chunks of a row, bit i being the chunk at chunkX + i
+     */
+    public int bits(int chunkX, int chunkZ, int count) {
+        int x = chunkX - minX;
+        int index = offset(chunkZ) + (x >>> 6), shift = x & 63;
+        long bits = words[index] >>> shift;
+        if (shift + count > 64) bits |= words[index + 1] << (64 - shift);
+        return (int) bits & (int) ((1L << count) - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package slimefinder.core.slime;
+
+/**
+ * Decides which chunks are slime chunks without going through a shared
+ * java.util.Random. The linear congruential generator of Random and the
+ * rejection loop of Random.nextInt(10) are reproduced on plain longs, so the
+ * predicate is stateless, allocation-free and safe to call from any number
+ * of threads.
+ */
+public final class SlimeChunkOracle {
+
+    /**
+     * Constants of the linear congruential generator used by java.util.Random
+     */
+    public static final long MULTIPLIER = 0x5DEECE66DL;
+    public static final long ADDEND = 0xBL;
+    public static final long MASK = (1L << 48) - 1;
+
+    private SlimeChunkOracle() {
+    }
+
+    /**
+     * Calculates the seed that Minecraft passes to Random.setSeed when
+     * deciding whether (chunkX, chunkZ) is a slime chunk. The int
+     * multiplications are allowed to overflow exactly like in the game.
+     *
+     * @param worldSeed
+     * @param chunkX - chunk x coordinate
+     * @param chunkZ - chunk z coordinate
+     * @return the seed of the chunk
+     */
+    public static long chunkSeed(long worldSeed, int chunkX, int chunkZ) {
+        return (
+            worldSeed +
+            (long) (chunkX * chunkX * 4987142) +
+            (long) (chunkX * 5947611) +
+            (long) (chunkZ * chunkZ) * 4392871L +
+            (long) (chunkZ * 389711)
+        ) ^ 987234911L;
+    }
+
+    /**
+     * @param worldSeed
+     * @param chunkX - chunk x coordinate
+     * @param chunkZ - chunk z coordinate
+     * @return true if (chunkX, chunkZ) is a slime chunk, false otherwise
+     */
+    public static boolean isSlimeChunk(long worldSeed, int chunkX, int chunkZ) {
+        return isSlimeSeed(chunkSeed(worldSeed, chunkX, chunkZ));
+    }
+
+    /**
+     * Equivalent to {@code new Random(seed).nextInt(10) == 0}.
+     *
+     * @param seed - seed given to Random.setSeed
+     * @return true if the first value of nextInt(10) is 0
+     */
+    public static boolean isSlimeSeed(long seed) {
+        long state = (seed ^ MULTIPLIER) & MASK;
+        int bits, value;
+        do {
+            state = (state * MULTIPLIER + ADDEND) & MASK;
+            bits = (int) (state >>> 17);
+            value = bits % 10;
+        } while (bits - value + 9 < 0);
+        return value == 0;
+    }
+}
@@ -0,0 +1,42 @@
+package slimefinder.core.slime;
+
+/**
+ * Tells which chunks of a world are slime chunks, either one chunk at a time
+ * or a row or column of consecutive chunks at once.
+ */
+public interface SlimeChunkSource {
+
+    /**
+     * @param chunkX - chunk x coordinate
+     * @param chunkZ - chunk z coordinate
+     * @return true if (chunkX, chunkZ) is a slime chunk, false otherwise
+     */
+    boolean isSlimeChunk(int chunkX, int chunkZ);
+
+    /**
+     * Writes the slime chunks of count consecutive chunks of a row into words starting from
+     * words[offset]. Bit i of words[offset + i / 64] is set if chunk (minX + i, chunkZ) is a slime
+     * chunk. The bits after the last chunk in the last word written are cleared.
+     */
+    void row(int minX, int chunkZ, int count, long[] words, int offset);
+
+    /**
+     * @param count - number of chunks, at most 32
+     * @return the slime chunks of count consecutive chunks of a row, bit i being set if chunk
+     * (minX + i, chunkZ) is a slime chunk
+     */
+    int row(int minX, int chunkZ, int count);
+
+    /**
+     * @param count - number of chunks, at most 32
+     * @return the slime chunks of count consecutive chunks of a column, bit i being set if chunk
+     * (chunkX, minZ + i) is a slime chunk
+     */
+    default int column(int chunkX, int minZ, int count) {
+        int column = 0;
+        for (int i = 0; i < count; i++) {
+            if (isSlimeChunk(chunkX, minZ + i)) column |= 1 << i;
+        }
+        return column;
+    }
+}
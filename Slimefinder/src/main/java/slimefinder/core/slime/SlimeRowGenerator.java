@@ -0,0 +1,75 @@
+package slimefinder.core.slime;
+
+/**
+ * Computes the slime chunks of consecutive chunks on a row. Along a row the
+ * z-terms of the chunk seed are constant and the x-terms are a quadratic and
+ * a linear polynomial of chunkX evaluated with int overflow. As int arithmetic
+ * is exact modulo 2^32 the polynomials are updated by finite differences with
+ * additions only and the results are identical to
+ * {@link SlimeChunkOracle#isSlimeChunk(long, int, int)}. The seeds of up to
+ * 64 chunks are computed before testing them together with a
+ * {@link SlimeSeedBatch}.
+ */
+public final class SlimeRowGenerator {
+
+    /**
+     * Coefficients of the x-terms of the chunk seed
+     */
+    private static final int QUADRATIC = 4987142, LINEAR = 5947611;
+
+    private SlimeRowGenerator() {
+    }
+
+    /**
+     * Writes the slime chunks of count consecutive chunks of a row into words starting from
+     * words[offset]. Bit i of words[offset + i / 64] is set if chunk (minX + i, chunkZ) is a slime
+     * chunk. The bits after the last chunk in the last word written are cleared.
+     *
+     * @param worldSeed
+     * @param minX - chunk x coordinate of the first chunk
+     * @param chunkZ - chunk z coordinate of the row
+     * @param count - number of chunks
+     * @param words
+     * @param offset - index of the first long written
+     */
+    public static void generate(long worldSeed, int minX, int chunkZ, int count, long[] words, int offset) {
+        long base = worldSeed + (long) (chunkZ * chunkZ) * 4392871L + (long) (chunkZ * 389711);
+        int quadratic = minX * minX * QUADRATIC;
+        int quadraticStep = (2 * minX + 1) * QUADRATIC;
+        int linear = minX * LINEAR;
+        long[] seeds = new long[SlimeSeedBatch.SIZE];
+        for (int start = 0; start < count; start += SlimeSeedBatch.SIZE) {
+            int n = Math.min(SlimeSeedBatch.SIZE, count - start);
+            for (int i = 0; i < n; i++) {
+                seeds[i] = (base + quadratic + linear) ^ 987234911L;
+                quadratic += quadraticStep;
+                quadraticStep += 2 * QUADRATIC;
+                linear += LINEAR;
+            }
+            words[offset + (start >>> 6)] = SlimeSeedBatch.test(seeds, n);
+        }
+    }
+
+    /**
+     * @param worldSeed
+     * @param minX - chunk x coordinate of the first chunk
+     * @param chunkZ - chunk z coordinate of the row
+     * @param count - number of chunks, at most 32
+     * @return the slime chunks of count consecutive chunks of a row, bit i being set if chunk
+     * (minX + i, chunkZ) is a slime chunk
+     */
+    public static int generate(long worldSeed, int minX, int chunkZ, int count) {
+        long base = worldSeed + (long) (chunkZ * chunkZ) * 4392871L + (long) (chunkZ * 389711);
+        int quadratic = minX * minX * QUADRATIC;
+        int quadraticStep = (2 * minX + 1) * QUADRATIC;
+        int linear = minX * LINEAR;
+        int row = 0;
+        for (int i = 0; i < count; i++) {
+            row |= (SlimeSeeds.isSlimeSeed((base + quadratic + linear) ^ 987234911L) ? 1 : 0) << i;
+            quadratic += quadraticStep;
+            quadraticStep += 2 * QUADRATIC;
+            linear += LINEAR;
+        }
+        return row;
+    }
+}
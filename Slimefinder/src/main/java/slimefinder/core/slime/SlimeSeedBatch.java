@@ -0,0 +1,34 @@
+package slimefinder.core.slime;
+
+/**
+ * Tests up to 64 chunk seeds at once. This version tests the seeds one by
+ * one. The multi-release jar contains a version for Java 17 and later that
+ * tests several seeds per instruction with the Vector API when the
+ * jdk.incubator.vector module is added to the JVM.
+ */
+public final class SlimeSeedBatch {
+
+    /**
+     * The largest number of seeds tested at once
+     */
+    public static final int SIZE = 64;
+
+    private SlimeSeedBatch() {
+    }
+
+    /**
+     * @param seeds - chunk seeds, see {@link SlimeChunkOracle#chunkSeed(long, int, int)}
+     * @param count - number of seeds to test, at most SIZE
+     * @return bit i is set if seeds[i] is the seed of a slime chunk
+     */
+    public static long test(long[] seeds, int count) {
+        return SlimeSeeds.test(seeds, count);
+    }
+
+    /**
+     * @return a description of how the seeds are tested
+     */
+    public static String implementation() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,35 @@
+package slimefinder.core.slime;
+
+/**
+ * Scalar tests of chunk seeds shared by every version of {@link SlimeSeedBatch}.
+ */
+final class SlimeSeeds {
+
+    /**
+     * The first value of the generator is rejected by nextInt(10) if it is at least this large
+     */
+    static final int REJECTED = Integer.MAX_VALUE - 7;
+
+    private SlimeSeeds() {
+    }
+
+    /**
+     * Same as {@link SlimeChunkOracle#isSlimeSeed(long)} with the first step of the generator
+     * computed inline. The rejection loop of nextInt(10) only runs if the first value is one of
+     * the last 8 values of the int range, which is left to the oracle.
+     */
+    static boolean isSlimeSeed(long seed) {
+        int bits = (int) ((((seed ^ SlimeChunkOracle.MULTIPLIER) * SlimeChunkOracle.MULTIPLIER + SlimeChunkOracle.ADDEND) & SlimeChunkOracle.MASK) >>> 17);
+        if (bits >= REJECTED) return SlimeChunkOracle.isSlimeSeed(seed);
+        // bits is divisible by 10 if it is even and bits / 2 times the inverse of 5 modulo 2^32 is small
+        return Integer.compareUnsigned(Integer.rotateRight(bits * 0xCCCCCCCD, 1), 429496729) <= 0;
+    }
+
+    static long test(long[] seeds, int count) {
+        long result = 0;
+        for (int i = 0; i < count; i++) {
+            result |= (isSlimeSeed(seeds[i]) ? 1L : 0L) << i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+package slimefinder.core.slime;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import slimefinder.io.CLI;
+import slimefinder.io.properties.MaskProperties;
+
+import static slimefinder.io.properties.MaskProperties.*;
+
+/**
+ * Creates the slime chunk sources given by the mask properties. Every atlas
+ * file is opened and every cache is created only once per process and
+ * shared by all of their users. An atlas that cannot be opened is replaced
+ * with computing the slime chunks, which {@link #open(MaskProperties, CLI)}
+ * reports along with the tiles lost when opening it.
+ */
+public final class SlimeSources {
+
+    private static final Map<File, SlimeChunkSource> atlases = new ConcurrentHashMap<>();
+    private static final Map<String, SlimeTileCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * The errors of the atlas files that could not be opened
+     */
+    private static final Map<File, IOException> failures = new ConcurrentHashMap<>();
+
+    /**
+     * The atlas files whose state has been reported
+     */
+    private static final Set<File> reported = ConcurrentHashMap.newKeySet();
+
+    private SlimeSources() {
+    }
+
+    /**
+     * @return the slime chunks of the world and edition read from the atlas in the directory given by the mask
+     * properties or computed if no directory is given or the atlas cannot be opened, through a cache
+     * of the size given by the mask properties if the size is positive
+     */
+    public static SlimeChunkSource get(MaskProperties pMask) {
+        Integer megabytes = pMask.getInt(CACHE);
+        if (megabytes == null || megabytes <= 0) return uncached(pMask);
+        SlimeAlgorithm algorithm = SlimeAlgorithm.get(pMask);
+        String key = algorithm + "/" + algorithm.worldSeed(pMask.getLong(SEED)) + "/" + pMask.getString(ATLAS) + "/" + megabytes;
+        return caches.computeIfAbsent(key, k -> new SlimeTileCache(uncached(pMask), (long) megabytes << 20));
+    }
+
+    /**
+     * @return the atlas used by the sources with the given mask properties or null if there is none
+     */
+    public static SlimeAtlas atlas(MaskProperties pMask) {
+        SlimeChunkSource source = uncached(pMask);
+        return source instanceof SlimeAtlas ? (SlimeAtlas) source : null;
+    }
+
+    /**
+     * Opens the atlas given by the mask properties unless it is already open and warns, once per
+     * atlas file, if the atlas could not be opened or lost tiles when opened.
+     */
+    public static void open(MaskProperties pMask, CLI cli) {
+        SlimeChunkSource source = uncached(pMask);
+        File file = file(pMask);
+        if (file == null || !reported.add(file)) return;
+        if (failures.containsKey(file)) {
+            cli.warning("Could not open slime atlas: '" + file + "'. Computing slime chunks instead");
+            return;
+        }
+        SlimeAtlas atlas = (SlimeAtlas) source;
+        if (atlas.wasReplaced())
+            cli.warning("'" + file + "' did not contain a slime atlas of the world and was replaced");
+        if (atlas.discardedTiles() > 0)
+            cli.warning("Discarded " + atlas.discardedTiles() + " damaged tiles of slime atlas: '" + file + "'");
+    }
+
+    /**
+     * @return the atlas file given by the mask properties or null if no atlas directory is given
+     */
+    private static File file(MaskProperties pMask) {
+        String directory = pMask.getString(ATLAS);
+        if (directory == null || directory.isEmpty()) return null;
+        SlimeAlgorithm algorithm = SlimeAlgorithm.get(pMask);
+        return SlimeAtlas.file(directory, pMask.getLong(SEED), algorithm).getAbsoluteFile();
+    }
+
+    private static SlimeChunkSource uncached(MaskProperties pMask) {
+        SlimeAlgorithm algorithm = SlimeAlgorithm.get(pMask);
+        long worldSeed = algorithm.worldSeed(pMask.getLong(SEED));
+        File file = file(pMask);
+        if (file == null) return algorithm.source(worldSeed);
+        return atlases.computeIfAbsent(file, f -> {
+            try {
+                return new SlimeAtlas(f, worldSeed, algorithm);
+            } catch (IOException e) {
+                failures.put(f, e);
+                return algorithm.source(worldSeed);
+            }
+        });
+    }
+
+    /**
+     * Closes every atlas opened so far and drops the caches, warning of the atlases that could
+     * not store all of their tiles.
+     */
+    public static void closeAll(CLI cli) {
+        caches.clear();
+        for (Map.Entry<File, SlimeChunkSource> entry : atlases.entrySet()) {
+            if (!(entry.getValue() instanceof SlimeAtlas)) continue;
+            SlimeAtlas atlas = (SlimeAtlas) entry.getValue();
+            if (atlas.writeFailure() != null)
+                cli.warning("Could not write to slime atlas: '" + entry.getKey() + "'. The slime chunks that were not stored were computed");
+            try {
+                atlas.close();
+            } catch (IOException e) {
+                cli.error("Could not close slime atlas: '" + entry.getKey() + "'");
+            }
+        }
+        atlases.clear();
+        failures.clear();
+        reported.clear();
+    }
+}
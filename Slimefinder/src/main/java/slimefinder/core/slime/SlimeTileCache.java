@@ -0,0 +1,222 @@
+package slimefinder.core.slime;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the slime chunks of recently used tiles of 64x64 chunks in memory
+ * within a fixed budget. A tile is computed from the underlying source the
+ * first time one of its chunks is needed, after which looking up a chunk or
+ * a row costs a few array reads.
+ *
+ * The cache is set-associative: every tile can only be stored in one of the
+ * WAYS slots of the set given by its coordinates, and the least recently
+ * used tile of the set is evicted to make room for a new one. Lookups do not
+ * lock, so any number of threads can read the cache at the same time. Tiles
+ * are loaded outside of any lock and only the replacement of a slot locks
+ * its set. Recency is measured in misses, so the tiles used since the
+ * previous miss count as equally recent and a tile is marked as used at
+ * most once per miss. Each thread checks the tile found by its previous
+ * lookup first, as consecutive lookups are usually close to each other, and
+ * counts its own hits, so threads reading the cache do not write to the same
+ * memory on every lookup.
+ */
+public class SlimeTileCache extends TiledSlimeChunks {
+
+    public static final int WAYS = 4;
+
+    /**
+     * Heap used by a cached tile: the rows, the array and object headers and the slot
+     */
+    public static final int TILE_BYTES = 8 * TILE_WIDTH + 64;
+
+    private static final class Tile {
+
+        final int tileX, tileZ;
+
+        /**
+         * Bit i of rows[j] is set if chunk (64 * tileX + i, 64 * tileZ + j) is a slime chunk
+         */
+        final long[] rows;
+
+        /**
+         * Value of the clock when the tile was last used
+         */
+        volatile long used;
+
+        Tile(int tileX, int tileZ, long[] rows, long used) {
+            this.tileX = tileX;
+            this.tileZ = tileZ;
+            this.rows = rows;
+            this.used = used;
+        }
+    }
+
+    private final SlimeChunkSource source;
+
+    /**
+     * The slots of set s are WAYS * s ... WAYS * s + WAYS - 1
+     */
+    private final AtomicReferenceArray<Tile> slots;
+    private final Object[] locks;
+    private final int setMask;
+
+    /**
+     * Number of tiles stored so far, which also orders the uses of the tiles
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * The lookups of a single thread
+     */
+    private static final class Lookups {
+
+        /**
+         * The tile found by the previous lookup
+         */
+        Tile last;
+
+        /**
+         * Number of hits, written only by the thread without synchronization
+         */
+        long hits;
+    }
+
+    private final Queue<Lookups> threads = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Lookups> lookups = ThreadLocal.withInitial(() -> {
+        Lookups l = new Lookups();
+        threads.add(l);
+        return l;
+    });
+
+    /**
+     * @param source - source of the tiles that are not in the cache
+     * @param budget - the maximum number of bytes used by the cached tiles, at least enough for one set
+     */
+    public SlimeTileCache(SlimeChunkSource source, long budget) {
+        this.source = source;
+        int sets = (int) Long.highestOneBit(Math.max(1, Math.min(budget / (WAYS * TILE_BYTES), 1 << 24)));
+        setMask = sets - 1;
+        slots = new AtomicReferenceArray<>(sets * WAYS);
+        locks = new Object[sets];
+        for (int i = 0; i < sets; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private int set(int tileX, int tileZ) {
+        int h = tileX * 0x9E3779B1 ^ tileZ * 0x85EBCA77;
+        return (h ^ h >>> 16) & setMask;
+    }
+
+    private Tile tile(int tileX, int tileZ) {
+        Lookups l = lookups.get();
+        Tile tile = l.last;
+        if (tile != null && tile.tileX == tileX && tile.tileZ == tileZ) return hit(tile, l);
+        int set = set(tileX, tileZ);
+        for (int i = set * WAYS; i < set * WAYS + WAYS; i++) {
+            tile = slots.get(i);
+            if (tile != null && tile.tileX == tileX && tile.tileZ == tileZ) return l.last = hit(tile, l);
+        }
+        return l.last = load(tileX, tileZ, set, l);
+    }
+
+    private Tile hit(Tile tile, Lookups l) {
+        ++l.hits;
+        long now = clock.get();
+        if (tile.used != now) tile.used = now;
+        return tile;
+    }
+
+    /**
+     * Computes the tile and stores it in place of the least recently used tile of its set unless
+     * another thread stored it first, in which case the lookup counts as a hit.
+     */
+    private Tile load(int tileX, int tileZ, int set, Lookups l) {
+        long[] rows = new long[TILE_WIDTH];
+        for (int i = 0; i < TILE_WIDTH; i++) {
+            source.row(tileX << TILE_BITS, (tileZ << TILE_BITS) + i, TILE_WIDTH, rows, i);
+        }
+        synchronized (locks[set]) {
+            // the slots of a set are filled in order and never emptied
+            int victim = set * WAYS;
+            for (int i = set * WAYS; i < set * WAYS + WAYS; i++) {
+                Tile tile = slots.get(i);
+                if (tile == null) {
+                    victim = i;
+                    break;
+                }
+                if (tile.tileX == tileX && tile.tileZ == tileZ) return hit(tile, l);
+                if (tile.used < slots.get(victim).used) victim = i;
+            }
+            Tile tile = new Tile(tileX, tileZ, rows, clock.incrementAndGet());
+            slots.set(victim, tile);
+            return tile;
+        }
+    }
+
+    @Override
+    protected long tileRow(int tileX, int chunkZ) {
+        return tile(tileX, chunkZ >> TILE_BITS).rows[chunkZ & (TILE_WIDTH - 1)];
+    }
+
+    @Override
+    public boolean isSlimeChunk(int chunkX, int chunkZ) {
+        return (tileRow(chunkX >> TILE_BITS, chunkZ) >>> chunkX & 1) != 0;
+    }
+
+    /**
+     * Looks up each of the at most two tiles the column crosses once instead of once per chunk.
+     */
+    @Override
+    public int column(int chunkX, int minZ, int count) {
+        int tileX = chunkX >> TILE_BITS, shift = chunkX & (TILE_WIDTH - 1);
+        int column = 0;
+        for (int i = 0; i < count; ) {
+            int chunkZ = minZ + i;
+            long[] rows = tile(tileX, chunkZ >> TILE_BITS).rows;
+            int end = Math.min(count, i + TILE_WIDTH - (chunkZ & (TILE_WIDTH - 1)));
+            for (; i < end; i++) {
+                column |= (int) (rows[(minZ + i) & (TILE_WIDTH - 1)] >>> shift & 1) << i;
+            }
+        }
+        return column;
+    }
+
+    /**
+     * @return the number of lookups of a tile that was in the cache, which may lag behind the
+     * lookups of threads that are still using the cache
+     */
+    public long hits() {
+        long hits = 0;
+        for (Lookups l : threads) hits += l.hits;
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups of a tile that had to be computed and stored
+     */
+    public long misses() {
+        return clock.get();
+    }
+
+    /**
+     * @return the maximum number of tiles in the cache
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return the number of tiles in the cache
+     */
+    public int tileCount() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) ++count;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,44 @@
+package slimefinder.core.slime;
+
+/**
+ * A source of slime chunks stored in tiles of TILE_WIDTH x TILE_WIDTH chunks
+ * aligned with the chunk coordinates. Rows of any length and position are
+ * stitched together from the rows of the tiles they cross.
+ */
+public abstract class TiledSlimeChunks implements SlimeChunkSource {
+
+    public static final int TILE_BITS = 6;
+    public static final int TILE_WIDTH = 1 << TILE_BITS;
+
+    /**
+     * @return the row of TILE_WIDTH chunks starting from chunk (tileX << TILE_BITS, chunkZ), bit i
+     * being set if chunk ((tileX << TILE_BITS) + i, chunkZ) is a slime chunk
+     */
+    protected abstract long tileRow(int tileX, int chunkZ);
+
+    @Override
+    public void row(int minX, int chunkZ, int count, long[] words, int offset) {
+        int tileX = minX >> TILE_BITS, shift = minX & (TILE_WIDTH - 1);
+        int wordCount = (count + 63) >>> 6;
+        long current = tileRow(tileX, chunkZ);
+        for (int i = 0; i < wordCount; i++) {
+            boolean last = i == wordCount - 1;
+            // the chunks of the word continue in the next tile unless the word is aligned with the tiles
+            // or the chunks of the last word end in this tile
+            boolean spans = shift != 0 && (!last || shift + (count - 64 * i) > TILE_WIDTH);
+            long next = spans || !last ? tileRow(++tileX, chunkZ) : 0;
+            long word = shift == 0 ? current : current >>> shift | (spans ? next << (64 - shift) : 0);
+            if (last && (count & 63) != 0) word &= (1L << (count & 63)) - 1;
+            words[offset + i] = word;
+            current = next;
+        }
+    }
+
+    @Override
+    public int row(int minX, int chunkZ, int count) {
+        int tileX = minX >> TILE_BITS, shift = minX & (TILE_WIDTH - 1);
+        long bits = tileRow(tileX, chunkZ) >>> shift;
+        if (shift + count > TILE_WIDTH) bits |= tileRow(tileX + 1, chunkZ) << (64 - shift);
+        return (int) bits & (int) ((1L << count) - 1);
+    }
+}
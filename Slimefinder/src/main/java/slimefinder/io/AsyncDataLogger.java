@@ -0,0 +1,282 @@
+package slimefinder.io;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+import slimefinder.core.mask.MaskData;
+
+import static slimefinder.util.FormatHelper.CHUNK_SEP;
+import static slimefinder.util.FormatHelper.COORD_SEP;
+import static slimefinder.util.FormatHelper.LN;
+
+/**
+ * Writes the same output as DataLogger on a separate writer thread. The
+ * search threads only copy each match into a lock-free queue. The writer
+ * thread formats the matches into a reusable byte buffer and writes the
+ * buffer to the file when it is full or when FLUSH_INTERVAL has passed
+ * since the previous write.
+ */
+public class AsyncDataLogger implements IDataLogger {
+
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Upper bound for the length of a formatted line in bytes
+     */
+    private static final int MAX_LINE_LENGTH = 256;
+
+    /**
+     * Maximum time in nanoseconds that formatted matches wait in the buffer
+     */
+    private static final long FLUSH_INTERVAL = 1000000000L;
+
+    /**
+     * Time in nanoseconds the writer thread sleeps when the queue is empty
+     */
+    private static final long IDLE_WAIT = 1000000L;
+
+    private final CLI cli;
+    private final int queueCapacity;
+    private final byte[] buffer;
+    private MatchQueue queue;
+    private int length;
+
+    private FileOutputStream out;
+    private Thread writer;
+
+    /**
+     * Number of records that have been removed from the queue and written to the file
+     */
+    private volatile long written;
+    private volatile boolean flushRequested, closing;
+    private volatile IOException failure;
+
+    public AsyncDataLogger(CLI cli) {
+        this(cli, QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param queueCapacity - number of matches that can wait to be written before writing blocks
+     */
+    AsyncDataLogger(CLI cli, int queueCapacity) {
+        this.cli = cli;
+        this.queueCapacity = queueCapacity;
+        queue = new MatchQueue(queueCapacity);
+        buffer = new byte[BUFFER_SIZE];
+    }
+
+    @Override
+    public void start(String filename, boolean append) throws IOException {
+        out = null;
+        writer = null;
+        length = 0;
+        try {
+            out = new FileOutputStream(filename, append);
+        } catch (IOException ex) {
+            cli.error("Could not open the output file");
+            throw ex;
+        }
+        if (!append) {
+            append("block-position" + DataLogger.DELIMITER + "chunk-position" + DataLogger.DELIMITER +
+                "blockSize" + DataLogger.DELIMITER + "chunkSize" + LN);
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+        // A queue closed after a failure may hold records claimed by producers that gave up, which
+        // would never be published, so every start begins with an empty queue
+        queue = new MatchQueue(queueCapacity);
+        written = 0;
+        closing = false;
+        failure = null;
+        writer = new Thread(this::run, "slimefinder-output");
+        writer.start();
+    }
+
+    @Override
+    public void resume(String filename, long length) throws IOException {
+        DataLogger.truncate(filename, length, cli);
+        start(filename, true);
+    }
+
+    /**
+     * Adds the match to the queue of the writer thread. Waits if the queue is full.
+     *
+     * @throws IOException if the writer thread has failed to write the output or the logger has been closed
+     */
+    @Override
+    public void write(MaskData m) throws IOException {
+        checkFailure();
+        if (!queue.offer(m)) {
+            checkFailure();
+            throw new IOException("The output file has been closed");
+        }
+    }
+
+    /**
+     * Waits until the writer thread has written every match added before this call and saves the
+     * output file on disk.
+     */
+    @Override
+    public long checkpoint() throws IOException {
+        long target = queue.added();
+        flushRequested = true;
+        LockSupport.unpark(writer);
+        try {
+            while (written < target) {
+                checkFailure();
+                LockSupport.parkNanos(IDLE_WAIT);
+            }
+        } finally {
+            flushRequested = false;
+        }
+        try {
+            out.getFD().sync();
+            return out.getChannel().size();
+        } catch (IOException ex) {
+            cli.error("Could not save the output file");
+            throw ex;
+        }
+    }
+
+    /**
+     * Lets the writer thread write every queued match and closes the output file.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        queue.close();
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ex) {
+            cli.error("Could not save the output file");
+        }
+    }
+
+    /**
+     * @return the number of matches waiting to be written
+     */
+    @Override
+    public long getQueueDepth() {
+        return queue.size();
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) throw failure;
+    }
+
+    private void run() {
+        int[] record = new int[MatchQueue.RECORD_SIZE];
+        long lastFlush = System.nanoTime();
+        try {
+            while (true) {
+                boolean idle = true;
+                while (queue.poll(record)) {
+                    idle = false;
+                    format(record);
+                    if (length > BUFFER_SIZE - MAX_LINE_LENGTH) {
+                        flushBuffer();
+                        lastFlush = System.nanoTime();
+                    }
+                }
+                boolean done = closing && queue.removed() == queue.added();
+                if (length > 0 && (done || flushRequested || System.nanoTime() - lastFlush >= FLUSH_INTERVAL)) {
+                    flushBuffer();
+                    lastFlush = System.nanoTime();
+                }
+                if (length == 0) written = queue.removed();
+                if (done) return;
+                if (idle) LockSupport.parkNanos(IDLE_WAIT);
+            }
+        } catch (IOException ex) {
+            cli.error("Could not write on the output file");
+            failure = ex;
+            queue.close();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+
+    /**
+     * Appends a line in the format of DataLogger to the buffer:
+     * -44,12;-3c4,0c12;4005/49640;18/222
+     */
+    private void format(int[] r) {
+        int chunkX = r[0], chunkZ = r[1], inX = r[2], inZ = r[3];
+        if (inX == MatchQueue.NO_IN) {
+            append(16 * chunkX);
+            append(COORD_SEP);
+            append(16 * chunkZ);
+            append(" to ");
+            append(16 * (chunkX + 1) - 1);
+            append(COORD_SEP);
+            append(16 * (chunkZ + 1) - 1);
+            append(DataLogger.DELIMITER);
+            append(chunkX);
+            append(CHUNK_SEP + COORD_SEP);
+            append(chunkZ);
+            append(CHUNK_SEP);
+        } else {
+            append(16 * chunkX + inX);
+            append(COORD_SEP);
+            append(16 * chunkZ + inZ);
+            append(DataLogger.DELIMITER);
+            append(chunkX);
+            append(CHUNK_SEP);
+            append(inX);
+            append(COORD_SEP);
+            append(chunkZ);
+            append(CHUNK_SEP);
+            append(inZ);
+        }
+        append(DataLogger.DELIMITER);
+        append(r[4]);
+        append("/");
+        append(r[6]);
+        append(DataLogger.DELIMITER);
+        append(r[5]);
+        append("/");
+        append(r[7]);
+        append(LN);
+    }
+
+    private void append(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            buffer[length++] = (byte) str.charAt(i);
+        }
+    }
+
+    /**
+     * Appends the decimal representation of the integer without creating a string
+     */
+    private void append(int value) {
+        long v = value;
+        if (v < 0) {
+            buffer[length++] = '-';
+            v = -v;
+        }
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte b = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = b;
+        }
+    }
+}
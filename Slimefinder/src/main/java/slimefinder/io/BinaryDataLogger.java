@@ -0,0 +1,117 @@
+package slimefinder.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.io.properties.MaskProperties;
+
+/**
+ * Writes matches in the binary results format described in BinaryResults.
+ * Records are collected into a buffer which is written on the file when it
+ * is full, on checkpoints and when the logger is closed.
+ */
+public class BinaryDataLogger implements IDataLogger {
+
+    private static final int BUFFER_SIZE = 4096 * BinaryResults.RECORD_SIZE;
+
+    private final CLI cli;
+    private final MaskProperties pMask;
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+
+    public BinaryDataLogger(CLI cli, MaskProperties pMask) {
+        this.cli = cli;
+        this.pMask = pMask;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BinaryResults.ORDER);
+    }
+
+    /**
+     * Opens the output file. A new file starts with a header describing the mask. When appending
+     * to an existing file its header must describe the same mask.
+     */
+    @Override
+    public void start(String filename, boolean append) throws IOException {
+        channel = null;
+        try {
+            channel = append ?
+                FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE) :
+                FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException ex) {
+            cli.error("Could not open the output file");
+            throw ex;
+        }
+        buffer.clear();
+        if (channel.size() == 0) {
+            BinaryResults.putHeader(buffer, pMask);
+            flush();
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(BinaryResults.HEADER_SIZE).order(BinaryResults.ORDER);
+        try {
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0);
+            header.flip();
+            if (!BinaryResults.sameMask(BinaryResults.getHeader(header), pMask))
+                throw new IOException("Mask properties of '" + filename + "' differ");
+            if ((channel.size() - BinaryResults.HEADER_SIZE) % BinaryResults.RECORD_SIZE != 0)
+                throw new IOException("'" + filename + "' ends with an incomplete record");
+        } catch (IOException ex) {
+            cli.error("Can not append to the output file: " + ex.getMessage());
+            channel.close();
+            channel = null;
+            throw ex;
+        }
+        channel.position(channel.size());
+    }
+
+    @Override
+    public void resume(String filename, long length) throws IOException {
+        DataLogger.truncate(filename, length, cli);
+        start(filename, true);
+    }
+
+    @Override
+    public void write(MaskData m) throws IOException {
+        if (buffer.remaining() < BinaryResults.RECORD_SIZE) flush();
+        BinaryResults.put(buffer, m);
+    }
+
+    @Override
+    public long checkpoint() throws IOException {
+        flush();
+        try {
+            channel.force(false);
+            return channel.position();
+        } catch (IOException ex) {
+            cli.error("Could not save the output file");
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) return;
+        try {
+            flush();
+            channel.close();
+        } catch (IOException ex) {
+            cli.error("Could not save the output file");
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException ex) {
+            cli.error("Could not write on the output file");
+            throw ex;
+        } finally {
+            buffer.clear();
+        }
+    }
+}
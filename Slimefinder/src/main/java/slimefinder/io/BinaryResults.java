@@ -0,0 +1,155 @@
+package slimefinder.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.core.slime.SlimeAlgorithm;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.util.Point;
+
+import static slimefinder.io.properties.MaskProperties.*;
+
+/**
+ * Layout of the binary results file. The file starts with a header of
+ * HEADER_SIZE bytes followed by one record of RECORD_SIZE bytes per match.
+ * All values are little-endian.
+ *
+ * Header:
+ *   0  magic "SLIMERES"
+ *   8  int   version
+ *  12  int   record size
+ *  16  long  world-seed
+ *  24  short y-offset
+ *  26  byte  slime-algorithm, the ordinal of the SlimeAlgorithm
+ *  27  byte  unused
+ *  28  short chunk-weight
+ *  30  byte  despawn-sphere
+ *  31  byte  exclusion-sphere
+ *
+ * Record:
+ *   0  int   chunk x
+ *   4  int   chunk z
+ *   8  byte  within-chunk x, -1 if the match covers the whole chunk
+ *   9  byte  within-chunk z, -1 if the match covers the whole chunk
+ *  10  short chunk size
+ *  12  int   block size
+ *  16  int   block surface area
+ *  20  short chunk surface area
+ *  22  short unused
+ */
+public final class BinaryResults {
+
+    public static final byte[] MAGIC = {'S', 'L', 'I', 'M', 'E', 'R', 'E', 'S'};
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 24;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private BinaryResults() {
+    }
+
+    public static void putHeader(ByteBuffer b, MaskProperties pMask) {
+        b.put(MAGIC);
+        b.putInt(VERSION);
+        b.putInt(RECORD_SIZE);
+        b.putLong(pMask.getLong(SEED));
+        b.putShort((short) (int) pMask.getInt(OFFSET));
+        b.put((byte) SlimeAlgorithm.get(pMask).ordinal());
+        b.put((byte) 0);
+        b.putShort((short) (int) pMask.getInt(WEIGHT));
+        b.put((byte) (pMask.getBoolean(DESPAWN) ? 1 : 0));
+        b.put((byte) (pMask.getBoolean(EXCLUSION) ? 1 : 0));
+    }
+
+    /**
+     * Reads the header and returns the mask properties stored in it.
+     *
+     * @throws IOException if the buffer does not contain a header of a supported version
+     */
+    public static MaskProperties getHeader(ByteBuffer b) throws IOException {
+        if (b.remaining() < HEADER_SIZE) throw new IOException("Missing binary results header");
+        for (byte m : MAGIC) {
+            if (b.get() != m) throw new IOException("Not a binary results file");
+        }
+        int version = b.getInt();
+        int recordSize = b.getInt();
+        if (version != VERSION || recordSize != RECORD_SIZE)
+            throw new IOException("Unsupported binary results version " + version);
+        MaskProperties pMask = new MaskProperties();
+        pMask.setProperty(SEED, b.getLong());
+        pMask.setProperty(OFFSET, (int) b.getShort());
+        int algorithm = b.get();
+        if (algorithm < 0 || algorithm >= SlimeAlgorithm.values().length)
+            throw new IOException("Unknown slime algorithm " + algorithm);
+        pMask.setProperty(ALGORITHM, (Object) SlimeAlgorithm.values()[algorithm].toString());
+        b.get();
+        pMask.setProperty(WEIGHT, (int) b.getShort());
+        pMask.setProperty(DESPAWN, b.get() != 0);
+        pMask.setProperty(EXCLUSION, b.get() != 0);
+        return pMask;
+    }
+
+    public static void put(ByteBuffer b, MaskData m) {
+        b.putInt(m.chunk.x);
+        b.putInt(m.chunk.z);
+        b.put((byte) (m.in == null ? -1 : m.in.x));
+        b.put((byte) (m.in == null ? -1 : m.in.z));
+        b.putShort((short) m.chunkSize);
+        b.putInt(m.blockSize);
+        b.putInt(m.blockSurfaceArea);
+        b.putShort((short) m.chunkSurfaceArea);
+        b.putShort((short) 0);
+    }
+
+    /**
+     * Reads a record into the given mask data reusing its points when possible.
+     */
+    public static void get(ByteBuffer b, MaskData m) {
+        int chunkX = b.getInt(), chunkZ = b.getInt();
+        int inX = b.get(), inZ = b.get();
+        if (m.chunk == null) m.chunk = new Point(chunkX, chunkZ);
+        else m.chunk.setPoint(chunkX, chunkZ);
+        if (inX < 0) m.in = null;
+        else if (m.in == null) m.in = new Point(inX, inZ);
+        else m.in.setPoint(inX, inZ);
+        m.chunkSize = b.getShort();
+        m.blockSize = b.getInt();
+        m.blockSurfaceArea = b.getInt();
+        m.chunkSurfaceArea = b.getShort();
+        b.getShort();
+    }
+
+    /**
+     * @return true if the file starts with the binary results magic
+     */
+    public static boolean isBinary(File file) {
+        if (!file.isFile() || file.length() < MAGIC.length) return false;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate(MAGIC.length);
+            while (b.hasRemaining() && channel.read(b) >= 0);
+            b.flip();
+            return b.equals(ByteBuffer.wrap(MAGIC));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the two mask properties describe the same mask on the same slime chunks
+     */
+    public static boolean sameMask(MaskProperties a, MaskProperties b) {
+        return
+            SlimeAlgorithm.get(a) == SlimeAlgorithm.get(b) &&
+            Objects.equals(a.getLong(SEED), b.getLong(SEED)) &&
+            Objects.equals(a.getInt(OFFSET), b.getInt(OFFSET)) &&
+            Objects.equals(a.getInt(WEIGHT), b.getInt(WEIGHT)) &&
+            Objects.equals(a.getBoolean(DESPAWN), b.getBoolean(DESPAWN)) &&
+            Objects.equals(a.getBoolean(EXCLUSION), b.getBoolean(EXCLUSION));
+    }
+}
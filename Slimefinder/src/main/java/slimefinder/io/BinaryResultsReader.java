@@ -0,0 +1,108 @@
+package slimefinder.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.io.properties.MaskProperties;
+
+/**
+ * Reads a binary results file by memory-mapping it one window of records at
+ * a time, so files larger than 2 GB can be read too.
+ */
+public class BinaryResultsReader implements Closeable {
+
+    /**
+     * Number of records mapped at once
+     */
+    private static final int WINDOW_RECORDS = 1 << 20;
+
+    private final FileChannel channel;
+    private final MaskProperties pMask;
+    private final long records;
+
+    private MappedByteBuffer window;
+    private long windowStart, windowEnd;
+
+    /**
+     * Index of the next record returned by next
+     */
+    private long index;
+
+    public BinaryResultsReader(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, BinaryResults.HEADER_SIZE));
+            pMask = BinaryResults.getHeader(header.order(BinaryResults.ORDER));
+            records = (size - BinaryResults.HEADER_SIZE) / BinaryResults.RECORD_SIZE;
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return the mask properties of the search that produced the file
+     */
+    public MaskProperties getMaskProperties() {
+        return pMask;
+    }
+
+    /**
+     * @return the number of complete records in the file
+     */
+    public long size() {
+        return records;
+    }
+
+    /**
+     * @return the number of bytes read so far including the header
+     */
+    public long bytesRead() {
+        return BinaryResults.HEADER_SIZE + index * BinaryResults.RECORD_SIZE;
+    }
+
+    /**
+     * Reads the next record into the given mask data.
+     *
+     * @return false if all records have been read
+     */
+    public boolean next(MaskData m) throws IOException {
+        if (index >= records) return false;
+        get(index++, m);
+        return true;
+    }
+
+    /**
+     * Reads the record with the given index into the given mask data.
+     */
+    public void get(long index, MaskData m) throws IOException {
+        if (index < 0 || index >= records) throw new IndexOutOfBoundsException("Record " + index + " of " + records);
+        if (index < windowStart || index >= windowEnd) map(index);
+        window.position((int) (index - windowStart) * BinaryResults.RECORD_SIZE);
+        BinaryResults.get(window, m);
+    }
+
+    private void map(long index) throws IOException {
+        windowStart = index - index % WINDOW_RECORDS;
+        windowEnd = Math.min(records, windowStart + WINDOW_RECORDS);
+        window = channel.map(
+            FileChannel.MapMode.READ_ONLY,
+            BinaryResults.HEADER_SIZE + windowStart * BinaryResults.RECORD_SIZE,
+            (windowEnd - windowStart) * BinaryResults.RECORD_SIZE
+        );
+        window.order(BinaryResults.ORDER);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
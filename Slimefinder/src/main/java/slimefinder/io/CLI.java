@@ -72,7 +72,13 @@ public class CLI {
             "  Read positions from a file and draw images of them" + LN +
             LN +
             "-s" + LN +
-            "  Search for positions with specific slime chunk patterns and save them to a file"
+            "  Search for positions with specific slime chunk patterns and save them to a file" + LN +
+            LN +
+            "-w" + LN +
+            "  Search for world seeds with large slime chunk clusters near a fixed position and save them to a file" + LN +
+            LN +
+            "-c <input-file> <output-file>" + LN +
+            "  Convert a results file from csv to binary format or from binary to csv format"
         );
         flush();
     }
@@ -1,7 +1,12 @@
 package slimefinder.io;
 
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import slimefinder.core.mask.MaskData;
 import slimefinder.util.FormatHelper;
@@ -10,7 +15,8 @@ import static slimefinder.util.FormatHelper.LN;
 
 public class DataLogger implements IDataLogger {
 
-    private FileWriter w;
+    private FileOutputStream out;
+    private Writer w;
     public static final String DELIMITER = ";";
     private CLI cli;
 
@@ -53,8 +59,10 @@ public class DataLogger implements IDataLogger {
     }
 
     public void start(String filename, boolean append) throws IOException {
+        w = null;
         try {
-            w = new FileWriter(filename, append);
+            out = new FileOutputStream(filename, append);
+            w = new OutputStreamWriter(out);
         } catch (IOException ex) {
             cli.error("Could not open the output file");
             throw ex;
@@ -63,7 +71,44 @@ public class DataLogger implements IDataLogger {
             write("block-position", "chunk-position", "blockSize", "chunkSize");
     }
 
+    @Override
+    public void resume(String filename, long length) throws IOException {
+        truncate(filename, length, cli);
+        start(filename, true);
+    }
+
+    /**
+     * Discards everything after the first length bytes of the file.
+     *
+     * @throws IOException if the file is shorter than length or could not be truncated
+     */
+    static void truncate(String filename, long length, CLI cli) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.WRITE)) {
+            if (channel.size() < length) {
+                cli.error("The output file is shorter than when the checkpoint was made");
+                throw new IOException("Output file '" + filename + "' is shorter than " + length + " bytes");
+            }
+            channel.truncate(length);
+        } catch (IOException ex) {
+            cli.error("Could not resume writing the output file");
+            throw ex;
+        }
+    }
+
+    @Override
+    public long checkpoint() throws IOException {
+        try {
+            w.flush();
+            out.getFD().sync();
+            return out.getChannel().size();
+        } catch (IOException ex) {
+            cli.error("Could not save the output file");
+            throw ex;
+        }
+    }
+
     public void close() {
+        if (w == null) return;
         try {
             w.close();
         } catch (IOException ex) {
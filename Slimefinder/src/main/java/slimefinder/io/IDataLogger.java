@@ -8,4 +8,25 @@ public interface IDataLogger {
     void start(String filename, boolean append) throws IOException;
     void close();
     void write(MaskData m) throws IOException;
+
+    /**
+     * Opens an existing output file, discards everything after the first length bytes and
+     * continues appending to it. This is used when a search is resumed from a checkpoint so that
+     * the matches written after the checkpoint are not listed twice.
+     */
+    void resume(String filename, long length) throws IOException;
+
+    /**
+     * Makes sure that everything written so far has been saved.
+     *
+     * @return the length of the output in bytes, which is given to {@link #resume(String, long)}
+     */
+    long checkpoint() throws IOException;
+
+    /**
+     * @return the number of matches that have been given to the logger but not yet written
+     */
+    default long getQueueDepth() {
+        return 0;
+    }
 }
@@ -0,0 +1,134 @@
+package slimefinder.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import slimefinder.core.mask.MaskData;
+
+/**
+ * A bounded lock-free queue of match records with any number of producers
+ * and a single consumer. Each record is a fixed number of ints stored in a
+ * preallocated ring, so adding a record never allocates. A producer claims
+ * a slot by incrementing the tail and then publishes the record by storing
+ * its sequence number in the slot. When the ring is full producers wait for
+ * the consumer until the queue is closed.
+ */
+class MatchQueue {
+
+    /**
+     * chunkX, chunkZ, inX, inZ, blockSize, chunkSize, blockSurfaceArea, chunkSurfaceArea
+     */
+    static final int RECORD_SIZE = 8;
+
+    /**
+     * Value of inX and inZ for records without a within-chunk position
+     */
+    static final int NO_IN = Integer.MIN_VALUE;
+
+    private final int mask;
+    private final int[] records;
+
+    /**
+     * published[slot] is one more than the sequence number of the record in the slot once the
+     * record has been completely written
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * Sequence number of the next record to be claimed by a producer
+     */
+    private final AtomicLong tail;
+
+    /**
+     * Sequence number of the next record to be read by the consumer
+     */
+    private volatile long head;
+
+    /**
+     * True once the consumer has stopped removing records
+     */
+    private volatile boolean closed;
+
+    /**
+     * @param capacity - maximum number of records in the queue, rounded up to a power of two
+     */
+    MatchQueue(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        records = new int[size * RECORD_SIZE];
+        published = new AtomicLongArray(size);
+        tail = new AtomicLong();
+    }
+
+    /**
+     * Adds a record of the given mask data to the queue waiting for free space if the queue is full.
+     *
+     * @return false if the queue was closed before the record could be added
+     */
+    boolean offer(MaskData m) {
+        if (closed) return false;
+        long sequence = tail.getAndIncrement();
+        while (sequence - head >= published.length()) {
+            if (closed) return false;
+            LockSupport.parkNanos(1000);
+        }
+        int slot = (int) sequence & mask;
+        int i = slot * RECORD_SIZE;
+        records[i] = m.chunk.x;
+        records[i + 1] = m.chunk.z;
+        records[i + 2] = m.in == null ? NO_IN : m.in.x;
+        records[i + 3] = m.in == null ? NO_IN : m.in.z;
+        records[i + 4] = m.blockSize;
+        records[i + 5] = m.chunkSize;
+        records[i + 6] = m.blockSurfaceArea;
+        records[i + 7] = m.chunkSurfaceArea;
+        published.lazySet(slot, sequence + 1);
+        return true;
+    }
+
+    /**
+     * Makes the producers waiting for free space and the producers offering records later give up,
+     * for example when the consumer has failed. The records claimed by the producers that gave up
+     * are never published, so a closed queue can not be used again.
+     */
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Removes the record at the head of the queue. Must only be called by the consumer.
+     *
+     * @param record - array of length RECORD_SIZE into which the record is copied
+     * @return true if a record was removed, false if the next record has not been published yet
+     */
+    boolean poll(int[] record) {
+        long sequence = head;
+        int slot = (int) sequence & mask;
+        if (published.get(slot) != sequence + 1) return false;
+        System.arraycopy(records, slot * RECORD_SIZE, record, 0, RECORD_SIZE);
+        head = sequence + 1;
+        return true;
+    }
+
+    /**
+     * @return the number of records removed from the queue so far
+     */
+    long removed() {
+        return head;
+    }
+
+    /**
+     * @return the number of records claimed by producers so far
+     */
+    long added() {
+        return tail.get();
+    }
+
+    /**
+     * @return the number of records waiting in the queue
+     */
+    long size() {
+        return Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,116 @@
+package slimefinder.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.util.Point;
+import slimefinder.util.Position;
+
+/**
+ * Converts results files between the csv format written by DataLogger and
+ * the binary format written by BinaryDataLogger.
+ */
+public final class ResultsConverter {
+
+    private ResultsConverter() {
+    }
+
+    /**
+     * Converts the input file into the other format. Binary input files are recognized by their header.
+     *
+     * @param pMask - mask properties written in the header of the binary file when the input is a csv-file
+     * @return the number of matches converted
+     */
+    public static long convert(String input, String output, MaskProperties pMask, CLI cli) throws IOException {
+        if (BinaryResults.isBinary(new File(input)))
+            return binaryToCsv(input, output, cli);
+        return csvToBinary(input, output, pMask, cli);
+    }
+
+    /**
+     * Converts a csv results file into a binary one. Empty lines, comments and the header are
+     * skipped and lines that can not be parsed are skipped with a warning.
+     */
+    public static long csvToBinary(String input, String output, MaskProperties pMask, CLI cli) throws IOException {
+        BinaryDataLogger logger = new BinaryDataLogger(cli, pMask);
+        long lineNumber = 0, converted = 0;
+        MaskData m = new MaskData();
+        try (BufferedReader reader = Files.newBufferedReader(new File(input).toPath())) {
+            logger.start(output, false);
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ++lineNumber;
+                    line = line.trim();
+                    if (line.isEmpty() || line.charAt(0) == '#') continue;
+                    if (parseLine(line, m)) {
+                        logger.write(m);
+                        ++converted;
+                    } else if (lineNumber > 1) {
+                        cli.warning("Parsing line " + lineNumber + " failed");
+                    }
+                }
+            } finally {
+                logger.close();
+            }
+        } catch (IOException ex) {
+            cli.error("Could not convert '" + input + "'");
+            throw ex;
+        }
+        return converted;
+    }
+
+    /**
+     * Converts a binary results file into a csv one.
+     */
+    public static long binaryToCsv(String input, String output, CLI cli) throws IOException {
+        DataLogger logger = new DataLogger(cli);
+        long converted = 0;
+        MaskData m = new MaskData();
+        try (BinaryResultsReader reader = new BinaryResultsReader(new File(input))) {
+            logger.start(output, false);
+            try {
+                while (reader.next(m)) {
+                    logger.write(m);
+                    ++converted;
+                }
+            } finally {
+                logger.close();
+            }
+        } catch (IOException ex) {
+            cli.error("Could not convert '" + input + "'");
+            throw ex;
+        }
+        return converted;
+    }
+
+    /**
+     * Parses a line in the csv format, for example: -44,12;-3c4,0c12;4005/49640;18/222
+     *
+     * @return false if the line is not in the csv format
+     */
+    static boolean parseLine(String line, MaskData m) {
+        String[] fields = line.split(DataLogger.DELIMITER, -1);
+        if (fields.length != 4) return false;
+        try {
+            String[] block = fields[0].split(" to ", -1);
+            Position pos = Position.parsePos(block.length == 2 ? block[0] : fields[1]);
+            m.chunk = new Point(pos.chunk);
+            m.in = block.length == 2 ? null : new Point(pos.in);
+            String[] blockSize = fields[2].split("/", -1);
+            String[] chunkSize = fields[3].split("/", -1);
+            if (blockSize.length != 2 || chunkSize.length != 2) return false;
+            m.blockSize = Integer.parseInt(blockSize[0].trim());
+            m.blockSurfaceArea = Integer.parseInt(blockSize[1].trim());
+            m.chunkSize = Integer.parseInt(chunkSize[0].trim());
+            m.chunkSurfaceArea = Integer.parseInt(chunkSize[1].trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
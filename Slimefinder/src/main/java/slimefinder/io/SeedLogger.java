@@ -0,0 +1,100 @@
+package slimefinder.io;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.FormatHelper;
+
+import static slimefinder.io.DataLogger.DELIMITER;
+import static slimefinder.util.FormatHelper.LN;
+
+/**
+ * Writes the world seeds found by a seed search to a csv file together with
+ * the positions of their largest block and chunk sizes.
+ */
+public class SeedLogger {
+
+    private FileOutputStream out;
+    private Writer w;
+    private CLI cli;
+
+    public SeedLogger(CLI cli) {
+        this.cli = cli;
+    }
+
+    public void start(String filename, boolean append) throws IOException {
+        try {
+            out = new FileOutputStream(filename, append);
+            w = new OutputStreamWriter(out);
+        } catch (IOException ex) {
+            cli.error("Could not open the output file");
+            throw ex;
+        }
+        if (!append)
+            write("world-seed", "block-position", "blockSize", "chunk-position", "chunkSize");
+    }
+
+    /**
+     * Continues writing the file from its first length bytes.
+     */
+    public void resume(String filename, long length) throws IOException {
+        DataLogger.truncate(filename, length, cli);
+        start(filename, true);
+    }
+
+    /**
+     * @param seed
+     * @param maxBlock - the mask with the largest block size in the world
+     * @param maxChunk - the mask with the largest chunk size in the world
+     */
+    public void write(long seed, MaskData maxBlock, MaskData maxChunk) throws IOException {
+        write(
+            Long.toString(seed),
+            FormatHelper.blockPosFormat(maxBlock.chunk, maxBlock.in),
+            maxBlock.blockSize + "/" + maxBlock.blockSurfaceArea,
+            FormatHelper.blockPosFormat(maxChunk.chunk, maxChunk.in),
+            maxChunk.chunkSize + "/" + maxChunk.chunkSurfaceArea
+        );
+    }
+
+    private void write(String... fields) throws IOException {
+        StringBuilder str = new StringBuilder(fields[0]);
+        for (int i = 1; i < fields.length; i++) {
+            str.append(DELIMITER).append(fields[i]);
+        }
+        try {
+            w.write(str + LN);
+            w.flush();
+        } catch (IOException ex) {
+            cli.error("Could not write on the output file");
+            throw ex;
+        }
+    }
+
+    /**
+     * Makes sure everything written so far is on disk.
+     *
+     * @return the length of the file in bytes
+     */
+    public long checkpoint() throws IOException {
+        try {
+            w.flush();
+            out.getFD().sync();
+            return out.getChannel().size();
+        } catch (IOException ex) {
+            cli.error("Could not save the output file");
+            throw ex;
+        }
+    }
+
+    public void close() {
+        try {
+            if (w != null) w.close();
+        } catch (IOException ex) {
+            cli.error("Could not save the output file");
+        }
+    }
+}
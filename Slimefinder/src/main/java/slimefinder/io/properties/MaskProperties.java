@@ -7,16 +7,30 @@ public class MaskProperties extends AbstractProperties {
     public static final String EXCLUSION = "exclusion-sphere";
     public static final String OFFSET = "y-offset";
     public static final String WEIGHT = "chunk-weight";
+    public static final String ALGORITHM = "slime-algorithm";
+    public static final String ATLAS = "slime-atlas";
+    public static final String CACHE = "slime-cache";
 
     public MaskProperties() {
         super("mask");
     }
 
+    /**
+     * Creates a copy of the given properties whose values can be changed independently.
+     */
+    public MaskProperties(MaskProperties other) {
+        this();
+        values.putAll(other.values);
+    }
+
     protected void setDefaults() {
         defaultValues.put(SEED, 0L);
         defaultValues.put(DESPAWN, true);
         defaultValues.put(EXCLUSION, true);
         defaultValues.put(OFFSET, 0);
         defaultValues.put(WEIGHT, 0);
+        defaultValues.put(ALGORITHM, "java");
+        defaultValues.put(ATLAS, "");
+        defaultValues.put(CACHE, 0);
     }
 }
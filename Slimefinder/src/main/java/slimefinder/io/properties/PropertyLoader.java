@@ -8,6 +8,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Iterator;
 
+import slimefinder.core.slime.SlimeAlgorithm;
 import slimefinder.io.CLI;
 import slimefinder.util.Position;
 
@@ -125,10 +126,12 @@ public class PropertyLoader {
                     value = Long.parseLong(property);
                 } else if (klass.equals(Position.class)) {
                     value = Position.parsePos(property);
+                } else if (key.equals(MaskProperties.ALGORITHM)) {
+                    value = SlimeAlgorithm.parse(property).toString();
                 } else {
                     value = property;
                 }
-            } catch (NumberFormatException e) {
+            } catch (IllegalArgumentException e) {
                 Object defaultValue = properties.defaultValues.get(key);
                 properties.setProperty((String) key, defaultValue.toString());
                 properties.values.put((String) key, defaultValue);
@@ -16,6 +16,19 @@ public class SearchProperties extends AbstractProperties {
     public static final String MAX_CHUNK_SZ = "max-chunk-size";
     public static final String RESULTS = "output-file";
     public static final String APPEND = "append";
+    public static final String OUTPUT_FORMAT = "output-format";
+    public static final String THREADS = "threads";
+    public static final String REGION_PRUNING = "region-pruning";
+    public static final String BAND_SEARCH = "band-search";
+    public static final String RESUME = "resume";
+    public static final String CHECKPOINT_FILE = "checkpoint-file";
+    public static final String CHECKPOINT_INTERVAL = "checkpoint-interval";
+    public static final String ASYNC_OUTPUT = "async-output";
+    public static final String TOP_K = "top-k";
+    public static final String SCORE_BLOCK_WEIGHT = "score-block-weight";
+    public static final String SCORE_CHUNK_WEIGHT = "score-chunk-weight";
+    public static final String SUPPRESSION_RADIUS = "suppression-radius";
+    public static final String MASK_VARIANTS = "mask-variants";
 
     public SearchProperties() {
         super("search");
@@ -25,6 +38,7 @@ public class SearchProperties extends AbstractProperties {
         defaultValues.put(APPEND, false);
         defaultValues.put(FINE_SEARCH, false);
         defaultValues.put(RESULTS, "results.csv");
+        defaultValues.put(OUTPUT_FORMAT, "csv");
         defaultValues.put(CENTER_POS, new Position(0, 0));
         defaultValues.put(MAX_WIDTH, 1);
         defaultValues.put(MIN_WIDTH, 0);
@@ -32,5 +46,17 @@ public class SearchProperties extends AbstractProperties {
         defaultValues.put(MIN_BLOCK_SZ, 0);
         defaultValues.put(MAX_CHUNK_SZ, (2 * R_CHUNK + 1) * (2 * R_CHUNK + 1));
         defaultValues.put(MIN_CHUNK_SZ, 0);
+        defaultValues.put(THREADS, 0);
+        defaultValues.put(REGION_PRUNING, false);
+        defaultValues.put(BAND_SEARCH, false);
+        defaultValues.put(RESUME, false);
+        defaultValues.put(CHECKPOINT_FILE, "search.checkpoint");
+        defaultValues.put(CHECKPOINT_INTERVAL, 0);
+        defaultValues.put(ASYNC_OUTPUT, false);
+        defaultValues.put(TOP_K, 0);
+        defaultValues.put(SCORE_BLOCK_WEIGHT, 1);
+        defaultValues.put(SCORE_CHUNK_WEIGHT, 0);
+        defaultValues.put(SUPPRESSION_RADIUS, 0);
+        defaultValues.put(MASK_VARIANTS, "");
     }
 }
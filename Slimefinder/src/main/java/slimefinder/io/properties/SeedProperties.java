@@ -0,0 +1,38 @@
+package slimefinder.io.properties;
+
+import slimefinder.util.Position;
+
+public class SeedProperties extends AbstractProperties {
+
+    public static final String FIRST_SEED = "first-seed";
+    public static final String SEED_COUNT = "seed-count";
+    public static final String CENTER_POS = "center-pos";
+    public static final String RADIUS = "radius";
+    public static final String MIN_BLOCK_SZ = "min-block-size";
+    public static final String MIN_CHUNK_SZ = "min-chunk-size";
+    public static final String RESULTS = "output-file";
+    public static final String APPEND = "append";
+    public static final String THREADS = "threads";
+    public static final String RESUME = "resume";
+    public static final String CHECKPOINT_FILE = "checkpoint-file";
+    public static final String CHECKPOINT_INTERVAL = "checkpoint-interval";
+
+    public SeedProperties() {
+        super("seeds");
+    }
+
+    protected void setDefaults() {
+        defaultValues.put(FIRST_SEED, 0L);
+        defaultValues.put(SEED_COUNT, 1000000L);
+        defaultValues.put(CENTER_POS, new Position(0, 0));
+        defaultValues.put(RADIUS, 8);
+        defaultValues.put(MIN_BLOCK_SZ, 0);
+        defaultValues.put(MIN_CHUNK_SZ, 50);
+        defaultValues.put(RESULTS, "seeds.csv");
+        defaultValues.put(APPEND, false);
+        defaultValues.put(THREADS, 0);
+        defaultValues.put(RESUME, false);
+        defaultValues.put(CHECKPOINT_FILE, "seeds.checkpoint");
+        defaultValues.put(CHECKPOINT_INTERVAL, 0);
+    }
+}
@@ -0,0 +1,38 @@
+package slimefinder.core.slime;
+
+/**
+ * Tests up to 64 chunk seeds at once. This version is used on Java 17 and
+ * later. If the jdk.incubator.vector module has been added to the JVM with
+ * {@code --add-modules jdk.incubator.vector} and the processor has vectors of
+ * at least 4 longs, the seeds are tested with the Vector API. Otherwise the
+ * seeds are tested one by one.
+ */
+public final class SlimeSeedBatch {
+
+    /**
+     * The largest number of seeds tested at once
+     */
+    public static final int SIZE = 64;
+
+    private static final boolean VECTOR =
+        ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && VectorSlimeSeeds.isSupported();
+
+    private SlimeSeedBatch() {
+    }
+
+    /**
+     * @param seeds - chunk seeds, see {@link SlimeChunkOracle#chunkSeed(long, int, int)}
+     * @param count - number of seeds to test, at most SIZE
+     * @return bit i is set if seeds[i] is the seed of a slime chunk
+     */
+    public static long test(long[] seeds, int count) {
+        return VECTOR ? VectorSlimeSeeds.test(seeds, count) : SlimeSeeds.test(seeds, count);
+    }
+
+    /**
+     * @return a description of how the seeds are tested
+     */
+    public static String implementation() {
+        return VECTOR ? "vector of " + VectorSlimeSeeds.lanes() + " longs" : "scalar";
+    }
+}
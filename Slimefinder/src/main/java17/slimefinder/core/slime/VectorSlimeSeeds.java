@@ -0,0 +1,77 @@
+package slimefinder.core.slime;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static slimefinder.core.slime.SlimeChunkOracle.*;
+
+/**
+ * Tests chunk seeds with the Vector API, one lane per seed. The first step of
+ * the generator is computed for all lanes at once and the divisibility of the
+ * first value by 10 is tested with a multiplication. Lanes whose first
+ * value is rejected by nextInt(10) are tested again with the oracle.
+ */
+final class VectorSlimeSeeds {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Lane i of LANE_BITS is 1 << i. The lanes of a mask are collected into a long by selecting
+     * these bits and or-ing them together, which unlike VectorMask.toLong is compiled to vector
+     * instructions on Java 17.
+     */
+    private static final LongVector ZERO = LongVector.zero(SPECIES);
+    private static final LongVector LANE_BITS = laneBits();
+
+    private VectorSlimeSeeds() {
+    }
+
+    private static LongVector laneBits() {
+        long[] bits = new long[SPECIES.length()];
+        for (int i = 0; i < bits.length; i++) bits[i] = 1L << i;
+        return LongVector.fromArray(SPECIES, bits, 0);
+    }
+
+    static boolean isSupported() {
+        return SPECIES.length() >= 4;
+    }
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    static long test(long[] seeds, int count) {
+        long result = 0;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+            LongVector bits = LongVector.fromArray(SPECIES, seeds, i)
+                .lanewise(VectorOperators.XOR, MULTIPLIER)
+                .mul(MULTIPLIER)
+                .add(ADDEND)
+                .and(MASK)
+                .lanewise(VectorOperators.LSHR, 17);
+            // bits is divisible by 10 if it is even and bits / 2 times the inverse of 5 modulo 2^32
+            // is small, the 32-bit rotation is done on the low halves of the lanes
+            LongVector product = bits.mul(0xCCCCCCCDL).and(0xFFFFFFFFL);
+            LongVector rotated = product.lanewise(VectorOperators.LSHR, 1)
+                .or(product.lanewise(VectorOperators.LSHL, 31))
+                .and(0xFFFFFFFFL);
+            long lanes = ZERO.blend(LANE_BITS, rotated.compare(VectorOperators.LE, 429496729L)).reduceLanes(VectorOperators.OR);
+            VectorMask<Long> rejected = bits.compare(VectorOperators.GE, SlimeSeeds.REJECTED);
+            if (rejected.anyTrue()) {
+                for (int lane = 0; lane < SPECIES.length(); lane++) {
+                    if (!rejected.laneIsSet(lane)) continue;
+                    lanes &= ~(1L << lane);
+                    if (isSlimeSeed(seeds[i + lane])) lanes |= 1L << lane;
+                }
+            }
+            result |= lanes << i;
+        }
+        for (; i < count; i++) {
+            result |= (SlimeSeeds.isSlimeSeed(seeds[i]) ? 1L : 0L) << i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package slimefinder.core.mask;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import slimefinder.core.slime.SlimeBitmap;
+import slimefinder.io.properties.MaskProperties;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class ChunkSizeEngineTest {
+
+    private static final long WORLD_SEED = -77L;
+
+    private MaskProperties pMask;
+
+    @Before
+    public void setUp() {
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, WORLD_SEED);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(WEIGHT, 0);
+        pMask.setProperty(OFFSET, 0);
+    }
+
+    private void assertSizesMatch(Mask m, int minX, int minZ, int width, int height) {
+        SlimeBitmap slimeChunks = new SlimeBitmap(WORLD_SEED, minX - R_CHUNK, minZ - R_CHUNK, width + 2 * R_CHUNK, height + 2 * R_CHUNK);
+        ChunkSizeEngine engine = new ChunkSizeEngine(m.getKernel());
+        int[] sizes = engine.chunkSizes(slimeChunks, minX, minZ, width, height);
+        for (int z = 0; z < height; z++) {
+            for (int x = 0; x < width; x++) {
+                m.moveToChunk(minX + x, minZ + z);
+                assertEquals(m.chunkSize, sizes[z * width + x]);
+                assertEquals(m.blockSize, m.getKernel().blockSize(slimeChunks, minX + x, minZ + z));
+                if (engine.isFull()) assertEquals(m.blockSize, 256 * sizes[z * width + x]);
+            }
+        }
+    }
+
+    @Test
+    public void chunkSizesMatchMask() {
+        Mask m = new Mask(pMask, 0, 0, 2, 13);
+        assertFalse(new ChunkSizeEngine(m.getKernel()).isFull());
+        assertSizesMatch(m, -50, 60, 45, 30);
+    }
+
+    @Test
+    public void chunkSizesMatchMaskWithChunkWeight() {
+        pMask.setProperty(WEIGHT, 200);
+        pMask.setProperty(OFFSET, 10);
+        assertSizesMatch(new Mask(pMask, 0, 0, 9, 4), 7, 7, 20, 33);
+    }
+
+    @Test
+    public void maskWithoutSpheresIsFull() {
+        pMask.setProperty(DESPAWN, false);
+        pMask.setProperty(EXCLUSION, false);
+        Mask m = new Mask(pMask, 0, 0, 5, 5);
+        assertTrue(new ChunkSizeEngine(m.getKernel()).isFull());
+        assertSizesMatch(m, -1000, 2000, 64, 64);
+    }
+
+    @Test
+    public void maskWithOnlyDespawnSphereIsNotFull() {
+        pMask.setProperty(EXCLUSION, false);
+        Mask m = new Mask(pMask, 0, 0, 0, 0);
+        assertFalse(new ChunkSizeEngine(m.getKernel()).isFull());
+        assertSizesMatch(m, 3, -3, 10, 10);
+    }
+}
@@ -0,0 +1,87 @@
+package slimefinder.core.mask;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import slimefinder.io.properties.MaskProperties;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class KernelCacheTest {
+
+    private MaskProperties pMask;
+
+    @Before
+    public void setUp() {
+        KernelCache.clear();
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, 0L);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(WEIGHT, 0);
+        pMask.setProperty(OFFSET, 0);
+    }
+
+    private void assertSameWeights(int[][] expected, MaskKernel kernel) {
+        for (int x = -R_CHUNK; x <= R_CHUNK; x++) {
+            for (int z = -R_CHUNK; z <= R_CHUNK; z++) {
+                assertEquals(expected[x + R_CHUNK][z + R_CHUNK], kernel.getWeight(x, z));
+            }
+        }
+    }
+
+    @Test
+    public void cachedWeightsAreThoseOfTheMask() {
+        for (int offset : new int[] {0, -16, 30}) {
+            for (int weight : new int[] {0, 255}) {
+                pMask.setProperty(OFFSET, offset);
+                pMask.setProperty(WEIGHT, weight);
+                Mask m = new Mask(pMask, 0, 0, 0, 0);
+                for (int x = 0; x < 16; x++) {
+                    for (int z = 0; z < 16; z++) {
+                        m.moveTo(0, 0, x, z);
+                        assertSameWeights(m.computeWeights(), m.kernel);
+                        assertEquals(m.kernel.blockSurfaceArea, m.blockSurfaceArea);
+                        assertEquals(m.kernel.chunkSurfaceArea, m.chunkSurfaceArea);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void onlyCanonicalPositionsAreComputed() {
+        Mask m = new Mask(pMask, 0, 0, 0, 0);
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                m.moveTo(0, 0, x, z);
+            }
+        }
+        assertEquals(36, KernelCache.tableCount());
+        pMask.setProperty(WEIGHT, 100);
+        m = new Mask(pMask, 0, 0, 0, 0);
+        for (int x = 0; x < 16; x++) {
+            m.moveTo(0, 0, x, 15 - x);
+        }
+        assertEquals(36, KernelCache.tableCount());
+    }
+
+    @Test
+    public void masksOfSamePropertiesShareKernels() {
+        assertSame(new Mask(pMask, 5, 5, 3, 12).kernel, new Mask(pMask, -7, 0, 3, 12).kernel);
+        assertSame(new CeilMask(pMask, 0, 0).kernel, new CeilMask(pMask, 1, 1).kernel);
+        assertNotSame(new CeilMask(pMask, 0, 0).kernel, new FloorMask(pMask, 0, 0).kernel);
+    }
+
+    @Test
+    public void ceilAndFloorMasksAreCached() {
+        CeilMask ceil = new CeilMask(pMask, 0, 0);
+        FloorMask floor = new FloorMask(pMask, 0, 0);
+        assertSameWeights(ceil.computeWeights(), ceil.kernel);
+        assertSameWeights(floor.computeWeights(), floor.kernel);
+        assertEquals(2, KernelCache.tableCount());
+    }
+}
@@ -0,0 +1,86 @@
+package slimefinder.core.mask;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import slimefinder.core.slime.SlimeBitmap;
+import slimefinder.io.properties.MaskProperties;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class KernelConvolutionTest {
+
+    private static final long WORLD_SEED = 4242L;
+
+    private MaskProperties pMask;
+
+    @Before
+    public void setUp() {
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, WORLD_SEED);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(WEIGHT, 0);
+        pMask.setProperty(OFFSET, 0);
+    }
+
+    private void assertSizesMatch(AbstractMask m, int minX, int minZ, int width, int height) {
+        SlimeBitmap slimeChunks = new SlimeBitmap(WORLD_SEED, minX - R_CHUNK, minZ - R_CHUNK, width + 2 * R_CHUNK, height + 2 * R_CHUNK);
+        int[] sizes = KernelConvolution.convolve(m.getKernel(), slimeChunks, minX, minZ, width, height);
+        for (int z = 0; z < height; z++) {
+            for (int x = 0; x < width; x++) {
+                m.moveToChunk(minX + x, minZ + z);
+                int packed = sizes[z * width + x];
+                assertEquals(m.blockSize, KernelConvolution.blockSize(packed));
+                assertEquals(m.chunkSize, KernelConvolution.chunkSize(packed));
+            }
+        }
+    }
+
+    @Test
+    public void sizesMatchMask() {
+        assertSizesMatch(new Mask(pMask, 0, 0, 5, 11), -30, 17, 40, 25);
+    }
+
+    @Test
+    public void severalKernelsGiveSameSizesAsOneAtATime() {
+        MaskKernel[] kernels = {
+            new Mask(pMask, 0, 0, 5, 11).getKernel(),
+            new CeilMask(pMask, 0, 0).getKernel(),
+            new FloorMask(pMask, 0, 0).getKernel()
+        };
+        SlimeBitmap slimeChunks = new SlimeBitmap(WORLD_SEED, -40 - R_CHUNK, 7 - R_CHUNK, 30 + 2 * R_CHUNK, 12 + 2 * R_CHUNK);
+        int[][] sizes = KernelConvolution.convolve(kernels, slimeChunks, -40, 7, 30, 12);
+        assertEquals(kernels.length, sizes.length);
+        for (int k = 0; k < kernels.length; k++) {
+            assertArrayEquals(KernelConvolution.convolve(kernels[k], slimeChunks, -40, 7, 30, 12), sizes[k]);
+        }
+    }
+
+    @Test
+    public void sizesMatchCeilAndFloorMasks() {
+        assertSizesMatch(new CeilMask(pMask, 0, 0), 100, -100, 20, 20);
+        assertSizesMatch(new FloorMask(pMask, 0, 0), 100, -100, 20, 20);
+    }
+
+    @Test
+    public void sizesMatchWithWeightsAndOffset() {
+        pMask.setProperty(WEIGHT, 5);
+        pMask.setProperty(OFFSET, 20);
+        assertSizesMatch(new Mask(pMask, 0, 0, 15, 0), 0, 0, 30, 30);
+    }
+
+    @Test
+    public void slimeChunksOutsideTheAreaAreIgnored() {
+        Mask m = new Mask(pMask, 0, 0, 8, 8);
+        SlimeBitmap large = new SlimeBitmap(WORLD_SEED, -40, -40, 100, 100);
+        SlimeBitmap exact = new SlimeBitmap(WORLD_SEED, -R_CHUNK, -R_CHUNK, 10 + 2 * R_CHUNK, 10 + 2 * R_CHUNK);
+        assertArrayEquals(
+            KernelConvolution.convolve(m.getKernel(), exact, 0, 0, 10, 10),
+            KernelConvolution.convolve(m.getKernel(), large, 0, 0, 10, 10)
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package slimefinder.core.mask;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import slimefinder.io.properties.MaskProperties;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class MaskBoundsTest {
+
+    private MaskProperties pMask;
+
+    @Before
+    public void setUp() {
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, 12345L);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(WEIGHT, 0);
+        pMask.setProperty(OFFSET, 0);
+    }
+
+    private void assertBoundsHold(int chunkX, int chunkZ) {
+        Mask m = new Mask(pMask, chunkX, chunkZ, 0, 0);
+        MaskBounds bounds = new MaskBounds(pMask);
+        bounds.update(m);
+        for (int inX = 0; inX < 16; inX++) {
+            for (int inZ = 0; inZ < 16; inZ++) {
+                m.moveTo(chunkX, chunkZ, inX, inZ);
+                assertTrue(bounds.minBlockSize <= m.blockSize && m.blockSize <= bounds.maxBlockSize);
+                assertTrue(bounds.minChunkSize <= m.chunkSize && m.chunkSize <= bounds.maxChunkSize);
+            }
+        }
+    }
+
+    @Test
+    public void boundsHoldForEveryPositionWithinChunk() {
+        Random r = new Random(0);
+        for (int weight : new int[] {0, 100, 255}) {
+            for (int offset : new int[] {0, -20}) {
+                pMask.setProperty(WEIGHT, weight);
+                pMask.setProperty(OFFSET, offset);
+                for (int i = 0; i < 10; i++) {
+                    assertBoundsHold(r.nextInt(20000) - 10000, r.nextInt(20000) - 10000);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void boundsAreTighterThanSurfaceAreas() {
+        Mask m = new Mask(pMask, 0, 0, 0, 0);
+        MaskBounds bounds = new MaskBounds(pMask);
+        bounds.update(m);
+        assertTrue(bounds.maxBlockSize < m.blockSurfaceArea);
+        assertTrue(bounds.minBlockSize > 0);
+    }
+}
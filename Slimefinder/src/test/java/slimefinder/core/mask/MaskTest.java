@@ -101,6 +101,16 @@ public class MaskTest {
         assertEquals(dataStart, dataEnd);
     }
 
+    @Test
+    public void movingWithinChunkGivesSameResultAsNewMask() {
+        Mask m = new Mask(pMask, 15, 2, 7, 7);
+        m.moveTo(15, 2, 3, 12);
+        m.moveTo(16, 2, 6, 7);
+        m.moveTo(15, 2, 6, 7);
+
+        assertEquals(new MaskData(new Mask(pMask, 15, 2, 6, 7)), new MaskData(m));
+    }
+
     @Test
     public void initialMaskDataIsCalculatedCorrectly() {
         Mask m = new Mask(pMask, 15, 2, 6, 7);
@@ -115,4 +125,25 @@ public class MaskTest {
 
         assertEquals(expected, data);
     }
+
+    @Test
+    public void lazyBlockSizeIsBoundedAndMatchesEagerBlockSize() {
+        for (int weight : new int[] {0, 128}) {
+            pMask.setProperty(WEIGHT, weight);
+            Mask lazy = new Mask(pMask, 0, 0, 0, 0);
+            lazy.setLazyBlockSize(true);
+            for (int i = 0; i < 200; i++) {
+                int chunkX = i % 20 - 7, chunkZ = i / 20 * 3 - 11, inX = i * 7 % 16, inZ = i * 5 % 16;
+                lazy.moveTo(chunkX, chunkZ, inX, inZ);
+                Mask eager = new Mask(pMask, chunkX, chunkZ, inX, inZ);
+                assertEquals(eager.chunkSize, lazy.chunkSize);
+                assertTrue(lazy.minBlockSize() <= eager.blockSize);
+                assertTrue(lazy.maxBlockSize() >= eager.blockSize);
+                lazy.updateBlockSize();
+                assertEquals(new MaskData(eager), new MaskData(lazy));
+                assertEquals(eager.blockSize, lazy.minBlockSize());
+                assertEquals(eager.blockSize, lazy.maxBlockSize());
+            }
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package slimefinder.core.mask;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import slimefinder.core.slime.SlimeChunkOracle;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.util.Direction;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class SlimeNeighborhoodTest {
+
+    private static final long WORLD_SEED = 5L;
+
+    private MaskProperties pMask;
+
+    @Before
+    public void setUp() {
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, WORLD_SEED);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(WEIGHT, 0);
+        pMask.setProperty(OFFSET, 0);
+    }
+
+    private void assertMatchesOracle(SlimeNeighborhood n, int centerX, int centerZ) {
+        for (int x = -R_CHUNK; x <= R_CHUNK; x++) {
+            for (int z = -R_CHUNK; z <= R_CHUNK; z++) {
+                assertEquals(
+                    SlimeChunkOracle.isSlimeChunk(WORLD_SEED, centerX + x, centerZ + z),
+                    n.isSlimeChunk(x, z)
+                );
+            }
+        }
+    }
+
+    @Test
+    public void randomWalkKeepsNeighborhoodInSync() {
+        SlimeNeighborhood n = new SlimeNeighborhood(WORLD_SEED);
+        int x = 100, z = -40;
+        n.fill(x, z);
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            Direction d = Direction.values()[random.nextInt(4)];
+            n.moveBy(d);
+            x += d.x;
+            z += d.z;
+            assertTrue(n.isAt(x, z));
+            assertMatchesOracle(n, x, z);
+        }
+    }
+
+    @Test
+    public void adjacentDirectionIsDetected() {
+        SlimeNeighborhood n = new SlimeNeighborhood(WORLD_SEED);
+        assertNull(n.getAdjacent(1, 0));
+        n.fill(0, 0);
+        assertEquals(Direction.EAST, n.getAdjacent(1, 0));
+        assertEquals(Direction.NORTH, n.getAdjacent(0, -1));
+        assertNull(n.getAdjacent(1, 1));
+    }
+
+    @Test
+    public void kernelSizesMatchBruteForce() {
+        Mask m = new Mask(pMask, 37, -12, 3, 11);
+        Random random = new Random(2);
+        for (int i = 0; i < 100; i++) {
+            m.moveByChunk(Direction.values()[random.nextInt(4)]);
+            int blockSize = 0, chunkSize = 0;
+            for (int x = -R_CHUNK; x <= R_CHUNK; x++) {
+                for (int z = -R_CHUNK; z <= R_CHUNK; z++) {
+                    if (!SlimeChunkOracle.isSlimeChunk(WORLD_SEED, m.chunk.x + x, m.chunk.z + z)) continue;
+                    blockSize += m.kernel.getWeight(x, z);
+                    if (m.kernel.getWeight(x, z) > 0) ++chunkSize;
+                }
+            }
+            assertEquals(blockSize, m.blockSize);
+            assertEquals(chunkSize, m.chunkSize);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package slimefinder.core.search;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import slimefinder.io.properties.MaskProperties;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class MaskVariantTest {
+
+    private MaskProperties pMask;
+
+    @Before
+    public void setUp() {
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, 7L);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(WEIGHT, 0);
+        pMask.setProperty(OFFSET, 0);
+    }
+
+    @Test
+    public void variantsReplaceOnlyTheirProperties() {
+        List<MaskVariant> variants = MaskVariant.parse(" y-offset = -16 , chunk-weight=64;;despawn-sphere=false;mask-type=floor", pMask);
+        assertEquals(3, variants.size());
+        assertEquals("y-offset=-16,chunk-weight=64", variants.get(0).tag);
+        assertEquals(-16, (int) variants.get(0).pMask.getInt(OFFSET));
+        assertEquals(64, (int) variants.get(0).pMask.getInt(WEIGHT));
+        assertTrue(variants.get(0).pMask.getBoolean(DESPAWN));
+        assertEquals(7L, (long) variants.get(0).pMask.getLong(SEED));
+        assertFalse(variants.get(1).pMask.getBoolean(DESPAWN));
+        assertEquals(0, (int) variants.get(1).pMask.getInt(OFFSET));
+        assertEquals(MaskVariant.Type.MASK, variants.get(1).type);
+        assertEquals(MaskVariant.Type.FLOOR, variants.get(2).type);
+        assertEquals(0, (int) pMask.getInt(OFFSET));
+    }
+
+    @Test
+    public void emptyListHasNoVariants() {
+        assertTrue(MaskVariant.parse("", pMask).isEmpty());
+        assertTrue(MaskVariant.parse(null, pMask).isEmpty());
+    }
+
+    @Test
+    public void invalidVariantsAreRejected() {
+        for (String variants : new String[] {
+            "world-seed=1", "y-offset", "y-offset=high", "exclusion-sphere=yes", "mask-type=round", "y-offset=1;y-offset=1"
+        }) {
+            try {
+                MaskVariant.parse(variants, pMask);
+                fail(variants);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+    }
+
+    @Test
+    public void tagIsInsertedBeforeTheExtension() {
+        MaskVariant variant = MaskVariant.parse("y-offset=-16", pMask).get(0);
+        assertEquals("results.y-offset=-16.csv", variant.file("results.csv"));
+        assertEquals("out/results.y-offset=-16", variant.file("out/results"));
+        assertEquals("out.d/results.y-offset=-16", variant.file("out.d/results"));
+        assertEquals(".results.y-offset=-16", variant.file(".results"));
+    }
+}
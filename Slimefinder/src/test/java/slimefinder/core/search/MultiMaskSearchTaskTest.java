@@ -0,0 +1,186 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import slimefinder.core.mask.CeilMask;
+import slimefinder.core.mask.FloorMask;
+import slimefinder.core.mask.MaskData;
+import slimefinder.io.CLI;
+import slimefinder.io.IDataLogger;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.io.properties.SearchProperties;
+import slimefinder.util.Position;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.io.properties.MaskProperties.*;
+import static slimefinder.io.properties.SearchProperties.*;
+
+public class MultiMaskSearchTaskTest {
+
+    private SearchProperties pSearch;
+    private MaskProperties pMask;
+    private List<TestDataLogger> loggers;
+    private int failingLogger;
+    private CLI cli;
+
+    private class TestDataLogger implements IDataLogger {
+
+        final MaskProperties pMask;
+        final List<MaskData> masks = new ArrayList<>();
+        String filename;
+        boolean closed;
+
+        TestDataLogger(MaskProperties pMask) {
+            this.pMask = pMask;
+        }
+
+        @Override
+        public void start(String filename, boolean append) throws IOException {
+            if (loggers.indexOf(this) == failingLogger) throw new IOException();
+            this.filename = filename;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public void write(MaskData m) {
+            masks.add(new MaskData(m));
+        }
+
+        @Override
+        public void resume(String filename, long length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long checkpoint() {
+            return masks.size();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        cli = new CLI();
+
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, 0L);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(WEIGHT, 0);
+        pMask.setProperty(OFFSET, 0);
+
+        pSearch = new SearchProperties();
+        pSearch.setProperty(CENTER_POS, new Position(-12, 40, 3, 9));
+        pSearch.setProperty(MAX_BLOCK_SZ, -1);
+        pSearch.setProperty(MIN_BLOCK_SZ, 0);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 28);
+        pSearch.setProperty(FINE_SEARCH, false);
+        pSearch.setProperty(MAX_WIDTH, 40);
+        pSearch.setProperty(MIN_WIDTH, 10);
+        pSearch.setProperty(RESULTS, (Object) "results.csv");
+        pSearch.setProperty(APPEND, false);
+        pSearch.setProperty(THREADS, 0);
+        pSearch.setProperty(REGION_PRUNING, false);
+        pSearch.setProperty(BAND_SEARCH, true);
+        pSearch.setProperty(RESUME, false);
+        pSearch.setProperty(CHECKPOINT_FILE, (Object) "search.checkpoint");
+        pSearch.setProperty(CHECKPOINT_INTERVAL, 0);
+
+        loggers = new ArrayList<>();
+        failingLogger = -1;
+    }
+
+    private MultiMaskSearchTask search(String variants) throws IOException {
+        pSearch.setProperty(MASK_VARIANTS, (Object) variants);
+        MultiMaskSearchTask task = new MultiMaskSearchTask(pSearch, pMask, p -> {
+            TestDataLogger logger = new TestDataLogger(p);
+            loggers.add(logger);
+            return logger;
+        }, cli);
+        task.run();
+        return task;
+    }
+
+    @Test
+    public void eachVariantFindsTheSameAsASeparateSearch() throws IOException {
+        MultiMaskSearchTask task = search("y-offset=0; y-offset=-16,chunk-weight=64; exclusion-sphere=false");
+        assertEquals(3, loggers.size());
+        for (int k = 0; k < loggers.size(); k++) {
+            List<MaskData> expected = new ArrayList<>();
+            SearchTask separate = new SearchTask(pSearch, loggers.get(k).pMask, new IDataLogger() {
+                public void start(String filename, boolean append) {}
+                public void close() {}
+                public void write(MaskData m) { expected.add(new MaskData(m)); }
+                public void resume(String filename, long length) {}
+                public long checkpoint() { return expected.size(); }
+            }, cli);
+            separate.run();
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, loggers.get(k).masks);
+            Extrema extrema = task.getExtrema(k);
+            assertEquals(separate.getMaxBlock(), extrema.getMaxBlock());
+            assertEquals(separate.getMinBlock(), extrema.getMinBlock());
+            assertEquals(separate.getMaxChunk(), extrema.getMaxChunk());
+            assertEquals(separate.getMinChunk(), extrema.getMinChunk());
+        }
+        assertEquals(-16, (int) loggers.get(1).pMask.getInt(OFFSET));
+        assertEquals(64, (int) loggers.get(1).pMask.getInt(WEIGHT));
+        assertFalse(loggers.get(2).pMask.getBoolean(EXCLUSION));
+        assertEquals(0, (int) pMask.getInt(OFFSET));
+        assertEquals(task.positionsTotal(), task.positionsChecked());
+    }
+
+    @Test
+    public void ceilAndFloorVariantsGiveSizesOfBoundMasks() throws IOException {
+        pSearch.setProperty(MIN_CHUNK_SZ, 0);
+        pSearch.setProperty(MAX_WIDTH, 7);
+        pSearch.setProperty(MIN_WIDTH, 0);
+        search("mask-type=ceil;mask-type=floor");
+        CeilMask ceil = new CeilMask(pMask, 0, 0);
+        FloorMask floor = new FloorMask(pMask, 0, 0);
+        assertEquals(49, loggers.get(0).masks.size());
+        for (int i = 0; i < 49; i++) {
+            MaskData c = loggers.get(0).masks.get(i), f = loggers.get(1).masks.get(i);
+            ceil.moveToChunk(c.chunk.x, c.chunk.z);
+            floor.moveToChunk(f.chunk.x, f.chunk.z);
+            assertEquals(new MaskData(ceil), c);
+            assertEquals(new MaskData(floor), f);
+        }
+    }
+
+    @Test
+    public void resultsFilesAreTaggedWithVariants() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 1);
+        search("y-offset=-16;mask-type=ceil");
+        assertEquals("results.y-offset=-16.csv", loggers.get(0).filename);
+        assertEquals("results.mask-type=ceil.csv", loggers.get(1).filename);
+    }
+
+    @Test
+    public void onlyStartedLoggersAreClosedWhenStartingFails() {
+        failingLogger = 1;
+        try {
+            search("y-offset=-16;y-offset=-32;y-offset=-48");
+            fail("Starting a logger did not fail");
+        } catch (IOException e) {
+        }
+        assertEquals(2, loggers.size());
+        assertTrue(loggers.get(0).closed);
+        assertFalse(loggers.get(1).closed);
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidVariantIsRejected() throws IOException {
+        search("y-offset=-16;world-seed=5");
+    }
+}
@@ -0,0 +1,168 @@
+package slimefinder.core.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+import static org.junit.Assert.*;
+
+public class NonMaximumSuppressionTest {
+
+    private static final int RADIUS = 2;
+
+    /**
+     * Rows are searched from north to south, row z being searched at progress z + 1
+     */
+    private static final NonMaximumSuppression.Frontier ROWS = (x, z, d) -> (long) z + d + 1;
+
+    private static MaskData data(int x, int z, int blockSize) {
+        MaskData m = new MaskData();
+        m.chunk = new Point(x, z);
+        m.in = new Point(0, 0);
+        m.blockSize = blockSize;
+        return m;
+    }
+
+    /**
+     * @return matches on about half of the chunks of a 30x30 area listed row by row
+     */
+    private static List<MaskData> matches(long seed) {
+        Random random = new Random(seed);
+        List<MaskData> matches = new ArrayList<>();
+        for (int z = 0; z < 30; z++) {
+            for (int x = 0; x < 30; x++) {
+                if (random.nextBoolean()) matches.add(data(x, z, random.nextInt(20)));
+            }
+        }
+        return matches;
+    }
+
+    private static List<MaskData> bruteForce(List<MaskData> matches) {
+        List<MaskData> maxima = new ArrayList<>();
+        for (MaskData m : matches) {
+            boolean maximum = true;
+            for (MaskData n : matches) {
+                if (n == m || Math.abs(n.chunk.x - m.chunk.x) > RADIUS || Math.abs(n.chunk.z - m.chunk.z) > RADIUS) continue;
+                boolean before = n.chunk.z < m.chunk.z || n.chunk.z == m.chunk.z && n.chunk.x < m.chunk.x;
+                if (n.blockSize > m.blockSize || n.blockSize == m.blockSize && before) maximum = false;
+            }
+            if (maximum) maxima.add(m);
+        }
+        return maxima;
+    }
+
+    /**
+     * Offers the matches row by row advancing the suppression after each row.
+     */
+    private static void offerRows(NonMaximumSuppression suppression, List<MaskData> matches, int fromZ, int toZ,
+                                  List<MaskData> output) throws IOException {
+        for (int z = fromZ; z < toZ; z++) {
+            for (MaskData m : matches) {
+                if (m.chunk.z == z) suppression.offer(m);
+            }
+            suppression.advance(z + 1, output::add);
+        }
+    }
+
+    @Test
+    public void keepsLocalMaxima() throws IOException {
+        List<MaskData> matches = matches(1);
+        NonMaximumSuppression suppression = new NonMaximumSuppression(RADIUS, 1, 0, ROWS);
+        List<MaskData> output = new ArrayList<>();
+        offerRows(suppression, matches, 0, 30, output);
+        suppression.flush(output::add);
+        List<MaskData> expected = bruteForce(matches);
+        assertTrue(expected.size() < matches.size() / 4);
+        assertEquals(new HashSet<>(expected), new HashSet<>(output));
+        assertEquals(expected.size(), output.size());
+    }
+
+    @Test
+    public void holdsOnlyAWindowOfMatches() throws IOException {
+        List<MaskData> matches = matches(2);
+        NonMaximumSuppression suppression = new NonMaximumSuppression(RADIUS, 1, 0, ROWS);
+        for (int z = 0; z < 30; z++) {
+            offerRows(suppression, matches, z, z + 1, new ArrayList<>());
+            assertTrue(suppression.size() <= 30 * (2 * RADIUS + 1));
+        }
+    }
+
+    @Test
+    public void restoredSuppressionDecidesLikeOriginal() throws IOException {
+        List<MaskData> matches = matches(3);
+        NonMaximumSuppression original = new NonMaximumSuppression(RADIUS, 1, 0, ROWS);
+        List<MaskData> expected = new ArrayList<>();
+        offerRows(original, matches, 0, 30, expected);
+        original.flush(expected::add);
+
+        NonMaximumSuppression interrupted = new NonMaximumSuppression(RADIUS, 1, 0, ROWS);
+        List<MaskData> output = new ArrayList<>();
+        offerRows(interrupted, matches, 0, 13, output);
+        NonMaximumSuppression restored = new NonMaximumSuppression(RADIUS, 1, 0, ROWS);
+        restored.restore(interrupted.getReleased(), interrupted.getPending());
+        offerRows(restored, matches, 13, 30, output);
+        restored.flush(output::add);
+        assertEquals(expected, output);
+    }
+
+    @Test
+    public void holdsOneMatchPerChunkOfAFineSearch() throws IOException {
+        Random random = new Random(4);
+        List<MaskData> matches = new ArrayList<>();
+        for (int z = 0; z < 12; z++) {
+            for (int x = 0; x < 12; x++) {
+                for (int i = 0; i < 64; i++) {
+                    MaskData m = data(x, z, random.nextInt(100));
+                    m.in = new Point(i & 7, i >> 3);
+                    matches.add(m);
+                }
+            }
+        }
+        NonMaximumSuppression suppression = new NonMaximumSuppression(RADIUS, 1, 0, ROWS);
+        List<MaskData> output = new ArrayList<>();
+        for (int z = 0; z < 12; z++) {
+            offerRows(suppression, matches, z, z + 1, output);
+            assertTrue(suppression.size() <= 12 * (2 * RADIUS + 1));
+        }
+        suppression.flush(output::add);
+        List<MaskData> expected = new ArrayList<>();
+        for (MaskData m : matches) {
+            boolean maximum = true;
+            for (MaskData n : matches) {
+                if (n == m || Math.abs(n.chunk.x - m.chunk.x) > RADIUS || Math.abs(n.chunk.z - m.chunk.z) > RADIUS) continue;
+                if (n.blockSize > m.blockSize) maximum = false;
+                if (n.blockSize == m.blockSize && before(n, m)) maximum = false;
+            }
+            if (maximum) expected.add(m);
+        }
+        assertEquals(new HashSet<>(expected), new HashSet<>(output));
+        assertEquals(expected.size(), output.size());
+    }
+
+    private static boolean before(MaskData n, MaskData m) {
+        if (n.chunk.z != m.chunk.z) return n.chunk.z < m.chunk.z;
+        if (n.chunk.x != m.chunk.x) return n.chunk.x < m.chunk.x;
+        if (n.in.z != m.in.z) return n.in.z < m.in.z;
+        return n.in.x < m.in.x;
+    }
+
+    @Test
+    public void scoreWeighsBothSizes() throws IOException {
+        NonMaximumSuppression suppression = new NonMaximumSuppression(1, 1, 1000, ROWS);
+        MaskData big = data(0, 0, 500), many = data(1, 0, 200);
+        many.chunkSize = 1;
+        suppression.offer(big);
+        suppression.offer(many);
+        List<MaskData> output = new ArrayList<>();
+        suppression.flush(output::add);
+        assertEquals(1, output.size());
+        assertEquals(many, output.get(0));
+    }
+}
@@ -141,6 +141,79 @@ public class SearchPathTest {
     }
 
 
+    @Test
+    public void pathStaysWithinItsArea() {
+        for (int minWidth = 0; minWidth < 6; minWidth++) {
+            for (int maxWidth = minWidth; maxWidth < 9; maxWidth++) {
+                SearchPath path = new SearchPath(new Point(3, -7), minWidth, maxWidth);
+                Point min = path.getMinCorner();
+                Point max = path.getMaxCorner();
+                long count = 0;
+                for (int x = min.x; x <= max.x; x++) {
+                    for (int z = min.z; z <= max.z; z++) {
+                        if (path.contains(x, z)) ++count;
+                    }
+                }
+                assertEquals(path.getPathLength(), count);
+                while (path.step()) {
+                    assertTrue(path.contains(path.getPoint().x, path.getPoint().z));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomAccessMatchesStepping() {
+        for (int minWidth = 0; minWidth < 7; minWidth++) {
+            for (int maxWidth = minWidth; maxWidth < 10; maxWidth++) {
+                SearchPath path = new SearchPath(new Point(-2, 5), minWidth, maxWidth);
+                for (long i = 0; path.step(); i++) {
+                    assertEquals(path.getPoint(), path.pointAt(i));
+                    assertEquals(i, path.indexOf(path.getPoint()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void indexOfPointOutsidePathIsNegative() {
+        SearchPath path = new SearchPath(new Point(0, 0), 2, 5);
+        assertEquals(-1, path.indexOf(new Point(0, 0)));
+        assertEquals(-1, path.indexOf(new Point(3, 0)));
+    }
+
+    @Test
+    public void steppingAfterSeekContinuesThePath() {
+        for (int minWidth = 0; minWidth < 5; minWidth++) {
+            for (int maxWidth = minWidth + 1; maxWidth < 8; maxWidth++) {
+                for (long start = 0; start <= (long) maxWidth * maxWidth - (long) minWidth * minWidth; start++) {
+                    SearchPath expected = new SearchPath(new Point(1, 1), minWidth, maxWidth);
+                    for (long i = 0; i < start; i++) expected.step();
+                    SearchPath path = new SearchPath(new Point(1, 1), minWidth, maxWidth);
+                    path.seek(start);
+                    assertEquals(expected.getProgress(), path.getProgress());
+                    boolean inProgress;
+                    do {
+                        inProgress = expected.step();
+                        assertEquals(inProgress, path.step());
+                        if (inProgress) assertEquals(expected.getPoint(), path.getPoint());
+                    } while (inProgress);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomAccessWorksOnLargePaths() {
+        int maxWidth = 3000000;
+        SearchPath path = new SearchPath(new Point(100, -100), 1000001, maxWidth);
+        long last = path.getPathLength() - 1;
+        assertEquals(new Point(100 - (maxWidth / 2 - 1), -100 + maxWidth / 2), path.pointAt(last));
+        for (long index : new long[] {0, 1, 12345678901L, last / 2, last}) {
+            assertEquals(index, path.indexOf(path.pointAt(index)));
+        }
+    }
+
     @Test
     public void largePathsFinishNormally() {
         int maxWidht = 50000;
@@ -154,4 +227,22 @@ public class SearchPathTest {
         Point p = path.getPoint();
         assertEquals(new Point(-(maxWidht / 2 - 1), maxWidht/2), p);
     }
+
+    @Test
+    public void progressAfterCoversEveryPointWithinDistance() {
+        for (int[] widths : new int[][] {{0, 9}, {3, 10}, {4, 11}}) {
+            SearchPath path = new SearchPath(new Point(5, -2), widths[0], widths[1]);
+            for (long i = 0; i < path.getPathLength(); i++) {
+                Point p = path.pointAt(i);
+                for (int distance = 0; distance <= 3; distance++) {
+                    long after = path.progressAfter(p.x, p.z, distance);
+                    assertTrue(after <= path.getPathLength());
+                    for (long j = 0; j < path.getPathLength(); j++) {
+                        Point q = path.pointAt(j);
+                        if (Math.abs(q.x - p.x) <= distance && Math.abs(q.z - p.z) <= distance) assertTrue(j < after);
+                    }
+                }
+            }
+        }
+    }
 }
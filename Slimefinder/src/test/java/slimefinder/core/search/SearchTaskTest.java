@@ -1,10 +1,16 @@
 package slimefinder.core.search;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 
 import slimefinder.core.mask.Mask;
 import slimefinder.core.mask.MaskData;
@@ -13,9 +19,11 @@ import slimefinder.io.properties.MaskProperties;
 import slimefinder.io.properties.SearchProperties;
 import slimefinder.io.IDataLogger;
 import slimefinder.util.FormatHelper;
+import slimefinder.util.Point;
 import slimefinder.util.Position;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
 import static slimefinder.io.properties.MaskProperties.*;
 import static slimefinder.io.properties.SearchProperties.*;
@@ -28,10 +36,18 @@ public class SearchTaskTest {
     private TestDataLogger l;
     private CLI cli;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private class TestDataLogger implements IDataLogger {
 
         public LinkedList<MaskData> masks;
 
+        /**
+         * Number of masks written when the last checkpoint was made
+         */
+        public int checkpointed;
+
         public TestDataLogger() {
             masks = new LinkedList<>();
         }
@@ -48,7 +64,17 @@ public class SearchTaskTest {
 
         @Override
         public void write(MaskData m) {
-            masks.add(new MaskData(m) {});
+            masks.add(new MaskData(m));
+        }
+
+        @Override
+        public void resume(String filename, long length) {
+
+        }
+
+        @Override
+        public long checkpoint() {
+            return checkpointed = masks.size();
         }
     }
 
@@ -75,6 +101,12 @@ public class SearchTaskTest {
         pSearch.setProperty(MIN_WIDTH, 0);
         pSearch.setProperty(RESULTS, "");
         pSearch.setProperty(APPEND, false);
+        pSearch.setProperty(THREADS, 0);
+        pSearch.setProperty(REGION_PRUNING, false);
+        pSearch.setProperty(BAND_SEARCH, false);
+        pSearch.setProperty(RESUME, false);
+        pSearch.setProperty(CHECKPOINT_FILE, (Object) "search.checkpoint");
+        pSearch.setProperty(CHECKPOINT_INTERVAL, 0);
 
         l = new TestDataLogger();
     }
@@ -192,6 +224,576 @@ public class SearchTaskTest {
         if (l.masks.isEmpty()) assertTrue(search.getMaxChunk().chunkSize < 43);
     }
 
+    @Test
+    public void fineSearchMatchesAreThoseOfIndividualMasks() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 4);
+        pSearch.setProperty(FINE_SEARCH, true);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 22);
+        SearchTask search = new SearchTask(pSearch, pMask, l);
+        search.run();
+
+        LinkedList<MaskData> expected = new LinkedList<>();
+        SearchPath path = new SearchPath(new Point(0, 0), 0, 4);
+        while (path.step()) {
+            for (int inX = 0; inX < 16; inX++) {
+                for (int inZ = 0; inZ < 16; inZ++) {
+                    Mask m = new Mask(pMask, path.getPoint().x, path.getPoint().z, inX, inZ);
+                    if (m.chunkSize >= 22) expected.add(new MaskData(m));
+                }
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, l.masks);
+    }
+
+    private void assertExtremaOfIndividualMasks(SearchTask search, int width) {
+        Extrema expected = new Extrema();
+        SearchPath path = new SearchPath(new Point(0, 0), 0, width);
+        while (path.step()) {
+            for (int inX = 0; inX < 16; inX++) {
+                for (int inZ = 0; inZ < 16; inZ++) {
+                    expected.update(new Mask(pMask, path.getPoint().x, path.getPoint().z, inX, inZ));
+                }
+            }
+        }
+        assertEquals(expected.getMaxBlock().blockSize, search.getMaxBlock().blockSize);
+        assertEquals(expected.getMinBlock().blockSize, search.getMinBlock().blockSize);
+        assertEquals(expected.getMaxChunk().chunkSize, search.getMaxChunk().chunkSize);
+        assertEquals(expected.getMinChunk().chunkSize, search.getMinChunk().chunkSize);
+    }
+
+    @Test
+    public void skippingChunksInFineSearchKeepsResults() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 12);
+        pSearch.setProperty(FINE_SEARCH, true);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 28);
+        pSearch.setProperty(MAX_BLOCK_SZ, 3300);
+        pSearch.setProperty(MIN_BLOCK_SZ, 0);
+        SearchTask search = new SearchTask(pSearch, pMask, l);
+        search.run();
+        assertEquals(256 * 12 * 12, search.positionsChecked());
+        assertExtremaOfIndividualMasks(search, 12);
+
+        LinkedList<MaskData> expected = new LinkedList<>();
+        SearchPath path = new SearchPath(new Point(0, 0), 0, 12);
+        while (path.step()) {
+            for (int inX = 0; inX < 16; inX++) {
+                for (int inZ = 0; inZ < 16; inZ++) {
+                    Mask m = new Mask(pMask, path.getPoint().x, path.getPoint().z, inX, inZ);
+                    if (m.chunkSize >= 28 || m.blockSize <= 3300) expected.add(new MaskData(m));
+                }
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, l.masks);
+    }
+
+    @Test
+    public void skippingChunksInTiledFineSearchKeepsExtrema() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 12);
+        pSearch.setProperty(FINE_SEARCH, true);
+        pSearch.setProperty(THREADS, 2);
+        SearchTask search = new SearchTask(pSearch, pMask, l);
+        search.run();
+        assertEquals(256 * 12 * 12, search.positionsChecked());
+        assertExtremaOfIndividualMasks(search, 12);
+    }
+
+    @Test
+    public void regionPruningFindsSameMatches() throws IOException {
+        pSearch.setProperty(CENTER_POS, new Position(-40, 77, 0, 0));
+        pSearch.setProperty(MAX_WIDTH, 200);
+        pSearch.setProperty(MIN_WIDTH, 30);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 38);
+        pSearch.setProperty(THREADS, 2);
+        SearchTask search = new SearchTask(pSearch, pMask, l);
+        search.run();
+        LinkedList<MaskData> expected = l.masks;
+
+        l = new TestDataLogger();
+        pSearch.setProperty(REGION_PRUNING, true);
+        SearchTask pruned = new SearchTask(pSearch, pMask, l);
+        pruned.run();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, l.masks);
+        assertEquals(search.positionsChecked(), pruned.positionsChecked());
+    }
+
+    @Test
+    public void fullyPrunedSearchEndsWithoutBlockSizes() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 100);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 250);
+        pSearch.setProperty(THREADS, 1);
+        pSearch.setProperty(REGION_PRUNING, true);
+        SearchTask search = new SearchTask(pSearch, pMask, l);
+        search.run();
+        assertTrue(l.masks.isEmpty());
+        assertEquals(100 * 100, search.positionsChecked());
+        assertNull(search.getMaxBlock());
+        assertTrue(search.endInfo().endsWith("nanoseconds per position"));
+    }
+
+    @Test
+    public void prunedSearchKeepsChunkSizeExtrema() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 100);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 45);
+        pSearch.setProperty(THREADS, 1);
+        pSearch.setProperty(REGION_PRUNING, true);
+        SearchTask search = new SearchTask(pSearch, pMask, l);
+        search.run();
+        assertNull(search.getMaxBlock());
+        assertNotNull(search.getMaxChunk());
+        assertTrue(search.getMinChunk().chunkSize < 45);
+        assertTrue(search.endInfo().contains("largest  chunk size: " + search.getMaxChunk().chunkSize));
+    }
+
+    @Test
+    public void tiledSearchOutputDoesNotDependOnThreadCount() throws IOException {
+        pSearch.setProperty(CENTER_POS, new Position(3, -5, 4, 9));
+        pSearch.setProperty(MAX_WIDTH, 150);
+        pSearch.setProperty(MIN_WIDTH, 20);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 35);
+
+        pSearch.setProperty(THREADS, 1);
+        SearchTask single = new SearchTask(pSearch, pMask, l);
+        single.run();
+        LinkedList<MaskData> expected = l.masks;
+
+        l = new TestDataLogger();
+        pSearch.setProperty(THREADS, 4);
+        SearchTask parallel = new SearchTask(pSearch, pMask, l);
+        parallel.run();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, l.masks);
+        assertEquals(150 * 150 - 20 * 20, parallel.positionsChecked());
+        assertEquals(single.getMaxBlock(), parallel.getMaxBlock());
+        assertEquals(single.getMinBlock(), parallel.getMinBlock());
+        assertEquals(single.getMaxChunk(), parallel.getMaxChunk());
+        assertEquals(single.getMinChunk(), parallel.getMinChunk());
+    }
+
+    @Test
+    public void tiledSearchListsSameMatchesAsSpiralSearch() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 100);
+        pSearch.setProperty(MIN_WIDTH, 10);
+        pSearch.setProperty(MAX_BLOCK_SZ, 73984);
+        pSearch.setProperty(MIN_BLOCK_SZ, 6000);
+        SearchTask spiral = new SearchTask(pSearch, pMask, l);
+        spiral.run();
+        LinkedList<MaskData> expected = l.masks;
+
+        l = new TestDataLogger();
+        pSearch.setProperty(THREADS, 3);
+        SearchTask tiled = new SearchTask(pSearch, pMask, l);
+        tiled.run();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, l.masks);
+        assertEquals(spiral.getMaxBlock().blockSize, tiled.getMaxBlock().blockSize);
+        assertEquals(spiral.getMinChunk().chunkSize, tiled.getMinChunk().chunkSize);
+    }
+
+    @Test
+    public void tiledSearchWithoutSpheresListsSameMatchesAsSpiralSearch() throws IOException {
+        pMask.setProperty(DESPAWN, false);
+        pMask.setProperty(EXCLUSION, false);
+        pSearch.setProperty(CENTER_POS, new Position(20, -30, 3, 3));
+        pSearch.setProperty(MAX_WIDTH, 100);
+        pSearch.setProperty(MIN_WIDTH, 10);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 42);
+        SearchTask spiral = new SearchTask(pSearch, pMask, l);
+        spiral.run();
+        LinkedList<MaskData> expected = l.masks;
+
+        l = new TestDataLogger();
+        pSearch.setProperty(THREADS, 2);
+        SearchTask tiled = new SearchTask(pSearch, pMask, l);
+        tiled.run();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, l.masks);
+        assertEquals(spiral.getMaxBlock().blockSize, tiled.getMaxBlock().blockSize);
+        assertEquals(spiral.getMinBlock().blockSize, tiled.getMinBlock().blockSize);
+        assertEquals(spiral.getMaxChunk().chunkSize, tiled.getMaxChunk().chunkSize);
+        assertEquals(spiral.getMinChunk().chunkSize, tiled.getMinChunk().chunkSize);
+    }
+
+    @Test
+    public void fineTiledSearchListsSameMatchesAsSpiralSearch() throws IOException {
+        pSearch.setProperty(CENTER_POS, new Position(-40, 25, 7, 1));
+        pSearch.setProperty(FINE_SEARCH, true);
+        pSearch.setProperty(MAX_WIDTH, 12);
+        pSearch.setProperty(MIN_WIDTH, 4);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 28);
+        SearchTask spiral = new SearchTask(pSearch, pMask, l);
+        spiral.run();
+        LinkedList<MaskData> expected = l.masks;
+
+        l = new TestDataLogger();
+        pSearch.setProperty(THREADS, 2);
+        SearchTask tiled = new SearchTask(pSearch, pMask, l);
+        tiled.run();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, l.masks);
+        assertEquals(spiral.positionsChecked(), tiled.positionsChecked());
+    }
+
+    private void assertBandSearchFindsSameMatchesAsSpiralSearch() throws IOException {
+        SearchTask spiral = new SearchTask(pSearch, pMask, l);
+        spiral.run();
+        LinkedList<MaskData> expected = l.masks;
+
+        l = new TestDataLogger();
+        pSearch.setProperty(BAND_SEARCH, true);
+        SearchTask band = new SearchTask(pSearch, pMask, l);
+        band.run();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(new HashSet<>(expected), new HashSet<>(l.masks));
+        assertEquals(expected.size(), l.masks.size());
+        assertEquals(spiral.positionsChecked(), band.positionsChecked());
+        assertEquals(spiral.getMaxBlock().blockSize, band.getMaxBlock().blockSize);
+        assertEquals(spiral.getMinBlock().blockSize, band.getMinBlock().blockSize);
+        assertEquals(spiral.getMaxChunk().chunkSize, band.getMaxChunk().chunkSize);
+        assertEquals(spiral.getMinChunk().chunkSize, band.getMinChunk().chunkSize);
+    }
+
+    @Test
+    public void bandSearchFindsSameMatchesAsSpiralSearch() throws IOException {
+        pSearch.setProperty(CENTER_POS, new Position(-7, 12, 10, 2));
+        pSearch.setProperty(MAX_WIDTH, 90);
+        pSearch.setProperty(MIN_WIDTH, 20);
+        pSearch.setProperty(MAX_BLOCK_SZ, 73984);
+        pSearch.setProperty(MIN_BLOCK_SZ, 6000);
+        assertBandSearchFindsSameMatchesAsSpiralSearch();
+    }
+
+    @Test
+    public void fineBandSearchFindsSameMatchesAsSpiralSearch() throws IOException {
+        pSearch.setProperty(CENTER_POS, new Position(30, 30, 0, 0));
+        pSearch.setProperty(FINE_SEARCH, true);
+        pSearch.setProperty(MAX_WIDTH, 12);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 28);
+        assertBandSearchFindsSameMatchesAsSpiralSearch();
+    }
+
+    @Test
+    public void bandSearchListsMatchesRowByRow() throws IOException {
+        pSearch.setProperty(BAND_SEARCH, true);
+        pSearch.setProperty(MAX_WIDTH, 40);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 28);
+        new SearchTask(pSearch, pMask, l).run();
+        assertTrue(l.masks.size() > 1);
+        MaskData previous = null;
+        for (MaskData m : l.masks) {
+            if (previous != null) {
+                assertTrue(m.chunk.z > previous.chunk.z || m.chunk.z == previous.chunk.z && m.chunk.x > previous.chunk.x);
+            }
+            previous = m;
+        }
+    }
+
+    @Test
+    public void outputDoesNotDependOnNumberOfBufferedMatches() throws IOException {
+        pSearch.setProperty(CENTER_POS, new Position(30, 30, 0, 0));
+        pSearch.setProperty(FINE_SEARCH, true);
+        pSearch.setProperty(MAX_WIDTH, 12);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 28);
+        for (int threads : new int[] {0, 2}) {
+            pSearch.setProperty(THREADS, threads);
+            pSearch.setProperty(BAND_SEARCH, threads == 0);
+            l = new TestDataLogger();
+            SearchTask buffered = new SearchTask(pSearch, pMask, l);
+            buffered.run();
+            LinkedList<MaskData> expected = l.masks;
+
+            l = new TestDataLogger();
+            SearchTask unbuffered = new SearchTask(pSearch, pMask, l);
+            unbuffered.setMaxBufferedMatches(1);
+            unbuffered.run();
+
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, l.masks);
+            assertEquals(buffered.positionsChecked(), unbuffered.positionsChecked());
+            assertEquals(buffered.getMaxBlock(), unbuffered.getMaxBlock());
+        }
+    }
+
+    /**
+     * Interrupts the search after the given number of matches has been written
+     */
+    private class InterruptingDataLogger extends TestDataLogger {
+        private final int limit;
+        private SearchTask task;
+
+        public InterruptingDataLogger(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(MaskData m) {
+            super.write(m);
+            if (masks.size() == limit) task.interrupt(cli);
+        }
+    }
+
+    private void assertResumedSearchMatchesUninterruptedSearch() throws IOException {
+        pSearch.setProperty(CHECKPOINT_FILE, (Object) (folder.getRoot().getPath() + "/search.checkpoint"));
+        pSearch.setProperty(CHECKPOINT_INTERVAL, 1000);
+        SearchTask full = new SearchTask(pSearch, pMask, l);
+        full.run();
+        LinkedList<MaskData> expected = l.masks;
+
+        InterruptingDataLogger interruptingLogger = new InterruptingDataLogger(expected.size() / 3);
+        SearchTask interrupted = new SearchTask(pSearch, pMask, interruptingLogger);
+        interruptingLogger.task = interrupted;
+        interrupted.run();
+        assertTrue(interrupted.positionsChecked() < full.positionsChecked());
+
+        l = new TestDataLogger();
+        pSearch.setProperty(RESUME, true);
+        SearchTask resumed = new SearchTask(pSearch, pMask, l);
+        resumed.run();
+
+        // a resumed search truncates the output to its length at the checkpoint
+        LinkedList<MaskData> actual = new LinkedList<>(interruptingLogger.masks.subList(0, interruptingLogger.checkpointed));
+        actual.addAll(l.masks);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+        assertEquals(full.positionsChecked(), resumed.positionsChecked());
+        assertEquals(full.matches(), resumed.matches());
+        assertEquals(new MaskData(full.getMaxBlock()), new MaskData(resumed.getMaxBlock()));
+        assertEquals(new MaskData(full.getMinChunk()), new MaskData(resumed.getMinChunk()));
+    }
+
+    @Test
+    public void resumedSearchContinuesFromCheckpoint() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 60);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 28);
+        assertResumedSearchMatchesUninterruptedSearch();
+    }
+
+    @Test
+    public void resumedTiledSearchContinuesFromCheckpoint() throws IOException {
+        pSearch.setProperty(THREADS, 2);
+        pSearch.setProperty(MAX_WIDTH, 200);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 34);
+        assertResumedSearchMatchesUninterruptedSearch();
+    }
+
+    @Test
+    public void resumedBandSearchContinuesFromCheckpoint() throws IOException {
+        pSearch.setProperty(BAND_SEARCH, true);
+        pSearch.setProperty(MAX_WIDTH, 100);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(MIN_CHUNK_SZ, 32);
+        assertResumedSearchMatchesUninterruptedSearch();
+    }
+
+    @Test(expected = IOException.class)
+    public void resumingWithDifferentParametersFails() throws IOException {
+        pSearch.setProperty(CHECKPOINT_FILE, (Object) (folder.getRoot().getPath() + "/search.checkpoint"));
+        pSearch.setProperty(CHECKPOINT_INTERVAL, 1000);
+        pSearch.setProperty(MAX_WIDTH, 10);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        InterruptingDataLogger interruptingLogger = new InterruptingDataLogger(1);
+        SearchTask interrupted = new SearchTask(pSearch, pMask, interruptingLogger);
+        interruptingLogger.task = interrupted;
+        interrupted.run();
+
+        pSearch.setProperty(RESUME, true);
+        pSearch.setProperty(MAX_WIDTH, 11);
+        new SearchTask(pSearch, pMask, l);
+    }
+
+    /**
+     * @return the block sizes of the given positions from the largest to the smallest
+     */
+    private static List<Integer> sortedBlockSizes(List<MaskData> masks, int limit) {
+        List<Integer> sizes = new ArrayList<>();
+        for (MaskData m : masks) sizes.add(m.blockSize);
+        sizes.sort(Comparator.reverseOrder());
+        return sizes.subList(0, Math.min(limit, sizes.size()));
+    }
+
+    @Test
+    public void topKSearchKeepsBestMatches() throws IOException {
+        pSearch.setProperty(MAX_WIDTH, 60);
+        pSearch.setProperty(MAX_BLOCK_SZ, 73984);
+        SearchTask all = new SearchTask(pSearch, pMask, l);
+        all.run();
+        List<Integer> expected = sortedBlockSizes(l.masks, 20);
+
+        l = new TestDataLogger();
+        pSearch.setProperty(TOP_K, 20);
+        SearchTask top = new SearchTask(pSearch, pMask, l);
+        top.run();
+
+        assertEquals(20, l.masks.size());
+        assertEquals(20, top.matches());
+        List<Integer> actual = new ArrayList<>();
+        for (MaskData m : l.masks) {
+            actual.add(m.blockSize);
+            assertTrue(all.getMaxBlock().blockSize >= m.blockSize);
+        }
+        assertEquals(expected, actual);
+        assertEquals(all.getMaxBlock().blockSize, l.masks.getFirst().blockSize);
+    }
+
+    @Test
+    public void tiledTopKSearchFindsSameScoresAsSpiralSearch() throws IOException {
+        pSearch.setProperty(CENTER_POS, new Position(5, -3, 8, 8));
+        pSearch.setProperty(MAX_WIDTH, 130);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(TOP_K, 50);
+        pSearch.setProperty(SCORE_BLOCK_WEIGHT, 0);
+        pSearch.setProperty(SCORE_CHUNK_WEIGHT, 1);
+        new SearchTask(pSearch, pMask, l).run();
+        LinkedList<MaskData> spiral = l.masks;
+
+        for (boolean pruning : new boolean[] {false, true}) {
+            l = new TestDataLogger();
+            pSearch.setProperty(THREADS, 3);
+            pSearch.setProperty(REGION_PRUNING, pruning);
+            new SearchTask(pSearch, pMask, l).run();
+            assertEquals(50, l.masks.size());
+            for (int i = 0; i < 50; i++) {
+                assertEquals(spiral.get(i).chunkSize, l.masks.get(i).chunkSize);
+            }
+        }
+    }
+
+    @Test
+    public void fineTopKSearchFindsSameScoresAsFullSearch() throws IOException {
+        pSearch.setProperty(FINE_SEARCH, true);
+        pSearch.setProperty(MAX_WIDTH, 6);
+        pSearch.setProperty(MAX_BLOCK_SZ, 73984);
+        new SearchTask(pSearch, pMask, l).run();
+        List<Integer> expected = sortedBlockSizes(l.masks, 10);
+
+        l = new TestDataLogger();
+        pSearch.setProperty(TOP_K, 10);
+        new SearchTask(pSearch, pMask, l).run();
+        assertEquals(expected, sortedBlockSizes(l.masks, 10));
+
+        l = new TestDataLogger();
+        pSearch.setProperty(BAND_SEARCH, true);
+        new SearchTask(pSearch, pMask, l).run();
+        assertEquals(expected, sortedBlockSizes(l.masks, 10));
+    }
+
+    @Test
+    public void resumedTopKSearchContinuesFromCheckpoint() throws IOException {
+        pSearch.setProperty(THREADS, 2);
+        pSearch.setProperty(MAX_WIDTH, 300);
+        pSearch.setProperty(MAX_CHUNK_SZ, 289);
+        pSearch.setProperty(TOP_K, 30);
+        pSearch.setProperty(SCORE_BLOCK_WEIGHT, 1);
+        pSearch.setProperty(SCORE_CHUNK_WEIGHT, 256);
+        pSearch.setProperty(CHECKPOINT_FILE, (Object) (folder.getRoot().getPath() + "/search.checkpoint"));
+        pSearch.setProperty(CHECKPOINT_INTERVAL, 1000);
+        new SearchTask(pSearch, pMask, l).run();
+        LinkedList<MaskData> expected = l.masks;
+
+        SearchTask interrupted = new SearchTask(pSearch, pMask, l = new TestDataLogger());
+        new Thread(() -> {
+            while (interrupted.positionsChecked() == 0) Thread.yield();
+            interrupted.interrupt(cli);
+        }).start();
+        interrupted.run();
+        Thread.interrupted();
+        assumeTrue(interrupted.positionsChecked() < interrupted.positionsTotal());
+
+        l = new TestDataLogger();
+        pSearch.setProperty(RESUME, true);
+        new SearchTask(pSearch, pMask, l).run();
+        assertEquals(expected, l.masks);
+    }
+
+    /**
+     * @return the matches that have no better match within the given radius
+     */
+    private static HashSet<MaskData> localMaxima(List<MaskData> matches, int radius) {
+        HashSet<MaskData> maxima = new HashSet<>();
+        for (MaskData m : matches) {
+            boolean maximum = true;
+            for (MaskData n : matches) {
+                if (n == m || Math.abs(n.chunk.x - m.chunk.x) > radius || Math.abs(n.chunk.z - m.chunk.z) > radius) continue;
+                boolean before = n.chunk.z < m.chunk.z || n.chunk.z == m.chunk.z &&
+                    (n.chunk.x < m.chunk.x || n.chunk.x == m.chunk.x && (n.in.z < m.in.z || n.in.z == m.in.z && n.in.x < m.in.x));
+                if (n.blockSize > m.blockSize || n.blockSize == m.blockSize && before) maximum = false;
+            }
+            if (maximum) maxima.add(m);
+        }
+        return maxima;
+    }
+
+    @Test
+    public void suppressionKeepsLocalMaximaInEverySearchOrder() throws IOException {
+        pSearch.setProperty(CENTER_POS, new Position(40, -20, 7, 7));
+        pSearch.setProperty(MAX_WIDTH, 150);
+        pSearch.setProperty(MIN_WIDTH, 30);
+        pSearch.setProperty(MAX_BLOCK_SZ, 73984);
+        pSearch.setProperty(MIN_BLOCK_SZ, 6000);
+        new SearchTask(pSearch, pMask, l).run();
+        HashSet<MaskData> expected = localMaxima(l.masks, 3);
+        assertTrue(expected.size() > 1);
+        assertTrue(expected.size() < l.masks.size() / 4);
+
+        pSearch.setProperty(SUPPRESSION_RADIUS, 3);
+        for (int mode = 0; mode < 3; mode++) {
+            l = new TestDataLogger();
+            pSearch.setProperty(THREADS, mode == 2 ? 2 : 0);
+            pSearch.setProperty(BAND_SEARCH, mode == 1);
+            SearchTask search = new SearchTask(pSearch, pMask, l);
+            search.run();
+            assertEquals(expected, new HashSet<>(l.masks));
+            assertEquals(expected.size(), l.masks.size());
+            assertEquals(expected.size(), search.matches());
+        }
+    }
+
+    @Test
+    public void fineSearchSuppressionKeepsBestPositionOfChunks() throws IOException {
+        pSearch.setProperty(FINE_SEARCH, true);
+        pSearch.setProperty(MAX_WIDTH, 8);
+        pSearch.setProperty(MAX_BLOCK_SZ, 73984);
+        pSearch.setProperty(MIN_BLOCK_SZ, 4000);
+        new SearchTask(pSearch, pMask, l).run();
+        HashSet<MaskData> expected = localMaxima(l.masks, 1);
+
+        l = new TestDataLogger();
+        pSearch.setProperty(SUPPRESSION_RADIUS, 1);
+        new SearchTask(pSearch, pMask, l).run();
+        assertEquals(expected, new HashSet<>(l.masks));
+    }
+
+    @Test
+    public void resumedSuppressedSearchContinuesFromCheckpoint() throws IOException {
+        pSearch.setProperty(BAND_SEARCH, true);
+        pSearch.setProperty(MAX_WIDTH, 100);
+        pSearch.setProperty(MAX_BLOCK_SZ, 73984);
+        pSearch.setProperty(MIN_BLOCK_SZ, 5000);
+        pSearch.setProperty(SUPPRESSION_RADIUS, 4);
+        assertResumedSearchMatchesUninterruptedSearch();
+    }
+
     private boolean equals(MaskData m1, MaskData data) {
         return
             m1.chunk.equals(data.chunk) &&
@@ -0,0 +1,187 @@
+package slimefinder.core.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import slimefinder.core.mask.Mask;
+import slimefinder.core.mask.MaskData;
+import slimefinder.io.CLI;
+import slimefinder.io.SeedLogger;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.io.properties.SeedProperties;
+import slimefinder.util.Position;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.io.properties.MaskProperties.*;
+import static slimefinder.io.properties.SeedProperties.*;
+
+public class SeedSearchTaskTest {
+
+    private SeedProperties pSeeds;
+    private MaskProperties pMask;
+    private CLI cli;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        cli = new CLI();
+
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, 0L);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(WEIGHT, 0);
+        pMask.setProperty(OFFSET, 0);
+
+        pSeeds = new SeedProperties();
+        pSeeds.setProperty(FIRST_SEED, -300L);
+        pSeeds.setProperty(SEED_COUNT, 700L);
+        pSeeds.setProperty(CENTER_POS, new Position(30, -20, 5, 11));
+        pSeeds.setProperty(RADIUS, 3);
+        pSeeds.setProperty(MIN_BLOCK_SZ, 0);
+        pSeeds.setProperty(MIN_CHUNK_SZ, 40);
+        pSeeds.setProperty(RESULTS, (Object) folder.newFile("seeds.csv").getPath());
+        pSeeds.setProperty(APPEND, false);
+        pSeeds.setProperty(THREADS, 1);
+        pSeeds.setProperty(RESUME, false);
+        pSeeds.setProperty(CHECKPOINT_FILE, (Object) new File(folder.getRoot(), "seeds.checkpoint").getPath());
+        pSeeds.setProperty(CHECKPOINT_INTERVAL, 0);
+    }
+
+    /**
+     * Runs the task and clears the interrupt status that it leaves on the thread when it stops
+     */
+    private static void run(SeedSearchTask task) {
+        task.run();
+        Thread.interrupted();
+    }
+
+    private List<String> run() throws IOException {
+        SeedSearchTask task = new SeedSearchTask(pSeeds, pMask, cli);
+        run(task);
+        assertEquals(700, task.seedsChecked());
+        return Files.readAllLines(new File(pSeeds.getString(RESULTS)).toPath(), StandardCharsets.UTF_8);
+    }
+
+    private void assertLargestSizesMatchMask() throws IOException {
+        SeedSearchTask task = new SeedSearchTask(pSeeds, pMask, cli);
+        for (long seed = 0; seed < 20; seed++) {
+            pMask.setProperty(SEED, seed);
+            int maxBlock = -1, maxChunk = -1;
+            for (int z = -23; z <= -17; z++) {
+                for (int x = 27; x <= 33; x++) {
+                    Mask m = new Mask(pMask, x, z, 5, 11);
+                    maxBlock = Math.max(maxBlock, m.blockSize);
+                    maxChunk = Math.max(maxChunk, m.chunkSize);
+                }
+            }
+            SeedSearchTask.SeedResult result = task.evaluate(seed);
+            assertEquals(maxBlock, result.maxBlock.blockSize);
+            assertEquals(maxChunk, result.maxChunk.chunkSize);
+            Mask m = new Mask(pMask, result.maxBlock.chunk.x, result.maxBlock.chunk.z, 5, 11);
+            assertEquals(maxBlock, m.blockSize);
+            assertEquals(m.chunkSize, result.maxBlock.chunkSize);
+        }
+    }
+
+    @Test
+    public void largestSizesMatchMask() throws IOException {
+        assertLargestSizesMatchMask();
+    }
+
+    @Test
+    public void largestSizesWithoutSpheresMatchMask() throws IOException {
+        pMask.setProperty(DESPAWN, false);
+        pMask.setProperty(EXCLUSION, false);
+        assertLargestSizesMatchMask();
+    }
+
+    @Test
+    public void matchingSeedsAreWritten() throws IOException {
+        List<String> lines = run();
+        SeedSearchTask task = new SeedSearchTask(pSeeds, pMask, cli);
+        int line = 1;
+        for (long seed = -300; seed < 400; seed++) {
+            SeedSearchTask.SeedResult result = task.evaluate(seed);
+            if (result.maxChunk.chunkSize < 40) continue;
+            assertTrue(lines.get(line++).startsWith(seed + ";"));
+        }
+        assertEquals(line, lines.size());
+        assertTrue(lines.size() > 1);
+    }
+
+    @Test
+    public void resultsDoNotDependOnThreads() throws IOException {
+        List<String> expected = run();
+        pSeeds.setProperty(THREADS, 3);
+        assertEquals(expected, run());
+    }
+
+    /**
+     * Interrupts the search after the given number of seeds has been written
+     */
+    private class InterruptingSeedLogger extends SeedLogger {
+        private final int limit;
+        private int written;
+        private SeedSearchTask task;
+
+        public InterruptingSeedLogger(int limit) {
+            super(cli);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(long seed, MaskData maxBlock, MaskData maxChunk) throws IOException {
+            super.write(seed, maxBlock, maxChunk);
+            if (++written == limit) task.interrupt(cli);
+        }
+    }
+
+    @Test
+    public void resumedSearchContinuesFromCheckpoint() throws IOException {
+        pSeeds.setProperty(THREADS, 2);
+        pSeeds.setProperty(CHECKPOINT_INTERVAL, 1000);
+        List<String> expected = run();
+
+        InterruptingSeedLogger interruptingLogger = new InterruptingSeedLogger((expected.size() - 1) / 3);
+        SeedSearchTask interrupted = new SeedSearchTask(pSeeds, pMask, interruptingLogger, cli);
+        interruptingLogger.task = interrupted;
+        run(interrupted);
+        assertTrue(interrupted.seedsChecked() < 700);
+        assertTrue(new File(pSeeds.getString(CHECKPOINT_FILE)).exists());
+
+        pSeeds.setProperty(RESUME, true);
+        assertEquals(expected, run());
+        assertFalse(new File(pSeeds.getString(CHECKPOINT_FILE)).exists());
+    }
+
+    @Test(expected = IOException.class)
+    public void resumingWithDifferentRegionFails() throws IOException {
+        pSeeds.setProperty(CHECKPOINT_INTERVAL, 1000);
+        InterruptingSeedLogger interruptingLogger = new InterruptingSeedLogger(1);
+        SeedSearchTask interrupted = new SeedSearchTask(pSeeds, pMask, interruptingLogger, cli);
+        interruptingLogger.task = interrupted;
+        run(interrupted);
+
+        pSeeds.setProperty(RADIUS, 4);
+        pSeeds.setProperty(RESUME, true);
+        new SeedSearchTask(pSeeds, pMask, cli);
+    }
+
+    @Test(expected = IOException.class)
+    public void bedrockSeedSearchIsRejected() throws IOException {
+        pMask.setProperty(ALGORITHM, (Object) "bedrock");
+        new SeedSearchTask(pSeeds, pMask, cli);
+    }
+}
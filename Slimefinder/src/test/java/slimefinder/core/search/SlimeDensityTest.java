@@ -0,0 +1,62 @@
+package slimefinder.core.search;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import slimefinder.core.slime.SlimeChunkOracle;
+
+import static org.junit.Assert.*;
+
+import static slimefinder.core.mask.AbstractMask.R_CHUNK;
+
+public class SlimeDensityTest {
+
+    private static final long WORLD_SEED = 98765L;
+
+    private int bruteForceCount(int x0, int z0, int x1, int z1) {
+        int count = 0;
+        for (int x = x0; x <= x1; x++) {
+            for (int z = z0; z <= z1; z++) {
+                if (SlimeChunkOracle.isSlimeChunk(WORLD_SEED, x, z)) ++count;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void countsSlimeChunksInRectangles() {
+        Tile tile = new Tile(-30, 100, 9, 163);
+        SlimeDensity density = new SlimeDensity(SlimeDensity.area(WORLD_SEED, tile), tile);
+        Random r = new Random(0);
+        for (int i = 0; i < 200; i++) {
+            int x0 = tile.minX - R_CHUNK + r.nextInt(56), x1 = x0 + r.nextInt(tile.maxX + R_CHUNK - x0 + 1);
+            int z0 = tile.minZ - R_CHUNK + r.nextInt(80), z1 = z0 + r.nextInt(tile.maxZ + R_CHUNK - z0 + 1);
+            assertEquals(bruteForceCount(x0, z0, x1, z1), density.count(x0, z0, x1, z1));
+        }
+    }
+
+    @Test
+    public void candidatesAreThePositionsWithEnoughSlimeChunksAround() {
+        Tile tile = new Tile(500, -700, 563, -650);
+        SlimeDensity density = new SlimeDensity(SlimeDensity.area(WORLD_SEED, tile), tile);
+        int width = tile.maxX - tile.minX + 1;
+        int[] counts = new int[(int) tile.size()];
+        int max = 0;
+        for (int z = tile.minZ; z <= tile.maxZ; z++) {
+            for (int x = tile.minX; x <= tile.maxX; x++) {
+                int count = bruteForceCount(x - R_CHUNK, z - R_CHUNK, x + R_CHUNK, z + R_CHUNK);
+                counts[(z - tile.minZ) * width + x - tile.minX] = count;
+                max = Math.max(max, count);
+            }
+        }
+        int threshold = max - 3;
+        BitSet candidates = density.candidates(count -> count >= threshold);
+        for (int i = 0; i < counts.length; i++) {
+            assertEquals(counts[i] >= threshold, candidates.get(i));
+        }
+        assertTrue(candidates.cardinality() > 0);
+        assertTrue(candidates.cardinality() < counts.length / 2);
+    }
+}
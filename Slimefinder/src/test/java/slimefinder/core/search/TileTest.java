@@ -0,0 +1,35 @@
+package slimefinder.core.search;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import slimefinder.util.Point;
+
+public class TileTest {
+
+    /**
+     * @return the smallest index on the path of the chunks of the tile found by checking every chunk
+     */
+    private static long bruteForceFirstIndex(Tile tile, SearchPath path) {
+        long first = -1;
+        for (int x = tile.minX; x <= tile.maxX; x++) {
+            for (int z = tile.minZ; z <= tile.maxZ; z++) {
+                long index = path.indexOf(new Point(x, z));
+                if (index >= 0 && (first < 0 || index < first)) first = index;
+            }
+        }
+        return first;
+    }
+
+    @Test
+    public void firstIndexIsSmallestIndexOfChunksOnPath() {
+        int[][] widths = {{0, 1}, {0, 30}, {7, 30}, {12, 31}, {29, 30}};
+        for (int[] w : widths) {
+            SearchPath path = new SearchPath(new Point(-3, 5), w[0], w[1]);
+            for (Tile tile : Tile.split(path, 8)) {
+                assertEquals(tile.toString(), bruteForceFirstIndex(tile, path), tile.firstIndex(path));
+            }
+            assertEquals(-1, new Tile(100, 100, 107, 107).firstIndex(path));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package slimefinder.core.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+import static org.junit.Assert.*;
+
+public class TopKTest {
+
+    private static MaskData data(int x, int z, int blockSize, int chunkSize) {
+        MaskData m = new MaskData();
+        m.chunk = new Point(x, z);
+        m.in = new Point(x & 15, z & 15);
+        m.blockSize = blockSize;
+        m.chunkSize = chunkSize;
+        m.blockSurfaceArea = 1000 + x;
+        m.chunkSurfaceArea = 100 + z;
+        return m;
+    }
+
+    @Test
+    public void keepsPositionsWithHighestScores() {
+        Random random = new Random(7);
+        TopK top = new TopK(25, 1, 0);
+        List<MaskData> all = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            MaskData m = data(i, -i, random.nextInt(100000), random.nextInt(289));
+            all.add(m);
+            top.offer(m);
+        }
+        all.sort(Comparator.comparingInt((MaskData m) -> m.blockSize).reversed());
+        List<MaskData> list = top.toList();
+        assertEquals(25, list.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(all.get(i).blockSize, list.get(i).blockSize);
+        }
+        assertEquals(list.get(24).blockSize + 1, top.threshold());
+    }
+
+    @Test
+    public void positionsAreRestoredCompletely() {
+        TopK top = new TopK(3, 0, 1);
+        MaskData m = data(-123456, 654321, 5000, 40);
+        top.offer(m);
+        top.offer(data(0, 0, 9000, 30));
+        assertEquals(m, top.toList().get(0));
+        assertEquals(1000 - 123456, top.toList().get(0).blockSurfaceArea);
+    }
+
+    @Test
+    public void scoreIsWeightedSum() {
+        TopK top = new TopK(1, 2, 300);
+        assertEquals(2 * 70000 + 300 * 280, top.score(70000, 280));
+        top.offer(data(0, 0, 256, 1));
+        top.offer(data(1, 0, 0, 3));
+        assertEquals(1, top.toList().get(0).chunk.x);
+    }
+
+    @Test
+    public void thresholdAcceptsAnythingUntilFull() {
+        TopK top = new TopK(2, 1, 0);
+        assertEquals(Long.MIN_VALUE, top.threshold());
+        assertTrue(top.offer(data(0, 0, 10, 0)));
+        assertEquals(Long.MIN_VALUE, top.threshold());
+        assertTrue(top.offer(data(1, 0, 20, 0)));
+        assertEquals(11, top.threshold());
+        assertFalse(top.offer(data(2, 0, 10, 0)));
+        assertTrue(top.offer(data(3, 0, 11, 0)));
+        assertEquals(2, top.size());
+        assertEquals(12, top.threshold());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePositive() {
+        new TopK(0, 1, 0);
+    }
+}
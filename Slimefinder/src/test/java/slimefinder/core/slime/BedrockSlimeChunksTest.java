@@ -0,0 +1,99 @@
+package slimefinder.core.slime;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BedrockSlimeChunksTest {
+
+    /**
+     * The first output of a Mersenne Twister computed by initializing and twisting the whole state
+     */
+    private static int referenceFirstOutput(int seed) {
+        int[] mt = new int[624];
+        mt[0] = seed;
+        for (int i = 1; i < 624; i++) {
+            mt[i] = 1812433253 * (mt[i - 1] ^ mt[i - 1] >>> 30) + i;
+        }
+        for (int k = 0; k < 624; k++) {
+            int y = mt[k] & 0x80000000 | mt[(k + 1) % 624] & 0x7FFFFFFF;
+            mt[k] = mt[(k + 397) % 624] ^ y >>> 1 ^ ((y & 1) != 0 ? 0x9908B0DF : 0);
+        }
+        int y = mt[0];
+        y ^= y >>> 11;
+        y ^= y << 7 & 0x9D2C5680;
+        y ^= y << 15 & 0xEFC60000;
+        return y ^ y >>> 18;
+    }
+
+    private static boolean referenceIsSlimeChunk(int chunkX, int chunkZ) {
+        return (referenceFirstOutput(chunkX * 0x1F1F1F1F ^ chunkZ) & 0xFFFFFFFFL) % 10 == 0;
+    }
+
+    @Test
+    public void firstOutputMatchesKnownValue() {
+        assertEquals(0xD091BB5C, referenceFirstOutput(5489));
+        assertEquals(0xD091BB5C, BedrockSlimeChunks.firstOutput(5489));
+    }
+
+    @Test
+    public void firstOutputMatchesReference() {
+        Random random = new Random(5);
+        for (int n = 0; n < 1000; n++) {
+            int seed = random.nextInt();
+            assertEquals(referenceFirstOutput(seed), BedrockSlimeChunks.firstOutput(seed));
+        }
+    }
+
+    @Test
+    public void chunksMatchReference() {
+        SlimeChunkSource source = new BedrockSlimeChunks();
+        for (int x = -20; x < 20; x++) {
+            for (int z = -20; z < 20; z++) {
+                assertEquals(referenceIsSlimeChunk(x, z), source.isSlimeChunk(x, z));
+            }
+        }
+    }
+
+    @Test
+    public void rowsMatchSingleChunks() {
+        SlimeChunkSource source = new BedrockSlimeChunks();
+        Random random = new Random(6);
+        for (int n = 0; n < 20; n++) {
+            int minX = random.nextInt(), chunkZ = random.nextInt(), count = 1 + random.nextInt(200);
+            long[] words = new long[(count + 63) / 64];
+            source.row(minX, chunkZ, count, words, 0);
+            for (int i = 0; i < 64 * words.length; i++) {
+                boolean expected = i < count && source.isSlimeChunk(minX + i, chunkZ);
+                assertEquals(expected, (words[i >>> 6] >>> i & 1) != 0);
+            }
+        }
+    }
+
+    @Test
+    public void shortRowsAndColumnsMatchSingleChunks() {
+        SlimeChunkSource source = new BedrockSlimeChunks();
+        for (int x = -40; x < 40; x += 7) {
+            int row = source.row(x, 3, 17), column = source.column(x, 3, 17);
+            for (int i = 0; i < 17; i++) {
+                assertEquals(source.isSlimeChunk(x + i, 3), (row >>> i & 1) != 0);
+                assertEquals(source.isSlimeChunk(x, 3 + i), (column >>> i & 1) != 0);
+            }
+            assertEquals(0, row >>> 17);
+            assertEquals(0, column >>> 17);
+        }
+    }
+
+    @Test
+    public void aboutATenthOfChunksAreSlimeChunks() {
+        long[] words = new long[16];
+        int count = 0;
+        for (int z = 0; z < 64; z++) {
+            new BedrockSlimeChunks().row(0, z, 1024, words, 0);
+            for (long word : words) count += Long.bitCount(word);
+        }
+        assertEquals(0.1, count / 65536.0, 0.01);
+    }
+}
@@ -0,0 +1,154 @@
+package slimefinder.core.slime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class SlimeAtlasTest {
+
+    private static final long WORLD_SEED = 123456789L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file() {
+        return SlimeAtlas.file(folder.getRoot().getPath(), WORLD_SEED);
+    }
+
+    private static void assertRowsMatchOracle(SlimeAtlas atlas, int minX, int minZ, int width, int height) {
+        long[] words = new long[(width + 63) >>> 6];
+        for (int z = minZ; z < minZ + height; z++) {
+            atlas.row(minX, z, width, words, 0);
+            for (int i = 0; i < width; i++) {
+                assertEquals(SlimeChunkOracle.isSlimeChunk(WORLD_SEED, minX + i, z), (words[i >>> 6] >>> i & 1) != 0);
+            }
+            if ((width & 63) != 0) assertEquals(0L, words[words.length - 1] >>> (width & 63));
+        }
+    }
+
+    @Test
+    public void rowsMatchOracle() throws IOException {
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED)) {
+            assertRowsMatchOracle(atlas, -100, -70, 230, 5);
+            assertRowsMatchOracle(atlas, 64, 3, 128, 2);
+            assertRowsMatchOracle(atlas, -7, 64, 40, 2);
+        }
+    }
+
+    @Test
+    public void shortRowsMatchOracle() throws IOException {
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED)) {
+            for (int x = -80; x < 80; x++) {
+                int bits = atlas.row(x, -1, 17);
+                for (int i = 0; i < 17; i++) {
+                    assertEquals(SlimeChunkOracle.isSlimeChunk(WORLD_SEED, x + i, -1), (bits >>> i & 1) != 0);
+                }
+                assertEquals(0, bits >>> 17);
+            }
+        }
+    }
+
+    @Test
+    public void tilesArePersisted() throws IOException {
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED)) {
+            atlas.row(-64, 0, 192, new long[3], 0);
+            assertEquals(3, atlas.tileCount());
+        }
+        assertEquals(SlimeAtlas.HEADER_SIZE + 3 * SlimeAtlas.RECORD_SIZE, file().length());
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED)) {
+            assertFalse(atlas.wasReplaced());
+            assertEquals(0, atlas.discardedTiles());
+            assertEquals(3, atlas.tileCount());
+            assertRowsMatchOracle(atlas, -64, 0, 192, 64);
+            assertEquals(3, atlas.tileCount());
+        }
+    }
+
+    @Test
+    public void corruptedTileIsDiscardedAndRecomputed() throws IOException {
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED)) {
+            atlas.row(0, 0, 128, new long[2], 0);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            long position = SlimeAtlas.HEADER_SIZE + SlimeAtlas.RECORD_SIZE + 100;
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 1);
+        }
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED)) {
+            assertEquals(1, atlas.discardedTiles());
+            assertEquals(1, atlas.tileCount());
+            assertRowsMatchOracle(atlas, 0, 0, 128, 64);
+            assertEquals(2, atlas.tileCount());
+        }
+    }
+
+    @Test
+    public void atlasOfAnotherWorldIsReplaced() throws IOException {
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED + 1)) {
+            atlas.row(0, 0, 64, new long[1], 0);
+        }
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED)) {
+            assertTrue(atlas.wasReplaced());
+            assertEquals(0, atlas.tileCount());
+            assertRowsMatchOracle(atlas, 0, 0, 64, 64);
+        }
+    }
+
+    @Test
+    public void truncatedHeaderIsReplaced() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            raf.write(SlimeAtlas.MAGIC);
+        }
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED)) {
+            assertTrue(atlas.wasReplaced());
+            assertRowsMatchOracle(atlas, 0, 0, 64, 3);
+        }
+    }
+
+    @Test
+    public void bedrockAtlasMatchesBedrockChunks() throws IOException {
+        File file = SlimeAtlas.file(folder.getRoot().getPath(), WORLD_SEED, SlimeAlgorithm.BEDROCK);
+        assertEquals("bedrock-0.atlas", file.getName());
+        try (SlimeAtlas atlas = new SlimeAtlas(file, WORLD_SEED, SlimeAlgorithm.BEDROCK)) {
+            long[] words = new long[2];
+            atlas.row(-70, 5, 100, words, 0);
+            for (int i = 0; i < 100; i++) {
+                boolean expected = BedrockSlimeChunks.isSlimeChunkStatic(-70 + i, 5);
+                assertEquals(expected, (words[i >>> 6] >>> i & 1) != 0);
+                assertEquals(expected, atlas.isSlimeChunk(-70 + i, 5));
+            }
+        }
+        try (SlimeAtlas atlas = new SlimeAtlas(file, WORLD_SEED + 1, SlimeAlgorithm.BEDROCK)) {
+            assertFalse(atlas.wasReplaced());
+            assertEquals(3, atlas.tileCount());
+        }
+    }
+
+    @Test
+    public void atlasOfAnotherAlgorithmIsReplaced() throws IOException {
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), 0, SlimeAlgorithm.BEDROCK)) {
+            atlas.row(0, 0, 64, new long[1], 0);
+        }
+        try (SlimeAtlas atlas = new SlimeAtlas(file(), 0)) {
+            assertTrue(atlas.wasReplaced());
+            assertEquals(SlimeAlgorithm.JAVA, atlas.getAlgorithm());
+        }
+    }
+
+    @Test
+    public void tilesAreComputedWhenTheyCannotBeStored() throws IOException {
+        SlimeAtlas atlas = new SlimeAtlas(file(), WORLD_SEED);
+        atlas.close();
+        assertRowsMatchOracle(atlas, -100, -70, 230, 5);
+        assertNotNull(atlas.writeFailure());
+        assertEquals(0, atlas.tileCount());
+    }
+}
@@ -0,0 +1,57 @@
+package slimefinder.core.slime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SlimeBitmapTest {
+
+    @Test
+    public void bitsMatchOracle() {
+        long seed = 987654321L;
+        SlimeBitmap bitmap = new SlimeBitmap(seed, -70, 30, 150, 20);
+        assertEquals(3, bitmap.wordsPerRow());
+        for (int z = 30; z < 50; z++) {
+            for (int x = -70; x < 80; x++) {
+                assertEquals(SlimeChunkOracle.isSlimeChunk(seed, x, z), bitmap.isSlimeChunk(x, z));
+            }
+        }
+    }
+
+    @Test
+    public void bitsBeyondWidthAreClear() {
+        SlimeBitmap bitmap = new SlimeBitmap(0L, 0, 0, 70, 5);
+        for (int z = 0; z < 5; z++) {
+            assertEquals(0L, bitmap.word(z, 1) >>> 6);
+        }
+    }
+
+    @Test
+    public void bitsAcrossWordsMatchOracle() {
+        long seed = 31L;
+        SlimeBitmap bitmap = new SlimeBitmap(seed, 0, 0, 200, 3);
+        for (int x = 0; x + 17 <= 200; x++) {
+            int bits = bitmap.bits(x, 1, 17);
+            for (int i = 0; i < 17; i++) {
+                assertEquals(SlimeChunkOracle.isSlimeChunk(seed, x + i, 1), (bits >>> i & 1) != 0);
+            }
+            assertEquals(0, bits >>> 17);
+        }
+    }
+
+    @Test
+    public void scrolledBitmapMatchesOracle() {
+        long seed = -5L;
+        SlimeBitmap bitmap = new SlimeBitmap(seed, 10, -20, 90, 17);
+        for (int i = 0; i < 40; i++) {
+            bitmap.scroll();
+        }
+        assertEquals(20, bitmap.minZ);
+        for (int z = 20; z < 37; z++) {
+            for (int x = 10; x < 100; x++) {
+                assertEquals(SlimeChunkOracle.isSlimeChunk(seed, x, z), bitmap.isSlimeChunk(x, z));
+                assertEquals(bitmap.isSlimeChunk(x, z), (bitmap.word(z - 20, (x - 10) >>> 6) >>> (x - 10) & 1) != 0);
+            }
+        }
+    }
+}
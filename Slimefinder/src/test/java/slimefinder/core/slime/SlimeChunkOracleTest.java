@@ -0,0 +1,61 @@
+package slimefinder.core.slime;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SlimeChunkOracleTest {
+
+    /**
+     * The original implementation that reseeds a java.util.Random
+     */
+    private static boolean reference(long seed, int chunkX, int chunkZ) {
+        Random r = new Random(seed + (long) (chunkX * chunkX * 4987142) + (long) (chunkX * 5947611) + (long) (chunkZ * chunkZ) * 4392871L + (long) (chunkZ * 389711) ^ 987234911L);
+        return r.nextInt(10) == 0;
+    }
+
+    @Test
+    public void knownSlimeChunksAreDetected() {
+        assertTrue(SlimeChunkOracle.isSlimeChunk(0, 1, -3));
+        assertFalse(SlimeChunkOracle.isSlimeChunk(0, 10, -6));
+    }
+
+    @Test
+    public void matchesJavaRandomNearOrigin() {
+        for (long seed : new long[] {0L, 1L, -1L, 123456789L, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            for (int x = -64; x <= 64; x++) {
+                for (int z = -64; z <= 64; z++) {
+                    assertEquals(
+                        "seed=" + seed + ", chunk=" + x + "," + z,
+                        reference(seed, x, z), SlimeChunkOracle.isSlimeChunk(seed, x, z)
+                    );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void matchesJavaRandomWhenIntArithmeticOverflows() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            long seed = random.nextLong();
+            int x = random.nextInt();
+            int z = random.nextInt();
+            assertEquals(reference(seed, x, z), SlimeChunkOracle.isSlimeChunk(seed, x, z));
+        }
+    }
+
+    @Test
+    public void rejectionLoopMatchesJavaRandom() {
+        // Seeds whose first 31-bit output falls in the rejected range of nextInt(10)
+        long multiplierInverse = 0xDFE05BCB1365L;
+        for (int bits = Integer.MAX_VALUE - 7; bits > 0; bits++) {
+            long state = ((long) bits << 17);
+            long previous = ((state - SlimeChunkOracle.ADDEND) * multiplierInverse) & SlimeChunkOracle.MASK;
+            long seed = previous ^ SlimeChunkOracle.MULTIPLIER;
+            assertEquals(new Random(seed).nextInt(10) == 0, SlimeChunkOracle.isSlimeSeed(seed));
+        }
+    }
+}
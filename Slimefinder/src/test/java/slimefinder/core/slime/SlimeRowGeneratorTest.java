@@ -0,0 +1,62 @@
+package slimefinder.core.slime;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SlimeRowGeneratorTest {
+
+    private void assertRowMatchesOracle(long seed, int minX, int chunkZ, int count) {
+        long[] words = new long[(count + 63) / 64 + 1];
+        Arrays.fill(words, -1L);
+        SlimeRowGenerator.generate(seed, minX, chunkZ, count, words, 1);
+        assertEquals(-1L, words[0]);
+        for (int i = 0; i < 64 * (words.length - 1); i++) {
+            boolean expected = i < count && SlimeChunkOracle.isSlimeChunk(seed, minX + i, chunkZ);
+            assertEquals(expected, (words[1 + (i >>> 6)] >>> i & 1) != 0);
+        }
+    }
+
+    @Test
+    public void rowsMatchOracle() {
+        Random random = new Random(3);
+        for (int n = 0; n < 50; n++) {
+            int count = random.nextInt(300);
+            assertRowMatchesOracle(random.nextLong(), random.nextInt(4000) - 2000, random.nextInt(4000) - 2000, count);
+        }
+    }
+
+    @Test
+    public void rowsMatchOracleWithOverflowingCoordinates() {
+        Random random = new Random(4);
+        for (int n = 0; n < 50; n++) {
+            assertRowMatchesOracle(random.nextLong(), random.nextInt(), random.nextInt(), 1 + random.nextInt(200));
+        }
+        assertRowMatchesOracle(0L, Integer.MAX_VALUE - 50, 0, 128);
+        assertRowMatchesOracle(1L, 46300, 46341, 100);
+    }
+
+    @Test
+    public void rowsOfWholeWordsMatchOracle() {
+        for (int count : new int[] {1, 63, 64, 65, 128}) {
+            assertRowMatchesOracle(42L, -30, 7, count);
+        }
+    }
+
+    @Test
+    public void shortRowsMatchOracle() {
+        Random random = new Random(5);
+        for (int n = 0; n < 200; n++) {
+            long seed = random.nextLong();
+            int minX = random.nextInt(), chunkZ = random.nextInt(), count = random.nextInt(33);
+            int row = SlimeRowGenerator.generate(seed, minX, chunkZ, count);
+            for (int i = 0; i < 32; i++) {
+                boolean expected = i < count && SlimeChunkOracle.isSlimeChunk(seed, minX + i, chunkZ);
+                assertEquals(expected, (row >>> i & 1) != 0);
+            }
+        }
+    }
+}
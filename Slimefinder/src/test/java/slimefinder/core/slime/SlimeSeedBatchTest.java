@@ -0,0 +1,96 @@
+package slimefinder.core.slime;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class SlimeSeedBatchTest {
+
+    /**
+     * Seeds of random chunks and seeds whose first value is rejected by nextInt(10)
+     */
+    private static long[][] batches() {
+        Random random = new Random(11);
+        long[][] batches = new long[200][];
+        for (int n = 0; n < batches.length; n++) {
+            long[] seeds = new long[1 + random.nextInt(SlimeSeedBatch.SIZE)];
+            for (int i = 0; i < seeds.length; i++) {
+                seeds[i] = SlimeChunkOracle.chunkSeed(random.nextLong(), random.nextInt(), random.nextInt());
+            }
+            batches[n] = seeds;
+        }
+        // every other seed has a first value rejected by nextInt(10), found by inverting the generator
+        long inverse = BigInteger.valueOf(SlimeChunkOracle.MULTIPLIER).modInverse(BigInteger.ONE.shiftLeft(48)).longValue();
+        long[] rejected = new long[SlimeSeedBatch.SIZE];
+        for (int i = 0; i < rejected.length; i++) {
+            long state = (long) (SlimeSeeds.REJECTED + random.nextInt(8)) << 17 | random.nextInt(1 << 17);
+            long seed = ((state - SlimeChunkOracle.ADDEND) * inverse & SlimeChunkOracle.MASK) ^ SlimeChunkOracle.MULTIPLIER;
+            rejected[i] = (i & 1) == 0 ? seed : random.nextLong();
+        }
+        batches[0] = rejected;
+        return batches;
+    }
+
+    private static long expected(long[] seeds) {
+        long result = 0;
+        for (int i = 0; i < seeds.length; i++) {
+            if (SlimeChunkOracle.isSlimeSeed(seeds[i])) result |= 1L << i;
+        }
+        return result;
+    }
+
+    @Test
+    public void rejectedSeedsAreRejected() {
+        long[] seeds = batches()[0];
+        for (int i = 0; i < seeds.length; i += 2) {
+            long state = ((seeds[i] ^ SlimeChunkOracle.MULTIPLIER) * SlimeChunkOracle.MULTIPLIER + SlimeChunkOracle.ADDEND) & SlimeChunkOracle.MASK;
+            assertTrue((int) (state >>> 17) >= SlimeSeeds.REJECTED);
+        }
+    }
+
+    @Test
+    public void batchesMatchOracle() {
+        for (long[] seeds : batches()) {
+            assertEquals(expected(seeds), SlimeSeedBatch.test(seeds, seeds.length));
+        }
+    }
+
+    @Test
+    public void onlyCountSeedsAreTested() {
+        long[] seeds = new long[SlimeSeedBatch.SIZE];
+        for (int i = 0; i < seeds.length; i++) seeds[i] = SlimeChunkOracle.chunkSeed(0L, i, 0);
+        long all = SlimeSeedBatch.test(seeds, seeds.length);
+        assertEquals(all & ((1L << 10) - 1), SlimeSeedBatch.test(seeds, 10));
+        assertEquals(0L, SlimeSeedBatch.test(seeds, 0));
+    }
+
+    /**
+     * Loads the version of SlimeSeedBatch in the multi-release part of the build output, which is
+     * only compiled on Java 17 and later.
+     */
+    @Test
+    public void versionedBatchesMatchOracle() throws Exception {
+        File classes = new File("target/classes");
+        File versioned = new File(classes, "META-INF/versions/17");
+        assumeTrue(new File(versioned, "slimefinder/core/slime/SlimeSeedBatch.class").exists());
+        try (URLClassLoader loader = new URLClassLoader(
+            new URL[] {versioned.toURI().toURL(), classes.toURI().toURL()},
+            ClassLoader.getSystemClassLoader().getParent()
+        )) {
+            Class<?> batch = loader.loadClass(SlimeSeedBatch.class.getName());
+            Method test = batch.getMethod("test", long[].class, int.class);
+            assertNotNull(batch.getMethod("implementation").invoke(null));
+            for (long[] seeds : batches()) {
+                assertEquals(expected(seeds), test.invoke(null, seeds, seeds.length));
+            }
+        }
+    }
+}
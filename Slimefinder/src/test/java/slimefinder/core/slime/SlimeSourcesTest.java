@@ -0,0 +1,89 @@
+package slimefinder.core.slime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import slimefinder.io.CLI;
+import slimefinder.io.properties.MaskProperties;
+
+import static org.junit.Assert.*;
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class SlimeSourcesTest {
+
+    private static final long WORLD_SEED = 123456789L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream out = System.out;
+
+    private CLI cli;
+
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(outContent));
+        cli = new CLI();
+    }
+
+    @After
+    public void tearDown() {
+        SlimeSources.closeAll(cli);
+        System.setOut(out);
+    }
+
+    private MaskProperties maskProperties(String atlas) {
+        MaskProperties pMask = new MaskProperties();
+        pMask.setProperty(SEED, WORLD_SEED);
+        pMask.setProperty(ATLAS, (Object) atlas);
+        return pMask;
+    }
+
+    private String output() {
+        cli.flush();
+        return outContent.toString();
+    }
+
+    @Test
+    public void atlasThatCannotBeOpenedIsReportedOnce() throws IOException {
+        File notADirectory = folder.newFile();
+        MaskProperties pMask = maskProperties(notADirectory.getPath());
+        SlimeSources.open(pMask, cli);
+        SlimeSources.open(pMask, cli);
+        assertNull(SlimeSources.atlas(pMask));
+        assertEquals(SlimeChunkOracle.isSlimeChunk(WORLD_SEED, 3, -7), SlimeSources.get(pMask).isSlimeChunk(3, -7));
+        String output = output();
+        assertTrue(output.contains("Could not open slime atlas"));
+        assertEquals(output.indexOf("Could not open"), output.lastIndexOf("Could not open"));
+    }
+
+    @Test
+    public void damagedAtlasIsReported() throws IOException {
+        File file = SlimeAtlas.file(folder.getRoot().getPath(), WORLD_SEED);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write(new byte[SlimeAtlas.HEADER_SIZE]);
+        }
+        MaskProperties pMask = maskProperties(folder.getRoot().getPath());
+        SlimeSources.open(pMask, cli);
+        assertNotNull(SlimeSources.atlas(pMask));
+        assertTrue(output().contains("was replaced"));
+    }
+
+    @Test
+    public void validAtlasIsNotReported() {
+        MaskProperties pMask = maskProperties(folder.getRoot().getPath());
+        SlimeSources.open(pMask, cli);
+        assertNotNull(SlimeSources.atlas(pMask));
+        assertFalse(output().contains(CLI.WARNING_PREFIX));
+    }
+}
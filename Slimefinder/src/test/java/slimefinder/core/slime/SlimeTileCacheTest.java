@@ -0,0 +1,139 @@
+package slimefinder.core.slime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SlimeTileCacheTest {
+
+    private static final long WORLD_SEED = 42L;
+
+    /**
+     * Budget of a cache with a single set
+     */
+    private static final long ONE_SET = SlimeTileCache.WAYS * SlimeTileCache.TILE_BYTES;
+
+    @Test
+    public void chunksMatchOracle() {
+        SlimeTileCache cache = new SlimeTileCache(new OracleSlimeChunks(WORLD_SEED), 1 << 20);
+        for (int z = -100; z < 100; z++) {
+            for (int x = -100; x < 100; x++) {
+                assertEquals(SlimeChunkOracle.isSlimeChunk(WORLD_SEED, x, z), cache.isSlimeChunk(x, z));
+            }
+        }
+    }
+
+    @Test
+    public void rowsMatchOracle() {
+        SlimeTileCache cache = new SlimeTileCache(new OracleSlimeChunks(WORLD_SEED), 1 << 20);
+        long[] words = new long[4];
+        for (int z = -3; z < 3; z++) {
+            cache.row(-130, z, 200, words, 0);
+            for (int i = 0; i < 200; i++) {
+                assertEquals(SlimeChunkOracle.isSlimeChunk(WORLD_SEED, i - 130, z), (words[i >>> 6] >>> i & 1) != 0);
+            }
+            assertEquals(0L, words[3] >>> 8);
+            for (int x = -80; x < 80; x++) {
+                int bits = cache.row(x, z, 17);
+                for (int i = 0; i < 17; i++) {
+                    assertEquals(SlimeChunkOracle.isSlimeChunk(WORLD_SEED, x + i, z), (bits >>> i & 1) != 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void columnsMatchOracle() {
+        SlimeTileCache cache = new SlimeTileCache(new OracleSlimeChunks(WORLD_SEED), 1 << 20);
+        for (int x = -3; x < 3; x++) {
+            for (int z = -80; z < 80; z++) {
+                int bits = cache.column(x, z, 32);
+                for (int i = 0; i < 32; i++) {
+                    assertEquals(SlimeChunkOracle.isSlimeChunk(WORLD_SEED, x, z + i), (bits >>> i & 1) != 0);
+                }
+            }
+        }
+        assertEquals(0, cache.column(0, 0, 0));
+    }
+
+    @Test
+    public void hitsAndMissesAreCounted() {
+        SlimeTileCache cache = new SlimeTileCache(new OracleSlimeChunks(WORLD_SEED), 1 << 20);
+        cache.isSlimeChunk(0, 0);
+        cache.isSlimeChunk(63, 63);
+        cache.isSlimeChunk(64, 0);
+        cache.isSlimeChunk(0, 1);
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.tileCount());
+    }
+
+    @Test
+    public void tileCountStaysWithinBudget() {
+        SlimeTileCache cache = new SlimeTileCache(new OracleSlimeChunks(WORLD_SEED), 3 * ONE_SET);
+        assertEquals(2 * SlimeTileCache.WAYS, cache.capacity());
+        for (int tileX = 0; tileX < 50; tileX++) {
+            cache.isSlimeChunk(64 * tileX, 0);
+        }
+        assertEquals(50, cache.misses());
+        assertTrue(cache.tileCount() <= cache.capacity());
+        assertTrue((long) cache.capacity() * SlimeTileCache.TILE_BYTES <= 3 * ONE_SET);
+    }
+
+    @Test
+    public void leastRecentlyUsedTileIsEvicted() {
+        SlimeTileCache cache = new SlimeTileCache(new OracleSlimeChunks(WORLD_SEED), ONE_SET);
+        for (int tileX = 0; tileX < SlimeTileCache.WAYS; tileX++) {
+            cache.isSlimeChunk(64 * tileX, 0);
+        }
+        cache.isSlimeChunk(0, 0);
+        cache.isSlimeChunk(64 * SlimeTileCache.WAYS, 0);
+        assertEquals(SlimeTileCache.WAYS + 1, cache.misses());
+        cache.isSlimeChunk(0, 0);
+        assertEquals(SlimeTileCache.WAYS + 1, cache.misses());
+        cache.isSlimeChunk(64, 0);
+        assertEquals(SlimeTileCache.WAYS + 2, cache.misses());
+    }
+
+    @Test
+    public void concurrentReadersSeeOracle() throws InterruptedException {
+        SlimeTileCache cache = new SlimeTileCache(new OracleSlimeChunks(WORLD_SEED), 2 * ONE_SET);
+        AtomicBoolean mismatch = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = 37 * t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    int x = (i * 31 + offset) % 1000 - 500, z = (i * 17 + offset) % 700 - 350;
+                    if (cache.isSlimeChunk(x, z) != SlimeChunkOracle.isSlimeChunk(WORLD_SEED, x, z)) mismatch.set(true);
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertFalse(mismatch.get());
+        assertTrue(cache.tileCount() <= cache.capacity());
+    }
+
+    @Test
+    public void concurrentLookupsAreCountedExactly() throws InterruptedException {
+        SlimeTileCache cache = new SlimeTileCache(new OracleSlimeChunks(WORLD_SEED), 1 << 20);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    // 5x3 tiles
+                    cache.isSlimeChunk(i % 320, i * 7 % 192);
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(15, cache.misses());
+        assertEquals(4 * 20000 - 15, cache.hits());
+    }
+}
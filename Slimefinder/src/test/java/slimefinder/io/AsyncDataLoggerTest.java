@@ -0,0 +1,159 @@
+package slimefinder.io;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class AsyncDataLoggerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AsyncDataLogger logger;
+    private String filename;
+
+    @Before
+    public void setUp() {
+        logger = new AsyncDataLogger(new CLI());
+        filename = new File(folder.getRoot(), "results.csv").getPath();
+    }
+
+    private MaskData maskData(int chunkX, int chunkZ, Point in) {
+        MaskData m = new MaskData();
+        m.chunk = new Point(chunkX, chunkZ);
+        m.in = in;
+        m.blockSize = 100 + chunkX;
+        m.blockSurfaceArea = 49640;
+        m.chunkSize = 1 + chunkZ;
+        m.chunkSurfaceArea = 222;
+        return m;
+    }
+
+    private List<String> lines(String filename) throws IOException {
+        return Files.readAllLines(new File(filename).toPath());
+    }
+
+    @Test
+    public void outputIsSameAsThatOfDataLogger() throws IOException {
+        String expected = new File(folder.getRoot(), "expected.csv").getPath();
+        DataLogger reference = new DataLogger(new CLI());
+        reference.start(expected, false);
+        logger.start(filename, false);
+        Random r = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            Point in = i % 100 == 0 ? null : new Point(r.nextInt(16), r.nextInt(16));
+            MaskData m = maskData(r.nextInt() >> 8, r.nextInt(2000) - 1000, in);
+            reference.write(m);
+            logger.write(m);
+        }
+        reference.close();
+        logger.close();
+        assertEquals(lines(expected), lines(filename));
+    }
+
+    @Test
+    public void noMatchesAreLostWithManyWritingThreads() throws Exception {
+        logger.start(filename, false);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int chunkX = t;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int z = 0; z < 50000; z++) {
+                        logger.write(maskData(chunkX, z, new Point(0, 0)));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        logger.close();
+
+        List<String> lines = lines(filename);
+        Set<String> unique = new HashSet<>(lines.subList(1, lines.size()));
+        assertEquals(4 * 50000 + 1, lines.size());
+        assertEquals(4 * 50000, unique.size());
+        assertTrue(unique.contains("48,49984;3c0,3124c0;103/49640;3125/222"));
+    }
+
+    @Test
+    public void checkpointIncludesEveryWrittenMatch() throws IOException {
+        logger.start(filename, false);
+        for (int i = 0; i < 1000; i++) {
+            logger.write(maskData(i, 0, new Point(0, 0)));
+        }
+        long length = logger.checkpoint();
+        assertEquals(0, logger.getQueueDepth());
+        assertEquals(new File(filename).length(), length);
+        assertEquals(1001, lines(filename).size());
+        logger.write(maskData(-1, 0, new Point(0, 0)));
+        logger.close();
+
+        logger.resume(filename, length);
+        logger.write(maskData(-2, 0, new Point(0, 0)));
+        logger.close();
+
+        List<String> lines = lines(filename);
+        assertEquals(1002, lines.size());
+        assertEquals("-32,0;-2c0,0c0;98/49640;1/222", lines.get(1001));
+    }
+
+    @Test(timeout = 30000)
+    public void writingFailsInsteadOfWaitingWhenTheWriterThreadHasFailed() throws IOException {
+        File full = new File("/dev/full");
+        assumeTrue(full.exists() && full.canWrite());
+        // The queue is full long before the writer thread fills its buffer and fails
+        logger = new AsyncDataLogger(new CLI(), 4);
+        logger.start(full.getPath(), true);
+        try {
+            for (int i = 0; i < 1000000; i++) {
+                logger.write(maskData(i, 0, new Point(0, 0)));
+            }
+            fail("Writing to a full device did not fail");
+        } catch (IOException e) {
+        } finally {
+            logger.close();
+        }
+        try {
+            logger.write(maskData(0, 0, null));
+            fail("Writing after a failure did not fail");
+        } catch (IOException e) {
+        }
+
+        logger.start(filename, false);
+        for (int i = 0; i < 10; i++) {
+            logger.write(maskData(i, 0, new Point(0, 0)));
+        }
+        logger.checkpoint();
+        logger.close();
+        assertEquals(11, lines(filename).size());
+    }
+
+    @Test
+    public void closingAfterFailedStartDoesNotThrow() {
+        try {
+            logger.start(new File(folder.getRoot(), "missing/results.csv").getPath(), false);
+            fail("Opening a file in a missing directory did not fail");
+        } catch (IOException e) {
+        }
+        logger.close();
+    }
+}
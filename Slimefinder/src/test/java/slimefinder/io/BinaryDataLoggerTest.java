@@ -0,0 +1,135 @@
+package slimefinder.io;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.util.Point;
+
+import static org.junit.Assert.*;
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class BinaryDataLoggerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MaskProperties pMask;
+    private BinaryDataLogger logger;
+    private File file;
+
+    @Before
+    public void setUp() {
+        pMask = new MaskProperties();
+        pMask.setProperty(SEED, -1234567890123L);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, false);
+        pMask.setProperty(OFFSET, -16);
+        pMask.setProperty(WEIGHT, 255);
+        logger = new BinaryDataLogger(new CLI(), pMask);
+        file = new File(folder.getRoot(), "results.dat");
+    }
+
+    private MaskData maskData(int chunkX, int chunkZ, Point in) {
+        MaskData m = new MaskData();
+        m.chunk = new Point(chunkX, chunkZ);
+        m.in = in;
+        m.blockSize = 70000 + chunkX;
+        m.blockSurfaceArea = 73984;
+        m.chunkSize = 289;
+        m.chunkSurfaceArea = 289;
+        return m;
+    }
+
+    private List<MaskData> read() throws IOException {
+        List<MaskData> data = new ArrayList<>();
+        try (BinaryResultsReader reader = new BinaryResultsReader(file)) {
+            MaskData m = new MaskData();
+            while (reader.next(m)) data.add(new MaskData(m));
+        }
+        return data;
+    }
+
+    @Test
+    public void writtenMatchesAreReadBack() throws IOException {
+        List<MaskData> written = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            written.add(maskData(i - 5000, Integer.MIN_VALUE + i, i % 7 == 0 ? null : new Point(i & 15, 15 - (i & 15))));
+        }
+        logger.start(file.getPath(), false);
+        for (MaskData m : written) logger.write(m);
+        logger.close();
+
+        assertTrue(BinaryResults.isBinary(file));
+        assertEquals(BinaryResults.HEADER_SIZE + 10000L * BinaryResults.RECORD_SIZE, file.length());
+        assertEquals(written, read());
+        try (BinaryResultsReader reader = new BinaryResultsReader(file)) {
+            assertTrue(BinaryResults.sameMask(pMask, reader.getMaskProperties()));
+            assertEquals("java", reader.getMaskProperties().getString(ALGORITHM));
+            MaskData m = new MaskData();
+            reader.get(1234, m);
+            assertEquals(written.get(1234), m);
+        }
+    }
+
+    @Test
+    public void resumingDiscardsMatchesWrittenAfterCheckpoint() throws IOException {
+        logger.start(file.getPath(), false);
+        logger.write(maskData(1, 2, new Point(3, 4)));
+        long length = logger.checkpoint();
+        logger.write(maskData(5, 6, new Point(7, 8)));
+        logger.close();
+
+        logger.resume(file.getPath(), length);
+        logger.write(maskData(9, 10, null));
+        logger.close();
+
+        List<MaskData> data = read();
+        assertEquals(2, data.size());
+        assertEquals(maskData(1, 2, new Point(3, 4)), data.get(0));
+        assertEquals(maskData(9, 10, null), data.get(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void appendingWithDifferentMaskFails() throws IOException {
+        logger.start(file.getPath(), false);
+        logger.close();
+        pMask.setProperty(OFFSET, 0);
+        logger.start(file.getPath(), true);
+    }
+
+    @Test(expected = IOException.class)
+    public void appendingWithDifferentSlimeAlgorithmFails() throws IOException {
+        logger.start(file.getPath(), false);
+        logger.close();
+        pMask.setProperty(ALGORITHM, (Object) "bedrock");
+        logger.start(file.getPath(), true);
+    }
+
+    @Test
+    public void slimeAlgorithmIsReadBack() throws IOException {
+        pMask.setProperty(ALGORITHM, (Object) "bedrock");
+        logger.start(file.getPath(), false);
+        logger.close();
+        try (BinaryResultsReader reader = new BinaryResultsReader(file)) {
+            assertEquals("bedrock", reader.getMaskProperties().getString(ALGORITHM));
+            assertEquals(-16, (int) reader.getMaskProperties().getInt(OFFSET));
+        }
+    }
+
+    @Test
+    public void csvFileIsNotBinary() throws IOException {
+        DataLogger csv = new DataLogger(new CLI());
+        csv.start(file.getPath(), false);
+        csv.close();
+        assertFalse(BinaryResults.isBinary(file));
+    }
+}
@@ -0,0 +1,68 @@
+package slimefinder.io;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+import static org.junit.Assert.*;
+
+public class DataLoggerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DataLogger logger;
+    private String filename;
+
+    @Before
+    public void setUp() {
+        logger = new DataLogger(new CLI());
+        filename = new File(folder.getRoot(), "results.csv").getPath();
+    }
+
+    private MaskData maskData(int chunkX, int chunkZ) {
+        MaskData m = new MaskData();
+        m.chunk = new Point(chunkX, chunkZ);
+        m.in = new Point(0, 0);
+        m.blockSize = 100;
+        m.blockSurfaceArea = 49640;
+        m.chunkSize = 1;
+        m.chunkSurfaceArea = 222;
+        return m;
+    }
+
+    @Test
+    public void resumingDiscardsLinesWrittenAfterCheckpoint() throws IOException {
+        logger.start(filename, false);
+        logger.write(maskData(1, 2));
+        long length = logger.checkpoint();
+        logger.write(maskData(3, 4));
+        logger.close();
+
+        logger.resume(filename, length);
+        logger.write(maskData(5, 6));
+        logger.close();
+
+        List<String> lines = Files.readAllLines(new File(filename).toPath());
+        assertEquals(3, lines.size());
+        assertEquals("block-position;chunk-position;blockSize;chunkSize", lines.get(0));
+        assertEquals("16,32;1c0,2c0;100/49640;1/222", lines.get(1));
+        assertEquals("80,96;5c0,6c0;100/49640;1/222", lines.get(2));
+    }
+
+    @Test(expected = IOException.class)
+    public void resumingFailsIfOutputIsShorterThanCheckpoint() throws IOException {
+        logger.start(filename, false);
+        logger.close();
+        logger.resume(filename, 1000);
+    }
+}
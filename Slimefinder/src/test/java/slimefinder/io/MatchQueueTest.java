@@ -0,0 +1,66 @@
+package slimefinder.io;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.util.Point;
+
+import static org.junit.Assert.*;
+
+public class MatchQueueTest {
+
+    private MaskData maskData(int chunkX) {
+        MaskData m = new MaskData();
+        m.chunk = new Point(chunkX, 0);
+        m.in = new Point(1, 2);
+        return m;
+    }
+
+    @Test
+    public void recordsAreRemovedInOrder() {
+        MatchQueue queue = new MatchQueue(4);
+        int[] record = new int[MatchQueue.RECORD_SIZE];
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(maskData(i)));
+            assertTrue(queue.poll(record));
+            assertEquals(i, record[0]);
+        }
+        assertFalse(queue.poll(record));
+    }
+
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwo() {
+        for (int capacity : new int[] {1, 2, 3, 5}) {
+            MatchQueue queue = new MatchQueue(capacity);
+            int size = Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1;
+            for (int i = 0; i < size; i++) {
+                assertTrue(queue.offer(maskData(i)));
+            }
+            assertEquals(size, queue.size());
+            queue.close();
+            assertFalse(queue.offer(maskData(size)));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void producerWaitingOnFullQueueGivesUpWhenClosed() throws InterruptedException {
+        MatchQueue queue = new MatchQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(maskData(i)));
+        }
+        AtomicBoolean added = new AtomicBoolean(true);
+        Thread producer = new Thread(() -> added.set(queue.offer(maskData(4))));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+        queue.close();
+        producer.join();
+        assertFalse(added.get());
+        assertFalse(queue.offer(maskData(5)));
+        int[] record = new int[MatchQueue.RECORD_SIZE];
+        assertTrue(queue.poll(record));
+        assertEquals(0, record[0]);
+    }
+}
@@ -0,0 +1,97 @@
+package slimefinder.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import slimefinder.core.mask.MaskData;
+import slimefinder.io.properties.MaskProperties;
+import slimefinder.util.Point;
+
+import static org.junit.Assert.*;
+import static slimefinder.io.properties.MaskProperties.*;
+
+public class ResultsConverterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MaskProperties maskProperties() {
+        MaskProperties pMask = new MaskProperties();
+        pMask.setProperty(SEED, 42L);
+        pMask.setProperty(DESPAWN, true);
+        pMask.setProperty(EXCLUSION, true);
+        pMask.setProperty(OFFSET, 0);
+        pMask.setProperty(WEIGHT, 0);
+        return pMask;
+    }
+
+    @Test
+    public void convertingToBinaryAndBackGivesSameCsv() throws IOException {
+        String csv = new File(folder.getRoot(), "results.csv").getPath();
+        String binary = new File(folder.getRoot(), "results.dat").getPath();
+        String back = new File(folder.getRoot(), "back.csv").getPath();
+        DataLogger logger = new DataLogger(new CLI());
+        logger.start(csv, false);
+        Random r = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            MaskData m = new MaskData();
+            m.chunk = new Point(r.nextInt(4000000) - 2000000, r.nextInt(200) - 100);
+            m.in = i % 10 == 0 ? null : new Point(r.nextInt(16), r.nextInt(16));
+            m.blockSize = r.nextInt(49640);
+            m.blockSurfaceArea = 49640;
+            m.chunkSize = r.nextInt(222);
+            m.chunkSurfaceArea = 222;
+            logger.write(m);
+        }
+        logger.close();
+
+        CLI cli = new CLI();
+        assertEquals(1000, ResultsConverter.convert(csv, binary, maskProperties(), cli));
+        assertTrue(BinaryResults.isBinary(new File(binary)));
+        assertEquals(1000, ResultsConverter.convert(binary, back, maskProperties(), cli));
+        assertEquals(Files.readAllLines(new File(csv).toPath()), Files.readAllLines(new File(back).toPath()));
+    }
+
+    @Test
+    public void parsingLines() {
+        MaskData m = new MaskData();
+        assertTrue(ResultsConverter.parseLine("-44,12;-3c4,0c12;4005/49640;18/222", m));
+        assertEquals(new Point(-3, 0), m.chunk);
+        assertEquals(new Point(4, 12), m.in);
+        assertEquals(4005, m.blockSize);
+        assertEquals(49640, m.blockSurfaceArea);
+        assertEquals(18, m.chunkSize);
+        assertEquals(222, m.chunkSurfaceArea);
+
+        assertTrue(ResultsConverter.parseLine("-16,32 to -1,47;-1c,2c;1/2;3/4", m));
+        assertEquals(new Point(-1, 2), m.chunk);
+        assertNull(m.in);
+
+        assertFalse(ResultsConverter.parseLine("block-position;chunk-position;blockSize;chunkSize", m));
+        assertFalse(ResultsConverter.parseLine("0,0", m));
+    }
+
+    @Test
+    public void unwritableOutputFailsWithIOException() throws IOException {
+        String csv = new File(folder.getRoot(), "results.csv").getPath();
+        String binary = new File(folder.getRoot(), "results.dat").getPath();
+        String missing = new File(folder.getRoot(), "missing/results").getPath();
+        DataLogger logger = new DataLogger(new CLI());
+        logger.start(csv, false);
+        logger.close();
+        ResultsConverter.convert(csv, binary, maskProperties(), new CLI());
+        for (String input : new String[] {csv, binary}) {
+            try {
+                ResultsConverter.convert(input, missing, maskProperties(), new CLI());
+                fail("Converting '" + input + "' into a missing directory did not fail");
+            } catch (IOException e) {
+            }
+        }
+    }
+}
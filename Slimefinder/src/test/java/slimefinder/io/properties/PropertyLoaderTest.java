@@ -188,6 +188,34 @@ public class PropertyLoaderTest {
         );
     }
 
+    @Test
+    public void unknownSlimeAlgorithmIsReplacedByDefault() {
+        properties = new MaskProperties();
+        in = new ByteArrayInputStream((
+            "#comment" + LN +
+            MaskProperties.ALGORITHM + "=bedrok" + LN
+        ).getBytes());
+
+        loader.read(properties, in);
+
+        cli.flush();
+        assertTrue(stdout.toString().contains(
+            CLI.WARNING_PREFIX + "'bedrok' is not a valid value for '" + MaskProperties.ALGORITHM +
+            "'. Using default '" + MaskProperties.ALGORITHM + "=java'"
+        ));
+        assertEquals("java", properties.getString(MaskProperties.ALGORITHM));
+    }
+
+    @Test
+    public void slimeAlgorithmIgnoresCase() {
+        properties = new MaskProperties();
+        in = new ByteArrayInputStream((MaskProperties.ALGORITHM + "=Bedrock" + LN).getBytes());
+
+        loader.read(properties, in);
+
+        assertEquals("bedrock", properties.getString(MaskProperties.ALGORITHM));
+    }
+
 
 /*_____________________________________________ Writing ______________________________________________________________*/
 